@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core;
+
+import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.MIN_COMPACTION_RECORDS;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_FILE_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_JOURNAL_FILE_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry.UNKNOWN_REMOTE_REVISION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.JournalRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+
+/**
+ * {@link CodenvyProjectSyncState} test. The synchronization state files are kept in memory, each project has its own path so that the
+ * states cached by a test are never seen by another one.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvyProjectSyncStateTest {
+    private static final AtomicInteger PROJECT_COUNT = new AtomicInteger();
+
+    private final ObjectMapper         mapper        = new ObjectMapper();
+    private Map<String, byte[]>        fileContents;
+    private Map<String, Long>          fileStamps;
+    private Map<String, Integer>       fileReads;
+    private List<ISchedulingRule>      writeRules;
+    private ISchedulingRule            heldRule;
+    private long                       stamp;
+    private IProject                   project;
+
+    @Before
+    public void before() throws CoreException {
+        fileContents = new HashMap<>();
+        fileStamps = new HashMap<>();
+        fileReads = new HashMap<>();
+        writeRules = new ArrayList<>();
+
+        final IFolder codenvyFolder = mock(IFolder.class);
+        when(codenvyFolder.exists()).thenReturn(true);
+        when(codenvyFolder.getFile(SYNC_STATE_FILE_NAME)).thenReturn(mockFile(SYNC_STATE_FILE_NAME));
+        when(codenvyFolder.getFile(SYNC_STATE_JOURNAL_FILE_NAME)).thenReturn(mockFile(SYNC_STATE_JOURNAL_FILE_NAME));
+
+        project = mock(IProject.class);
+        when(project.getFullPath()).thenReturn(new Path("/project" + PROJECT_COUNT.incrementAndGet()));
+        when(project.getFolder(CODENVY_FOLDER_NAME)).thenReturn(codenvyFolder);
+
+        final IWorkspace workspace = mock(IWorkspace.class);
+        when(project.getWorkspace()).thenReturn(workspace);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws CoreException {
+                heldRule = (ISchedulingRule)invocation.getArguments()[1];
+                try {
+
+                    ((IWorkspaceRunnable)invocation.getArguments()[0]).run(null);
+
+                } finally {
+                    heldRule = null;
+                }
+                return null;
+            }
+        }).when(workspace).run(any(IWorkspaceRunnable.class), any(ISchedulingRule.class), anyInt(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void testReadEntryWithoutRemoteRevision() throws IOException {
+        final Entry entry = mapper.readValue("{\"path\":\"src/App.java\",\"folder\":false,\"size\":12,\"modificationStamp\":3,\"hash\":42}",
+                                             Entry.class);
+
+        assertEquals("src/App.java", entry.path);
+        assertEquals(UNKNOWN_REMOTE_REVISION, entry.remoteRevision);
+    }
+
+    @Test
+    public void testEntryJsonRoundTrip() throws IOException {
+        final Entry entry = new Entry("src/App.java", false, 12, 3, 42, 1400000000000L);
+
+        assertEquals(entry, mapper.readValue(mapper.writeValueAsString(entry), Entry.class));
+    }
+
+    @Test
+    public void testWithRemoteRevision() {
+        final Entry entry = new Entry("src/App.java", false, 12, 3, 42);
+
+        assertSame(entry, entry.withRemoteRevision(UNKNOWN_REMOTE_REVISION));
+        assertEquals(new Entry("src/App.java", false, 12, 3, 42, 7L), entry.withRemoteRevision(7));
+    }
+
+    @Test
+    public void testDiff() {
+        final Entry unchanged = new Entry("pom.xml", false, 1, 1, 1);
+        final Entry changed = new Entry("src/App.java", false, 2, 2, 2);
+        final Entry removed = new Entry("README", false, 3, 3, 3);
+        final Entry added = new Entry("src/Main.java", false, 4, 4, 4);
+        final Entry newChanged = new Entry("src/App.java", false, 5, 5, 5);
+
+        final List<JournalRecord> records =
+                                            CodenvyProjectSyncState.diff(new CodenvyProjectSyncState(Arrays.asList(unchanged, changed,
+                                                                                                                   removed)),
+                                                                         new CodenvyProjectSyncState(Arrays.asList(unchanged,
+                                                                                                                   newChanged, added)));
+
+        assertEquals(3, records.size());
+        assertEquals(newChanged, records.get(0).entry);
+        assertEquals(added, records.get(1).entry);
+        assertNull(records.get(2).entry);
+        assertEquals("README", records.get(2).removed);
+    }
+
+    @Test
+    public void testJournalRecordJsonRoundTrip() throws IOException {
+        final String removal = mapper.writeValueAsString(new JournalRecord(null, "README"));
+        assertEquals("{\"removed\":\"README\"}", removal);
+        assertEquals("README", mapper.readValue(removal, JournalRecord.class).removed);
+
+        final Entry entry = new Entry("src/App.java", false, 12, 3, 42, 7L);
+        assertEquals(entry, mapper.readValue(mapper.writeValueAsString(new JournalRecord(entry, null)), JournalRecord.class).entry);
+    }
+
+    @Test
+    public void testLoadWithoutSyncState() {
+        assertNull(CodenvyProjectSyncState.load(project));
+        assertNull(CodenvyProjectSyncState.getRevision(project));
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final CodenvyProjectSyncState syncState = syncState(new Entry("src", true, 0, 1, 0), new Entry("src/App.java", false, 12, 2, 42));
+
+        CodenvyProjectSyncState.save(project, syncState);
+        evictCachedState();
+
+        assertEquals(syncState, CodenvyProjectSyncState.load(project));
+        assertNotNull(CodenvyProjectSyncState.getRevision(project));
+        assertTrue(fileContents.containsKey(SYNC_STATE_FILE_NAME));
+        assertFalse(fileContents.containsKey(SYNC_STATE_JOURNAL_FILE_NAME));
+    }
+
+    @Test
+    public void testSaveAppendsChangesToTheJournal() {
+        final Entry unchanged = new Entry("pom.xml", false, 1, 1, 1);
+        CodenvyProjectSyncState.save(project, syncState(unchanged, new Entry("src/App.java", false, 2, 2, 2),
+                                                        new Entry("README", false, 3, 3, 3)));
+        final byte[] snapshot = fileContents.get(SYNC_STATE_FILE_NAME);
+        final String revision = CodenvyProjectSyncState.getRevision(project);
+
+        final CodenvyProjectSyncState newSyncState = syncState(unchanged, new Entry("src/App.java", false, 5, 5, 5),
+                                                               new Entry("src/Main.java", false, 4, 4, 4));
+        CodenvyProjectSyncState.save(project, newSyncState);
+
+        assertSame(snapshot, fileContents.get(SYNC_STATE_FILE_NAME));
+        assertEquals(3, journalLines().size());
+        assertFalse(revision.equals(CodenvyProjectSyncState.getRevision(project)));
+
+        evictCachedState();
+        assertEquals(newSyncState, CodenvyProjectSyncState.load(project));
+    }
+
+    @Test
+    public void testJournalIsCompactedAboveThreshold() {
+        CodenvyProjectSyncState.save(project, syncState());
+
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < MIN_COMPACTION_RECORDS; i++) {
+            entries.add(new Entry("File" + i, false, i, i, i));
+        }
+        CodenvyProjectSyncState.save(project, new CodenvyProjectSyncState(entries));
+        assertEquals(MIN_COMPACTION_RECORDS, journalLines().size());
+
+        entries.add(new Entry("File" + MIN_COMPACTION_RECORDS, false, 0, 0, 0));
+        final CodenvyProjectSyncState compactedSyncState = new CodenvyProjectSyncState(entries);
+        CodenvyProjectSyncState.save(project, compactedSyncState);
+
+        assertFalse(fileContents.containsKey(SYNC_STATE_JOURNAL_FILE_NAME));
+        evictCachedState();
+        assertEquals(compactedSyncState, CodenvyProjectSyncState.load(project));
+    }
+
+    @Test
+    public void testTruncatedJournalIsRecoveredAndCompacted() {
+        final Entry app = new Entry("src/App.java", false, 2, 2, 2);
+        CodenvyProjectSyncState.save(project, syncState(new Entry("pom.xml", false, 1, 1, 1)));
+        CodenvyProjectSyncState.save(project, syncState(new Entry("pom.xml", false, 1, 1, 1), app));
+
+        // a crash while appending the next record
+        write(SYNC_STATE_JOURNAL_FILE_NAME, "{\"entry\":{\"path\":\"src/Ma".getBytes(Charsets.UTF_8), true);
+        evictCachedState();
+
+        assertEquals(syncState(new Entry("pom.xml", false, 1, 1, 1), app), CodenvyProjectSyncState.load(project));
+
+        final CodenvyProjectSyncState newSyncState = syncState(app);
+        CodenvyProjectSyncState.save(project, newSyncState);
+
+        assertFalse(fileContents.containsKey(SYNC_STATE_JOURNAL_FILE_NAME));
+        evictCachedState();
+        assertEquals(newSyncState, CodenvyProjectSyncState.load(project));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testCorruptedJournalRecordBeforeTheLastOneIsNotIgnored() {
+        CodenvyProjectSyncState.save(project, syncState(new Entry("pom.xml", false, 1, 1, 1)));
+        write(SYNC_STATE_JOURNAL_FILE_NAME, "{\"entry\":{\"pa\n{\"removed\":\"pom.xml\"}\n".getBytes(Charsets.UTF_8), false);
+        evictCachedState();
+
+        CodenvyProjectSyncState.load(project);
+    }
+
+    @Test
+    public void testCachedStateIsEvictedWhenTheProjectIsClosed() {
+        final CodenvyProjectSyncState syncState = syncState(new Entry("pom.xml", false, 1, 1, 1));
+        CodenvyProjectSyncState.save(project, syncState);
+
+        assertEquals(syncState, CodenvyProjectSyncState.load(project));
+        assertEquals(syncState, CodenvyProjectSyncState.load(project));
+        assertNull(fileReads.get(SYNC_STATE_FILE_NAME));
+
+        evictCachedState();
+
+        assertEquals(syncState, CodenvyProjectSyncState.load(project));
+        assertEquals(Integer.valueOf(1), fileReads.get(SYNC_STATE_FILE_NAME));
+    }
+
+    @Test
+    public void testStateIsWrittenHoldingTheProjectRule() {
+        CodenvyProjectSyncState.save(project, syncState(new Entry("pom.xml", false, 1, 1, 1)));
+        CodenvyProjectSyncState.save(project, syncState(new Entry("pom.xml", false, 2, 2, 2)));
+        CodenvyProjectSyncState.compact(project);
+
+        assertEquals(Arrays.<ISchedulingRule> asList(project, project, project), writeRules);
+    }
+
+    private void evictCachedState() {
+        final IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        when(event.getType()).thenReturn(IResourceChangeEvent.PRE_CLOSE);
+        when(event.getResource()).thenReturn(project);
+
+        new CodenvyProjectSyncState.CacheEvictor().resourceChanged(event);
+    }
+
+    private List<String> journalLines() {
+        final String journal = new String(fileContents.get(SYNC_STATE_JOURNAL_FILE_NAME), Charsets.UTF_8);
+        return Arrays.asList(journal.trim().split("\n"));
+    }
+
+    private static CodenvyProjectSyncState syncState(Entry... entries) {
+        return new CodenvyProjectSyncState(Arrays.asList(entries));
+    }
+
+    private void write(String name, byte[] bytes, boolean append) {
+        final byte[] previousBytes = fileContents.get(name);
+        if (append && previousBytes != null) {
+            final byte[] appendedBytes = Arrays.copyOf(previousBytes, previousBytes.length + bytes.length);
+            System.arraycopy(bytes, 0, appendedBytes, previousBytes.length, bytes.length);
+            fileContents.put(name, appendedBytes);
+        } else {
+            fileContents.put(name, bytes);
+        }
+        fileStamps.put(name, ++stamp);
+    }
+
+    private IFile mockFile(final String name) throws CoreException {
+        final IFile file = mock(IFile.class);
+        when(file.exists()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return fileContents.containsKey(name);
+            }
+        });
+        when(file.getModificationStamp()).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                return fileStamps.containsKey(name) ? fileStamps.get(name) : IResource.NULL_STAMP;
+            }
+        });
+        when(file.getContents(true)).thenAnswer(new Answer<InputStream>() {
+            @Override
+            public InputStream answer(InvocationOnMock invocation) {
+                fileReads.put(name, fileReads.containsKey(name) ? fileReads.get(name) + 1 : 1);
+                return new ByteArrayInputStream(fileContents.get(name));
+            }
+        });
+        doAnswer(writeAnswer(name, false)).when(file).create(any(InputStream.class), anyBoolean(), any(IProgressMonitor.class));
+        doAnswer(writeAnswer(name, false)).when(file).setContents(any(InputStream.class), anyInt(), any(IProgressMonitor.class));
+        doAnswer(writeAnswer(name, true)).when(file).appendContents(any(InputStream.class), anyInt(), any(IProgressMonitor.class));
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                fileContents.remove(name);
+                fileStamps.remove(name);
+                return null;
+            }
+        }).when(file).delete(anyBoolean(), any(IProgressMonitor.class));
+        return file;
+    }
+
+    private Answer<Void> writeAnswer(final String name, final boolean append) {
+        return new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws IOException {
+                writeRules.add(heldRule);
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final InputStream inputStream = (InputStream)invocation.getArguments()[0];
+                final byte[] buffer = new byte[1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                write(name, bytes.toByteArray(), append);
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.factories;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.codenvy.eclipse.core.team.CodenvyMetaResource;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex;
+
+/**
+ * {@link CodenvyAdapterFactory} test. The project indexes never finish loading, like when reading a synchronization state hangs, to
+ * check that the adapters are still returned without blocking and that a lookup in progress doesn't block the other lookups.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvyAdapterFactoryTest {
+    private static final int      DECORATOR_THREADS = 8;
+
+    private ExecutorService       loader;
+    private CountDownLatch        loaderBlocked;
+    private ExecutorService       decorators;
+    private CodenvyAdapterFactory adapterFactory;
+
+    @Before
+    public void before() {
+        loaderBlocked = new CountDownLatch(1);
+        loader = Executors.newSingleThreadExecutor();
+        loader.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+
+                    loaderBlocked.await();
+
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        decorators = Executors.newFixedThreadPool(DECORATOR_THREADS);
+        adapterFactory = new CodenvyAdapterFactory(new CodenvyTrackedStateIndex(loader));
+    }
+
+    @After
+    public void after() {
+        loaderBlocked.countDown();
+        loader.shutdownNow();
+        decorators.shutdownNow();
+    }
+
+    @Test
+    public void testGetAdapterWithUnsupportedAdapterType() {
+        assertNull(adapterFactory.getAdapter(mockResource("project", "file"), String.class));
+        assertNull(adapterFactory.getAdapter("notAResource", CodenvyMetaResource.class));
+    }
+
+    @Test
+    public void testGetAdapter() {
+        final IResource resource = mockResource("project", "src/App.java");
+        final CodenvyMetaResource metaResource = (CodenvyMetaResource)adapterFactory.getAdapter(resource, CodenvyMetaResource.class);
+
+        assertSame(resource, metaResource.getResource());
+        assertFalse(metaResource.isTracked());
+    }
+
+    @Test
+    public void testGetAdapterDoesNotHoldTheFactoryLock() throws Exception {
+        final IResource resource = mockResource("project", "src/App.java");
+
+        synchronized (adapterFactory) {
+            final Future<Object> adapter = decorators.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return adapterFactory.getAdapter(resource, CodenvyMetaResource.class);
+                }
+            });
+
+            assertTrue(adapter.get(5, SECONDS) instanceof CodenvyMetaResource);
+        }
+    }
+
+    @Test
+    public void testLookupsOverlap() throws Exception {
+        final CountDownLatch lookupEntered = new CountDownLatch(1);
+        final CountDownLatch lookupReleased = new CountDownLatch(1);
+
+        final IResource blockedResource = mockResource("project", "src/Blocked.java");
+        final IProject blockedProject = blockedResource.getProject();
+        when(blockedProject.getName()).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws InterruptedException {
+                lookupEntered.countDown();
+                lookupReleased.await();
+                return "project";
+            }
+        });
+
+        final Future<Boolean> blockedLookup = decorators.submit(lookup(blockedResource));
+        assertTrue(lookupEntered.await(5, SECONDS));
+
+        try {
+
+            final List<Future<Boolean>> lookups = new ArrayList<>();
+            for (int i = 1; i < DECORATOR_THREADS; i++) {
+                lookups.add(decorators.submit(lookup(mockResource("project" + i % 2, "src/File" + i + ".java"))));
+            }
+            for (Future<Boolean> oneLookup : lookups) {
+                assertFalse(oneLookup.get(5, SECONDS));
+            }
+            assertFalse(blockedLookup.isDone());
+
+        } finally {
+            lookupReleased.countDown();
+        }
+
+        assertFalse(blockedLookup.get(5, SECONDS));
+    }
+
+    private Callable<Boolean> lookup(final IResource resource) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return ((CodenvyMetaResource)adapterFactory.getAdapter(resource, CodenvyMetaResource.class)).isTracked();
+            }
+        };
+    }
+
+    private static IResource mockResource(String projectName, String path) {
+        final IProject project = mock(IProject.class);
+        when(project.getName()).thenReturn(projectName);
+
+        final IResource resource = mock(IResource.class);
+        when(resource.getType()).thenReturn(IResource.FILE);
+        when(resource.getProject()).thenReturn(project);
+        when(resource.getProjectRelativePath()).thenReturn(new Path(path));
+        return resource;
+    }
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * {@link ArtifactDownloader} test against a local stand-in artifact server.
+ *
+ * @author Kevin Pollet
+ */
+public class ArtifactDownloaderTest {
+    private static final Pattern  RANGE_PATTERN = Pattern.compile("^Range: bytes=(\\d+)-(\\d+)$", Pattern.CASE_INSENSITIVE);
+
+    private ExecutorService       executorService;
+    private ServerSocket          serverSocket;
+    private File                  cacheDirectory;
+    private volatile byte[]       artifact;
+    private volatile boolean      acceptRanges;
+    private volatile String       checksum;
+    private volatile String       etag;
+    private final AtomicInteger   requests      = new AtomicInteger();
+    private final AtomicInteger   rangeRequests = new AtomicInteger();
+    private final AtomicInteger   failures      = new AtomicInteger();
+    private final AtomicInteger   changes       = new AtomicInteger();
+
+    @Before
+    public void before() throws IOException {
+        executorService = Executors.newCachedThreadPool();
+        serverSocket = new ServerSocket(0);
+        cacheDirectory = Files.createTempDir();
+        artifact = new byte[3 * (int)ArtifactDownloader.MIN_SEGMENT_LENGTH + 12345];
+        new Random(42).nextBytes(artifact);
+        acceptRanges = true;
+        serve();
+    }
+
+    @After
+    public void after() throws IOException {
+        serverSocket.close();
+        executorService.shutdownNow();
+        delete(cacheDirectory);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewArtifactDownloaderWithoutConnections() {
+        new ArtifactDownloader(cacheDirectory, 0, executorService);
+    }
+
+    @Test
+    public void testDownloadWithRangeRequests() throws IOException {
+        final File downloaded = newArtifactDownloader().download(url(), new NullProgressMonitor());
+
+        assertEquals("app.war", downloaded.getName());
+        assertArrayEquals(artifact, Files.toByteArray(downloaded));
+        assertEquals(3, rangeRequests.get() - 1);
+        assertEquals(ArtifactDownloader.sha1(downloaded),
+                     Files.toString(new File(downloaded.getPath() + ArtifactDownloader.CHECKSUM_SUFFIX), Charsets.UTF_8));
+        assertEquals(2, downloaded.getParentFile().list().length);
+    }
+
+    @Test
+    public void testDownloadWithoutRangeRequests() throws IOException {
+        acceptRanges = false;
+
+        final File downloaded = newArtifactDownloader().download(url(), new NullProgressMonitor());
+
+        assertArrayEquals(artifact, Files.toByteArray(downloaded));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testDownloadResumesInterruptedSegments() throws IOException {
+        failures.set(2);
+
+        final File downloaded = newArtifactDownloader().download(url(), new NullProgressMonitor());
+
+        assertArrayEquals(artifact, Files.toByteArray(downloaded));
+        assertTrue(failures.get() < 0);
+    }
+
+    @Test
+    public void testCachedArtifactIsNotDownloadedAgain() throws IOException {
+        final ArtifactDownloader artifactDownloader = newArtifactDownloader();
+        artifactDownloader.download(url(), new NullProgressMonitor());
+        requests.set(0);
+
+        final File downloaded = artifactDownloader.download(url(), new NullProgressMonitor());
+
+        assertArrayEquals(artifact, Files.toByteArray(downloaded));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testCorruptedCachedArtifactIsDownloadedAgain() throws IOException {
+        final ArtifactDownloader artifactDownloader = newArtifactDownloader();
+        final File downloaded = artifactDownloader.download(url(), new NullProgressMonitor());
+
+        final byte[] corrupted = artifact.clone();
+        corrupted[0]++;
+        Files.write(corrupted, downloaded);
+
+        assertArrayEquals(artifact, Files.toByteArray(artifactDownloader.download(url(), new NullProgressMonitor())));
+    }
+
+    @Test
+    public void testDownloadVerifiesChecksum() throws IOException {
+        checksum = "0000000000000000000000000000000000000000";
+
+        try {
+
+            newArtifactDownloader().download(url(), new NullProgressMonitor());
+            throw new AssertionError("IOException expected");
+
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void testDownloadMatchingChecksum() throws IOException {
+        final File expected = new File(cacheDirectory, "expected");
+        Files.write(artifact, expected);
+        checksum = ArtifactDownloader.sha1(expected).toUpperCase();
+
+        final File downloaded = newArtifactDownloader().download(url(), new NullProgressMonitor());
+
+        assertArrayEquals(artifact, Files.toByteArray(downloaded));
+    }
+
+    @Test
+    public void testArtifactChangedDuringDownloadRestartsFromZero() throws IOException {
+        etag = "\"v1\"";
+        changes.set(1);
+
+        final File downloaded = newArtifactDownloader().download(url(), new NullProgressMonitor());
+
+        assertArrayEquals(changedArtifact(), Files.toByteArray(downloaded));
+        assertTrue(changes.get() < 0);
+        assertEquals(2, downloaded.getParentFile().list().length);
+    }
+
+    @Test
+    public void testConcurrentDownloadsOfSameArtifactAreSerialized() throws Exception {
+        final ArtifactDownloader artifactDownloader = newArtifactDownloader();
+        final Callable<File> download = new Callable<File>() {
+            @Override
+            public File call() throws IOException {
+                return artifactDownloader.download(url(), new NullProgressMonitor());
+            }
+        };
+
+        final Future<File> download1 = executorService.submit(download);
+        final Future<File> download2 = executorService.submit(download);
+
+        assertArrayEquals(artifact, Files.toByteArray(download1.get(30, SECONDS)));
+        assertArrayEquals(artifact, Files.toByteArray(download2.get(30, SECONDS)));
+        assertEquals(5, requests.get());
+    }
+
+    @Test(expected = OperationCanceledException.class)
+    public void testCancelledDownload() throws IOException {
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+
+        newArtifactDownloader().download(url(), monitor);
+    }
+
+    @Test
+    public void testDownloadWithServerError() {
+        try {
+
+            newArtifactDownloader().download(url().replace("app.war", "missing.war"), new NullProgressMonitor());
+            throw new AssertionError("IOException expected");
+
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("404"));
+        }
+        assertFalse(new File(cacheDirectory, "missing.war").exists());
+    }
+
+    private ArtifactDownloader newArtifactDownloader() {
+        return new ArtifactDownloader(cacheDirectory, 4, executorService);
+    }
+
+    private String url() {
+        return "http://localhost:" + serverSocket.getLocalPort() + "/builder/download/app.war?token=42";
+    }
+
+    private void serve() {
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+
+                        final Socket socket = serverSocket.accept();
+                        executorService.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                handle(socket);
+                            }
+                        });
+
+                    } catch (IOException e) {
+                        // the server socket has been closed
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private void handle(Socket socket) {
+        try (Socket closeable = socket) {
+
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.ISO_8859_1));
+            final String requestLine = reader.readLine();
+            requests.incrementAndGet();
+
+            Matcher range = null;
+            String ifRange = null;
+            String header;
+            while ((header = reader.readLine()) != null && !header.isEmpty()) {
+                final Matcher matcher = RANGE_PATTERN.matcher(header);
+                if (matcher.matches()) {
+                    range = matcher;
+                }
+                if (header.toLowerCase().startsWith("if-range:")) {
+                    ifRange = header.substring("if-range:".length()).trim();
+                }
+            }
+
+            final OutputStream outputStream = socket.getOutputStream();
+            if (!requestLine.contains("/app.war")) {
+                outputStream.write("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n".getBytes(Charsets.UTF_8));
+                return;
+            }
+
+            if (ifRange != null && changes.getAndDecrement() > 0) {
+                artifact = changedArtifact();
+                etag = "\"v2\"";
+            }
+
+            final byte[] artifact = this.artifact;
+            final StringBuilder headers = new StringBuilder();
+            int start = 0;
+            int end = artifact.length - 1;
+            if (range != null && ifRange != null && !ifRange.equals(etag)) {
+                headers.append("HTTP/1.1 200 OK\r\n");
+            } else if (range != null && acceptRanges) {
+                rangeRequests.incrementAndGet();
+                start = Integer.parseInt(range.group(1));
+                end = Math.min(end, Integer.parseInt(range.group(2)));
+                headers.append("HTTP/1.1 206 Partial Content\r\nContent-Range: bytes " + start + "-" + end + "/" + artifact.length + "\r\n");
+            } else {
+                headers.append("HTTP/1.1 200 OK\r\n");
+            }
+            if (checksum != null) {
+                headers.append(ArtifactDownloader.CHECKSUM_HEADER + ": " + checksum + "\r\n");
+            }
+            if (etag != null) {
+                headers.append("ETag: " + etag + "\r\n");
+            }
+            headers.append("Content-Length: " + (end - start + 1) + "\r\nConnection: close\r\n\r\n");
+
+            outputStream.write(headers.toString().getBytes(Charsets.UTF_8));
+
+            int length = end - start + 1;
+            if (length > 1 && failures.getAndDecrement() > 0) {
+                length /= 2;
+            }
+            outputStream.write(artifact, start, length);
+            outputStream.flush();
+
+        } catch (IOException e) {
+            // the client closed the connection
+        }
+    }
+
+    private static byte[] changedArtifact() {
+        final byte[] changedArtifact = new byte[2 * (int)ArtifactDownloader.MIN_SEGMENT_LENGTH + 54321];
+        new Random(7).nextBytes(changedArtifact);
+        return changedArtifact;
+    }
+
+    private static void delete(File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File oneChild : children) {
+                delete(oneChild);
+            }
+        }
+        file.delete();
+    }
+}
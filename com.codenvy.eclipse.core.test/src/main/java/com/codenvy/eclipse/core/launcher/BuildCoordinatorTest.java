@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.launcher.BuildCoordinator.Build;
+import com.codenvy.eclipse.core.launcher.BuildCoordinator.BuildParticipant;
+
+/**
+ * {@link BuildCoordinator} test.
+ *
+ * @author Kevin Pollet
+ */
+public class BuildCoordinatorTest {
+    private static final Executor SAME_THREAD_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewBuildCoordinatorWithZeroMaxConcurrentBuilds() {
+        new BuildCoordinator(0, SAME_THREAD_EXECUTOR);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewBuildCoordinatorWithNullExecutor() {
+        new BuildCoordinator(1, null);
+    }
+
+    @Test
+    public void testBuildsAreStartedOnTheExecutor() {
+        final Deque<Runnable> tasks = new ArrayDeque<>();
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        });
+        final FakeParticipant participant = new FakeParticipant(1L);
+
+        final Build build = buildCoordinator.join("project", participant);
+
+        assertFalse(buildCoordinator.isQueued(build));
+        assertEquals(0, participant.startCount);
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+
+        assertEquals(1, participant.startCount);
+        assertEquals(Long.valueOf(1), participant.startedTaskId);
+    }
+
+    @Test
+    public void testRejectedStartNotifiesEveryParticipant() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        final FakeParticipant participant = new FakeParticipant(1L);
+
+        buildCoordinator.join("project", participant);
+
+        assertEquals(0, participant.startCount);
+        assertTrue(participant.notStarted);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetMaxConcurrentBuildsWithZero() {
+        new BuildCoordinator(1, SAME_THREAD_EXECUTOR).setMaxConcurrentBuilds(0);
+    }
+
+    @Test
+    public void testRaisingMaxConcurrentBuildsStartsQueuedBuilds() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+
+        buildCoordinator.join("project1", participant1);
+        final Build build2 = buildCoordinator.join("project2", participant2);
+
+        assertTrue(buildCoordinator.isQueued(build2));
+
+        buildCoordinator.setMaxConcurrentBuilds(2);
+
+        assertEquals(2, buildCoordinator.getMaxConcurrentBuilds());
+        assertFalse(buildCoordinator.isQueued(build2));
+        assertEquals(Long.valueOf(2), participant2.startedTaskId);
+    }
+
+    @Test
+    public void testJoinStartsBuild() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant = new FakeParticipant(1L);
+
+        final Build build = buildCoordinator.join("project", participant);
+
+        assertEquals(1, participant.startCount);
+        assertEquals(Long.valueOf(1), participant.startedTaskId);
+        assertFalse(buildCoordinator.isQueued(build));
+    }
+
+    @Test
+    public void testJoinAttachesToIdenticalBuild() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+
+        final Build build1 = buildCoordinator.join("project", participant1);
+        final Build build2 = buildCoordinator.join("project", participant2);
+
+        assertSame(build1, build2);
+        assertEquals(0, participant2.startCount);
+        assertEquals(Long.valueOf(1), participant2.startedTaskId);
+    }
+
+    @Test
+    public void testJoinQueuesBuildsOverMaxConcurrentBuilds() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+
+        final Build build1 = buildCoordinator.join("project1", participant1);
+        final Build build2 = buildCoordinator.join("project2", participant2);
+
+        assertTrue(buildCoordinator.isQueued(build2));
+        assertNull(participant2.startedTaskId);
+
+        buildCoordinator.terminated(build1);
+
+        assertFalse(buildCoordinator.isQueued(build2));
+        assertEquals(Long.valueOf(2), participant2.startedTaskId);
+    }
+
+    @Test
+    public void testJoinAfterTerminationStartsNewBuild() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+
+        buildCoordinator.terminated(buildCoordinator.join("project", participant1));
+        buildCoordinator.join("project", participant2);
+
+        assertEquals(1, participant2.startCount);
+    }
+
+    @Test
+    public void testLeaveLastParticipantOfStartedBuild() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+
+        final Build build = buildCoordinator.join("project", participant1);
+        buildCoordinator.join("project", participant2);
+
+        assertFalse(buildCoordinator.leave(build, participant1));
+        assertTrue(buildCoordinator.leave(build, participant2));
+    }
+
+    @Test
+    public void testLeaveQueuedBuild() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant1 = new FakeParticipant(1L);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+        final FakeParticipant participant3 = new FakeParticipant(3L);
+
+        final Build build1 = buildCoordinator.join("project1", participant1);
+        final Build build2 = buildCoordinator.join("project2", participant2);
+        buildCoordinator.join("project3", participant3);
+
+        assertFalse(buildCoordinator.leave(build2, participant2));
+
+        buildCoordinator.terminated(build1);
+
+        assertEquals(0, participant2.startCount);
+        assertEquals(Long.valueOf(3), participant3.startedTaskId);
+    }
+
+    @Test
+    public void testBuildNotStarted() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant blocker = new FakeParticipant(1L);
+        final FakeParticipant participant1 = new FakeParticipant(null);
+        final FakeParticipant participant2 = new FakeParticipant(2L);
+        final FakeParticipant participant3 = new FakeParticipant(3L);
+
+        final Build build = buildCoordinator.join("blocker", blocker);
+        buildCoordinator.join("project", participant1);
+        buildCoordinator.join("project", participant2);
+        buildCoordinator.join("other", participant3);
+        buildCoordinator.terminated(build);
+
+        assertTrue(participant2.notStarted);
+        assertEquals(0, participant2.startCount);
+        assertEquals(Long.valueOf(3), participant3.startedTaskId);
+    }
+
+    @Test
+    public void testStarterCancelsBuildWhenEveryParticipantLeftWhileStarting() {
+        final BuildCoordinator buildCoordinator = new BuildCoordinator(1, SAME_THREAD_EXECUTOR);
+        final FakeParticipant participant = new FakeParticipant(1L) {
+            @Override
+            public Long startBuild() {
+                buildCoordinator.leave(build, this);
+                return super.startBuild();
+            }
+        };
+
+        final Build blocker = buildCoordinator.join("blocker", new FakeParticipant(2L));
+        participant.build = buildCoordinator.join("project", participant);
+        buildCoordinator.terminated(blocker);
+
+        assertEquals(Long.valueOf(1), participant.cancelledTaskId);
+        assertNull(participant.startedTaskId);
+
+        final FakeParticipant other = new FakeParticipant(3L);
+        buildCoordinator.join("other", other);
+        assertEquals(Long.valueOf(3), other.startedTaskId);
+    }
+
+    private static class FakeParticipant implements BuildParticipant {
+        private final Long taskId;
+        Build              build;
+        int                startCount;
+        Long               startedTaskId;
+        Long               cancelledTaskId;
+        boolean            notStarted;
+
+        FakeParticipant(Long taskId) {
+            this.taskId = taskId;
+        }
+
+        @Override
+        public Long startBuild() {
+            startCount++;
+            return taskId;
+        }
+
+        @Override
+        public void buildStarted(Build build, long taskId) {
+            this.startedTaskId = taskId;
+        }
+
+        @Override
+        public void buildNotStarted() {
+            notStarted = true;
+        }
+
+        @Override
+        public void cancelBuild(long taskId) {
+            cancelledTaskId = taskId;
+        }
+    }
+}
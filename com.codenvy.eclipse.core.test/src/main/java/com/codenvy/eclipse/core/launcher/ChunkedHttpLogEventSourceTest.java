@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codenvy.client.auth.Credentials;
+import com.codenvy.client.auth.Token;
+import com.codenvy.client.store.DataStore;
+import com.codenvy.eclipse.core.launcher.LogEventSource.LogEventListener;
+import com.google.common.base.Charsets;
+
+/**
+ * {@link ChunkedHttpLogEventSource} test against a local stand-in log server.
+ *
+ * @author Kevin Pollet
+ */
+public class ChunkedHttpLogEventSourceTest {
+    private static final String            USERNAME = "kevin";
+    private static final String            TOKEN    = "123123";
+
+    private ExecutorService                executorService;
+    private DataStore<String, Credentials> credentialsStore;
+    private ServerSocket                   serverSocket;
+    private volatile String                requestLine;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() throws IOException {
+        executorService = Executors.newCachedThreadPool();
+        serverSocket = new ServerSocket(0);
+
+        final Token token = mock(Token.class);
+        when(token.value()).thenReturn(TOKEN);
+
+        final Credentials credentials = mock(Credentials.class);
+        when(credentials.token()).thenReturn(token);
+
+        credentialsStore = mock(DataStore.class);
+        when(credentialsStore.get(USERNAME)).thenReturn(credentials);
+    }
+
+    @After
+    public void after() throws IOException {
+        serverSocket.close();
+        executorService.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewChunkedHttpLogEventSourceWithNullUrlTemplate() {
+        new ChunkedHttpLogEventSource(null, credentialsStore, USERNAME, executorService);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewChunkedHttpLogEventSourceWithNullCredentialsStore() {
+        new ChunkedHttpLogEventSource(urlTemplate(), null, USERNAME, executorService);
+    }
+
+    @Test
+    public void testOpenStreamsLogs() throws InterruptedException {
+        serveChunks("line1\n", "line2\n", "line3");
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertEquals("line1\nline2\nline3", listener.logs.toString());
+        assertTrue(requestLine.startsWith("GET /logs/42?token=" + TOKEN + " "));
+    }
+
+    @Test
+    public void testOpenWithoutStoredCredentials() throws InterruptedException {
+        serveChunks("line1\n");
+        when(credentialsStore.get(USERNAME)).thenReturn(null);
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertTrue(requestLine.startsWith("GET /logs/42 "));
+    }
+
+    @Test
+    public void testSilentStreamIsClosedAfterTheReadTimeout() throws InterruptedException {
+        final CountDownLatch released = new CountDownLatch(1);
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = serverSocket.accept()) {
+
+                    final OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(("HTTP/1.1 200 OK\r\nContent-Type: text/plain; charset=UTF-8\r\n"
+                                        + "Transfer-Encoding: chunked\r\n\r\n6\r\nline1\n\r\n").getBytes(Charsets.UTF_8));
+                    outputStream.flush();
+                    released.await(5, SECONDS);
+
+                } catch (IOException e) {
+                    // the server socket has been closed
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = new ChunkedHttpLogEventSource(urlTemplate(), credentialsStore, USERNAME, executorService, 100);
+
+        try {
+
+            assertTrue(logEventSource.open(42, listener));
+            assertTrue(listener.closed.await(5, SECONDS));
+            assertEquals("line1\n", listener.logs.toString());
+
+        } finally {
+            released.countDown();
+        }
+    }
+
+    @Test
+    public void testOpenWithoutPushChannel() throws InterruptedException {
+        serveNotFound();
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertEquals("", listener.logs.toString());
+    }
+
+    @Test
+    public void testOpenWithUnreachableServer() throws IOException, InterruptedException {
+        final String urlTemplate = urlTemplate();
+        serverSocket.close();
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate);
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertEquals("", listener.logs.toString());
+    }
+
+    @Test
+    public void testOpenDoesNotWaitForTheHeaders() throws InterruptedException {
+        final CountDownLatch accepted = new CountDownLatch(1);
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = serverSocket.accept()) {
+
+                    accepted.countDown();
+                    while (socket.getInputStream().read() != -1) {
+                        // never answers
+                    }
+
+                } catch (IOException e) {
+                    // the server socket has been closed
+                }
+            }
+        });
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(accepted.await(5, SECONDS));
+
+        logEventSource.close();
+
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertEquals("", listener.logs.toString());
+    }
+
+    @Test
+    public void testCloseBeforeTheConnectionIsOpened() throws InterruptedException {
+        serveChunks("line1\n");
+
+        final RecordingListener listener = new RecordingListener();
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+        logEventSource.close();
+
+        assertTrue(logEventSource.open(42, listener));
+        assertTrue(listener.closed.await(5, SECONDS));
+        assertEquals("", listener.logs.toString());
+    }
+
+    @Test
+    public void testOpenWithRejectedExecution() {
+        executorService.shutdown();
+
+        final LogEventSource logEventSource = newLogEventSource(urlTemplate());
+
+        assertFalse(logEventSource.open(42, new RecordingListener()));
+    }
+
+    private LogEventSource newLogEventSource(String urlTemplate) {
+        return new ChunkedHttpLogEventSource(urlTemplate, credentialsStore, USERNAME, executorService);
+    }
+
+    private String urlTemplate() {
+        return "http://localhost:" + serverSocket.getLocalPort() + "/logs/" + ChunkedHttpLogEventSource.PROCESS_ID_PLACEHOLDER;
+    }
+
+    private void serveNotFound() {
+        serve("HTTP/1.1 404 Not Found\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+    }
+
+    private void serveChunks(String... chunks) {
+        final StringBuilder response = new StringBuilder("HTTP/1.1 200 OK\r\nContent-Type: text/plain; charset=UTF-8\r\n"
+                                                         + "Transfer-Encoding: chunked\r\nConnection: close\r\n\r\n");
+        for (String oneChunk : chunks) {
+            response.append(Integer.toHexString(oneChunk.getBytes(Charsets.UTF_8).length)).append("\r\n").append(oneChunk).append("\r\n");
+        }
+        response.append("0\r\n\r\n");
+
+        serve(response.toString());
+    }
+
+    private void serve(final String response) {
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                try (Socket socket = serverSocket.accept()) {
+
+                    final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+                    requestLine = reader.readLine();
+
+                    String header;
+                    do {
+                        header = reader.readLine();
+                    } while (header != null && !header.isEmpty());
+
+                    final OutputStream outputStream = socket.getOutputStream();
+                    outputStream.write(response.getBytes(Charsets.UTF_8));
+                    outputStream.flush();
+
+                } catch (IOException e) {
+                    // the server socket has been closed
+                }
+            }
+        });
+    }
+
+    private static class RecordingListener implements LogEventListener {
+        private final StringBuffer   logs   = new StringBuffer();
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void logsAppended(String logs) {
+            this.logs.append(logs);
+        }
+
+        @Override
+        public void logsClosed() {
+            closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+/**
+ * {@link ChunkedStreamMonitor} test.
+ *
+ * @author Kevin Pollet
+ */
+public class ChunkedStreamMonitorTest {
+    private ScheduledExecutorService dispatcher;
+
+    @Before
+    public void before() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void after() {
+        dispatcher.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewChunkedStreamMonitorWithNullDispatcher() {
+        new ChunkedStreamMonitor(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewChunkedStreamMonitorWithNegativeMaxRetainedLength() {
+        new ChunkedStreamMonitor(-1, dispatcher);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAppendWithNullText() {
+        new ChunkedStreamMonitor(dispatcher).append(null);
+    }
+
+    @Test
+    public void testGetContentsReturnsAppendedTexts() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(0, dispatcher);
+        final String largeText = Strings.repeat("x", 20000);
+
+        streamMonitor.append("line1\n");
+        streamMonitor.append(largeText);
+        streamMonitor.append("line2\n");
+
+        assertEquals("line1\n" + largeText + "line2\n", streamMonitor.getContents());
+        assertEquals(largeText.length() + 12, streamMonitor.getLength());
+    }
+
+    @Test
+    public void testGetContentsFromPosition() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(0, dispatcher);
+        streamMonitor.append("line1\n");
+
+        final long position = streamMonitor.getLength();
+        streamMonitor.append("line2\n");
+
+        assertEquals("line2\n", streamMonitor.getContents(position));
+        assertEquals("", streamMonitor.getContents(streamMonitor.getLength()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetContentsFromPositionAfterEnd() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(0, dispatcher);
+        streamMonitor.append("line1\n");
+
+        streamMonitor.getContents(7);
+    }
+
+    @Test
+    public void testOldestContentsAreDroppedOverRetentionCap() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(10, dispatcher);
+
+        streamMonitor.append("line1\n");
+        streamMonitor.append("line2\n");
+        streamMonitor.append("line3\n");
+
+        assertEquals("[... 8 characters dropped ...]\nne2\nline3\n", streamMonitor.getContents());
+        assertEquals("line3\n", streamMonitor.getContents(12));
+        assertEquals(18, streamMonitor.getLength());
+    }
+
+    @Test
+    public void testNothingIsRetainedWhenNotBuffered() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(dispatcher);
+        streamMonitor.append("line1\n");
+
+        streamMonitor.flushContents();
+        streamMonitor.setBuffered(false);
+        streamMonitor.append("line2\n");
+
+        assertEquals("", streamMonitor.getContents());
+        assertEquals(12, streamMonitor.getLength());
+    }
+
+    @Test
+    public void testListenersAreNotifiedByTheDispatcher() throws InterruptedException {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(dispatcher);
+        final RecordingListener listener = new RecordingListener(1);
+        streamMonitor.addListener(listener);
+
+        streamMonitor.append("line1\n");
+
+        assertTrue(listener.notified.await(5, SECONDS));
+        assertEquals("line1\n", listener.texts.get(0));
+    }
+
+    @Test
+    public void testListenersAreNotifiedOnceOfCoalescedTexts() {
+        final ScheduledExecutorService pendingDispatcher = mock(ScheduledExecutorService.class);
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(pendingDispatcher);
+        final RecordingListener listener = new RecordingListener(1);
+        streamMonitor.addListener(listener);
+
+        streamMonitor.append("line1\n");
+        streamMonitor.append("line2\n");
+        streamMonitor.dispatchPendingText();
+
+        verify(pendingDispatcher, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        assertEquals(1, listener.texts.size());
+        assertEquals("line1\nline2\n", listener.texts.get(0));
+    }
+
+    @Test
+    public void testListenerIsOnlyNotifiedOfTextsAppendedAfterRegistration() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(dispatcher);
+        final RecordingListener listener = new RecordingListener(1);
+
+        streamMonitor.append("line1\n");
+        streamMonitor.addListener(listener);
+        streamMonitor.append("line2\n");
+        streamMonitor.dispatchPendingText();
+
+        assertEquals(1, listener.texts.size());
+        assertEquals("line2\n", listener.texts.get(0));
+    }
+
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        final ChunkedStreamMonitor streamMonitor = new ChunkedStreamMonitor(dispatcher);
+        final RecordingListener listener = new RecordingListener(1);
+
+        streamMonitor.addListener(listener);
+        streamMonitor.removeListener(listener);
+        streamMonitor.append("line1\n");
+        streamMonitor.dispatchPendingText();
+
+        assertTrue(listener.texts.isEmpty());
+    }
+
+    private static class RecordingListener implements IStreamListener {
+        private final List<String>   texts;
+        private final CountDownLatch notified;
+
+        RecordingListener(int expectedNotifications) {
+            this.texts = new ArrayList<>();
+            this.notified = new CountDownLatch(expectedNotifications);
+        }
+
+        @Override
+        public synchronized void streamAppended(String text, IStreamMonitor monitor) {
+            texts.add(text);
+            notified.countDown();
+        }
+    }
+}
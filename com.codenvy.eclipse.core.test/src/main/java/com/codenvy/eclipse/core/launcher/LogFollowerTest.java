@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+/**
+ * {@link LogFollower} test.
+ *
+ * @author Kevin Pollet
+ */
+public class LogFollowerTest {
+    private ScheduledExecutorService  dispatcher;
+    private ChunkedStreamMonitor      outputStream;
+    private AtomicBoolean             streamClosed;
+    private Runnable                  streamClosedCallback;
+
+    @Before
+    public void before() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor();
+        outputStream = new ChunkedStreamMonitor(dispatcher);
+        streamClosed = new AtomicBoolean(false);
+        streamClosedCallback = new Runnable() {
+            @Override
+            public void run() {
+                streamClosed.set(true);
+            }
+        };
+    }
+
+    @After
+    public void after() {
+        dispatcher.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewLogFollowerWithNullOutputStream() {
+        new LogFollower(null, null, streamClosedCallback);
+    }
+
+    @Test
+    public void testFollowWithoutLogEventSourcePollsLogs() {
+        final LogFollower logFollower = new LogFollower(null, outputStream, streamClosedCallback);
+
+        assertEquals("line1\n", logFollower.follow(1, false, logs("line1\nline2")));
+        assertEquals("line2", logFollower.follow(1, true, logs("line1\nline2")));
+    }
+
+    @Test
+    public void testFollowFallsBackToPollingWhenNoPushChannel() {
+        final FakeLogEventSource logEventSource = new FakeLogEventSource(false);
+        final LogFollower logFollower = new LogFollower(logEventSource, outputStream, streamClosedCallback);
+
+        assertEquals("line1\n", logFollower.follow(1, false, logs("line1\n")));
+        assertTrue(logEventSource.openCalled);
+    }
+
+    @Test
+    public void testFollowDoesNotPollWhileStreaming() {
+        final FakeLogEventSource logEventSource = new FakeLogEventSource(true);
+        final LogFollower logFollower = new LogFollower(logEventSource, outputStream, streamClosedCallback);
+
+        assertEquals("", logFollower.follow(1, false, logs("line1\n")));
+        logEventSource.listener.logsAppended("line1\nli");
+
+        assertEquals("", logFollower.follow(1, false, logs("line1\nline2\n")));
+        assertEquals("line1\nli", outputStream.getContents());
+    }
+
+    @Test
+    public void testFollowPollsFromWhereTheStreamStopped() {
+        final FakeLogEventSource logEventSource = new FakeLogEventSource(true);
+        final LogFollower logFollower = new LogFollower(logEventSource, outputStream, streamClosedCallback);
+
+        logFollower.follow(1, false, logs(""));
+        logEventSource.listener.logsAppended("line1\nli");
+        logEventSource.listener.logsClosed();
+
+        assertTrue(streamClosed.get());
+        assertEquals("ne2\n", logFollower.follow(1, false, logs("line1\nline2\n")));
+
+        logEventSource.listener.logsAppended("ignored");
+        assertEquals("line1\nli", outputStream.getContents());
+    }
+
+    @Test
+    public void testFollowClosesStreamWhenTerminated() {
+        final FakeLogEventSource logEventSource = new FakeLogEventSource(true);
+        final LogFollower logFollower = new LogFollower(logEventSource, outputStream, streamClosedCallback);
+
+        logFollower.follow(1, false, logs(""));
+        logEventSource.listener.logsAppended("line1\n");
+
+        assertEquals("line2", logFollower.follow(1, true, logs("line1\nline2")));
+        assertTrue(logEventSource.closeCalled);
+        assertFalse(streamClosed.get());
+    }
+
+    private static Supplier<String> logs(String logs) {
+        return Suppliers.ofInstance(logs);
+    }
+
+    private static class FakeLogEventSource implements LogEventSource {
+        private final boolean    available;
+        private LogEventListener listener;
+        private boolean          openCalled;
+        private boolean          closeCalled;
+
+        FakeLogEventSource(boolean available) {
+            this.available = available;
+        }
+
+        @Override
+        public boolean open(long processId, LogEventListener listener) {
+            this.listener = listener;
+            this.openCalled = true;
+            return available;
+        }
+
+        @Override
+        public void close() {
+            closeCalled = true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * {@link LogTailer} test.
+ *
+ * @author Kevin Pollet
+ */
+public class LogTailerTest {
+    @Test(expected = NullPointerException.class)
+    public void testTailWithNullLogs() {
+        new LogTailer().tail(null);
+    }
+
+    @Test
+    public void testTailReturnsOnlyNewCompleteLines() {
+        final LogTailer logTailer = new LogTailer();
+
+        assertEquals("line1\n", logTailer.tail("line1\nline2"));
+        assertEquals("", logTailer.tail("line1\nline2"));
+        assertEquals("line2\nline3\n", logTailer.tail("line1\nline2\nline3\n"));
+        assertEquals("", logTailer.tail("line1\nline2\nline3\n"));
+    }
+
+    @Test
+    public void testTailPreservesRepeatedLines() {
+        final LogTailer logTailer = new LogTailer();
+
+        assertEquals("tick\ntick\n", logTailer.tail("tick\ntick\n"));
+        assertEquals("tick\n", logTailer.tail("tick\ntick\ntick\n"));
+    }
+
+    @Test
+    public void testTailWithShorterLogs() {
+        final LogTailer logTailer = new LogTailer();
+        logTailer.tail("line1\nline2\n");
+
+        assertEquals("", logTailer.tail("line1\n"));
+    }
+
+    @Test
+    public void testFlushReturnsLastLine() {
+        final LogTailer logTailer = new LogTailer();
+        logTailer.tail("line1\nline2");
+
+        assertEquals("line2", logTailer.flush("line1\nline2"));
+        assertEquals("", logTailer.flush("line1\nline2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdvanceWithNegativeLength() {
+        new LogTailer().advance(-1);
+    }
+
+    @Test
+    public void testTailAfterAdvance() {
+        final LogTailer logTailer = new LogTailer();
+        logTailer.advance("line1\nli".length());
+
+        assertEquals("ne2\n", logTailer.tail("line1\nline2\n"));
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * {@link PollingPolicy} test.
+ *
+ * @author Kevin Pollet
+ */
+public class PollingPolicyTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewPollingPolicyWithZeroMinDelay() {
+        new PollingPolicy(0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewPollingPolicyWithMaxDelayLowerThanMinDelay() {
+        new PollingPolicy(500, 100);
+    }
+
+    @Test
+    public void testNextDelayBacksOffUpToMaxDelay() {
+        final PollingPolicy pollingPolicy = new PollingPolicy(500, 3000);
+
+        assertEquals(1000, pollingPolicy.nextDelay(false));
+        assertEquals(2000, pollingPolicy.nextDelay(false));
+        assertEquals(3000, pollingPolicy.nextDelay(false));
+        assertEquals(3000, pollingPolicy.nextDelay(false));
+    }
+
+    @Test
+    public void testNextDelayResetsOnChange() {
+        final PollingPolicy pollingPolicy = new PollingPolicy(500, 3000);
+        pollingPolicy.nextDelay(false);
+        pollingPolicy.nextDelay(false);
+
+        assertEquals(500, pollingPolicy.nextDelay(true));
+        assertEquals(1000, pollingPolicy.nextDelay(false));
+    }
+}
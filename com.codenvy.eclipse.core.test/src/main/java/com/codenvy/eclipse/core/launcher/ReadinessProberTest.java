@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.launcher.ReadinessProber.ReadinessListener;
+import com.google.common.base.Charsets;
+
+/**
+ * {@link ReadinessProber} test against a local stand-in web application.
+ *
+ * @author Kevin Pollet
+ */
+public class ReadinessProberTest {
+    private ExecutorService          executorService;
+    private ScheduledExecutorService scheduler;
+    private ServerSocket             serverSocket;
+    private List<String>             requestLines;
+
+    @Before
+    public void before() throws IOException {
+        executorService = Executors.newCachedThreadPool();
+        scheduler = Executors.newScheduledThreadPool(1);
+        serverSocket = new ServerSocket(0);
+        requestLines = new CopyOnWriteArrayList<>();
+    }
+
+    @After
+    public void after() throws IOException {
+        serverSocket.close();
+        scheduler.shutdownNow();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testFirstProbeIsImmediate() throws InterruptedException {
+        serve(200);
+
+        final RecordingListener listener = new RecordingListener();
+        new ReadinessProber(url(), strategy("", 200, 120000), new ScheduledTasks(scheduler, executorService), listener).start();
+
+        assertTrue(listener.done.await(5, SECONDS));
+        assertTrue(listener.ready);
+        assertEquals(1, listener.attempts);
+        assertTrue(listener.elapsedTime < 1000);
+        assertTrue(requestLines.get(0).startsWith("HEAD / "));
+    }
+
+    @Test
+    public void testProbesUntilReady() throws InterruptedException {
+        serve(503, 503, 200);
+
+        final RecordingListener listener = new RecordingListener();
+        new ReadinessProber(url(), strategy("health", 200, 120000), new ScheduledTasks(scheduler, executorService), listener).start();
+
+        assertTrue(listener.done.await(5, SECONDS));
+        assertTrue(listener.ready);
+        assertEquals(3, listener.attempts);
+        assertTrue(requestLines.get(2).startsWith("HEAD /health "));
+    }
+
+    @Test
+    public void testAcceptedStatusCodes() throws InterruptedException {
+        serve(401);
+
+        final RecordingListener listener = new RecordingListener();
+        new ReadinessProber(url(), strategy("/", 401, 120000), new ScheduledTasks(scheduler, executorService), listener).start();
+
+        assertTrue(listener.done.await(5, SECONDS));
+        assertTrue(listener.ready);
+        assertEquals(1, listener.attempts);
+    }
+
+    @Test
+    public void testNotReadyAfterDeadline() throws InterruptedException, IOException {
+        final String url = url();
+        serverSocket.close();
+
+        final RecordingListener listener = new RecordingListener();
+        new ReadinessProber(url, strategy("", 200, 500), new ScheduledTasks(scheduler, executorService), listener).start();
+
+        assertTrue(listener.done.await(5, SECONDS));
+        assertFalse(listener.ready);
+        assertEquals(-1, listener.lastStatusCode);
+        assertTrue(listener.attempts >= 2);
+    }
+
+    @Test
+    public void testCancelledProbing() throws InterruptedException, IOException {
+        final String url = url();
+        serverSocket.close();
+
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, executorService);
+        final RecordingListener listener = new RecordingListener();
+        scheduledTasks.cancelAll();
+        new ReadinessProber(url, strategy("", 200, 500), scheduledTasks, listener).start();
+
+        assertFalse(listener.done.await(1, SECONDS));
+    }
+
+    private String url() {
+        return "http://localhost:" + serverSocket.getLocalPort() + "/";
+    }
+
+    private static ReadinessStrategy strategy(String path, int acceptedStatusCode, long deadline) {
+        final Set<Integer> acceptedStatusCodes = new HashSet<>(Collections.singleton(acceptedStatusCode));
+        return new ReadinessStrategy(path, acceptedStatusCodes, 50, 100, deadline);
+    }
+
+    private void serve(final int... statusCodes) {
+        executorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int oneStatusCode : statusCodes) {
+                    try (Socket socket = serverSocket.accept()) {
+
+                        final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+                        requestLines.add(reader.readLine());
+
+                        String header;
+                        do {
+                            header = reader.readLine();
+                        } while (header != null && !header.isEmpty());
+
+                        final OutputStream outputStream = socket.getOutputStream();
+                        outputStream.write(("HTTP/1.1 " + oneStatusCode + " Status\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                                           .getBytes(Charsets.UTF_8));
+                        outputStream.flush();
+
+                    } catch (IOException e) {
+                        // the server socket has been closed
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    private static class RecordingListener implements ReadinessListener {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean     ready;
+        private volatile int         attempts;
+        private volatile long        elapsedTime;
+        private volatile int         lastStatusCode;
+
+        @Override
+        public void ready(int attempts, long elapsedTime) {
+            this.ready = true;
+            this.attempts = attempts;
+            this.elapsedTime = elapsedTime;
+            done.countDown();
+        }
+
+        @Override
+        public void notReady(int attempts, long elapsedTime, int lastStatusCode) {
+            this.attempts = attempts;
+            this.elapsedTime = elapsedTime;
+            this.lastStatusCode = lastStatusCode;
+            done.countDown();
+        }
+    }
+}
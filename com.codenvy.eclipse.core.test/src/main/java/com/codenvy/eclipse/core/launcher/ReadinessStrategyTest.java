@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_DEADLINE_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_MAX_INTERVAL_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_PATH_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_STATUS_CODES_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.junit.Test;
+
+/**
+ * {@link ReadinessStrategy} test.
+ *
+ * @author Kevin Pollet
+ */
+public class ReadinessStrategyTest {
+    @Test(expected = NullPointerException.class)
+    public void testNewReadinessStrategyWithNullPath() {
+        new ReadinessStrategy(null, Collections.singleton(200), 250, 4000, 120000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewReadinessStrategyWithoutAcceptedStatusCodes() {
+        new ReadinessStrategy("", Collections.<Integer> emptySet(), 250, 4000, 120000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewReadinessStrategyWithMaxIntervalLowerThanMinInterval() {
+        new ReadinessStrategy("", Collections.singleton(200), 250, 100, 120000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewReadinessStrategyWithZeroDeadline() {
+        new ReadinessStrategy("", Collections.singleton(200), 250, 4000, 0);
+    }
+
+    @Test
+    public void testFromLaunchConfiguration() throws CoreException {
+        final ReadinessStrategy strategy = ReadinessStrategy.fromLaunchConfiguration(configuration("health", "200,204", 100, 30000));
+
+        assertEquals("health", strategy.path);
+        assertEquals(new HashSet<>(Arrays.asList(200, 204)), strategy.acceptedStatusCodes);
+        assertEquals(ReadinessStrategy.DEFAULT_MIN_INTERVAL, strategy.maxInterval);
+        assertEquals(30000, strategy.deadline);
+    }
+
+    @Test
+    public void testFromLaunchConfigurationWithInvalidStatusCodes() {
+        assertInvalidConfiguration(configuration("", "200,ok", 4000, 120000), "Invalid readiness status codes: 200,ok");
+        assertInvalidConfiguration(configuration("", "42", 4000, 120000), "Invalid readiness status codes: 42");
+        assertInvalidConfiguration(configuration("", " , ", 4000, 120000), "No readiness status code");
+    }
+
+    @Test
+    public void testFromLaunchConfigurationWithInvalidMaxInterval() {
+        assertInvalidConfiguration(configuration("", "200", 0, 120000),
+                                   "Invalid readiness maximum interval: 0, it must be strictly positive");
+    }
+
+    @Test
+    public void testFromLaunchConfigurationWithInvalidDeadline() {
+        assertInvalidConfiguration(configuration("", "200", 4000, 0), "Invalid readiness deadline: 0, it must be strictly positive");
+        assertInvalidConfiguration(configuration("", "200", 4000, -1), "Invalid readiness deadline: -1, it must be strictly positive");
+    }
+
+    @Test
+    public void testParseStatusCodes() {
+        final Set<Integer> statusCodes = ReadinessStrategy.parseStatusCodes(" 200, 204 ,,401");
+
+        assertEquals(new HashSet<>(Arrays.asList(200, 204, 401)), statusCodes);
+    }
+
+    @Test
+    public void testParseEmptyStatusCodes() {
+        assertTrue(ReadinessStrategy.parseStatusCodes("").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidStatusCodes() {
+        ReadinessStrategy.parseStatusCodes("200,ok");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseOutOfRangeStatusCodes() {
+        ReadinessStrategy.parseStatusCodes("200,600");
+    }
+
+    private static void assertInvalidConfiguration(ILaunchConfiguration configuration, String expectedMessage) {
+        try {
+
+            ReadinessStrategy.fromLaunchConfiguration(configuration);
+            fail("CoreException expected");
+
+        } catch (CoreException e) {
+            assertEquals(expectedMessage, e.getStatus().getMessage());
+        }
+    }
+
+    private static ILaunchConfiguration configuration(String path, String statusCodes, int maxInterval, int deadline) {
+        try {
+
+            final ILaunchConfiguration configuration = mock(ILaunchConfiguration.class);
+            when(configuration.getAttribute(eq(READINESS_PATH_ATTRIBUTE_NAME), anyString())).thenReturn(path);
+            when(configuration.getAttribute(eq(READINESS_STATUS_CODES_ATTRIBUTE_NAME), anyString())).thenReturn(statusCodes);
+            when(configuration.getAttribute(eq(READINESS_MAX_INTERVAL_ATTRIBUTE_NAME), anyInt())).thenReturn(maxInterval);
+            when(configuration.getAttribute(eq(READINESS_DEADLINE_ATTRIBUTE_NAME), anyInt())).thenReturn(deadline);
+            return configuration;
+
+        } catch (CoreException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link ScheduledTasks} test.
+ *
+ * @author Kevin Pollet
+ */
+public class ScheduledTasksTest {
+    private ScheduledExecutorService scheduler;
+    private ExecutorService          executor;
+
+    @Before
+    public void before() {
+        scheduler = Executors.newScheduledThreadPool(1);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void after() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewScheduledTasksWithNullScheduler() {
+        new ScheduledTasks(null, executor);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewScheduledTasksWithNullExecutor() {
+        new ScheduledTasks(scheduler, null);
+    }
+
+    @Test
+    public void testScheduleRunsTask() throws InterruptedException {
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, executor);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        assertNotNull(scheduledTasks.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0, MILLISECONDS));
+
+        assertTrue(latch.await(5, SECONDS));
+    }
+
+    @Test
+    public void testCancelAllCancelsPendingTasks() throws InterruptedException {
+        final HandOffExecutor handOffExecutor = new HandOffExecutor();
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, handOffExecutor);
+        final AtomicBoolean hasRun = new AtomicBoolean(false);
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                hasRun.set(true);
+            }
+        };
+
+        scheduledTasks.schedule(task, 0, MILLISECONDS);
+        final ScheduledFuture<?> pendingTask = scheduledTasks.schedule(task, 1, HOURS);
+        final Runnable handedOffCommand = handOffExecutor.commands.poll(5, SECONDS);
+        assertNotNull(handedOffCommand);
+
+        scheduledTasks.cancelAll();
+
+        assertTrue(scheduledTasks.isCancelled());
+        assertTrue(pendingTask.isCancelled());
+        assertNull(scheduledTasks.schedule(task, 0, MILLISECONDS));
+
+        // the task handed off before the cancellation is skipped when the worker runs it
+        handedOffCommand.run();
+        assertFalse(hasRun.get());
+        assertFalse(scheduler.isShutdown());
+    }
+
+    @Test
+    public void testScheduleOnShutdownScheduler() {
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, executor);
+        scheduler.shutdownNow();
+
+        assertNull(scheduledTasks.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 0, MILLISECONDS));
+    }
+
+    @Test
+    public void testBlockedTaskDoesNotDelayOtherTasks() throws InterruptedException {
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, executor);
+        final CountDownLatch blockedTaskRelease = new CountDownLatch(1);
+        final CountDownLatch otherTaskRun = new CountDownLatch(1);
+
+        try {
+
+            scheduledTasks.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+
+                        blockedTaskRelease.await();
+
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, 0, MILLISECONDS);
+
+            scheduledTasks.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    otherTaskRun.countDown();
+                }
+            }, 10, MILLISECONDS);
+
+            // the scheduler has a single thread
+            assertTrue(otherTaskRun.await(5, SECONDS));
+
+        } finally {
+            blockedTaskRelease.countDown();
+        }
+    }
+
+    @Test
+    public void testRejectedTaskIsHandedOffAgain() throws InterruptedException {
+        final AtomicBoolean rejected = new AtomicBoolean(false);
+        final Executor saturatedOnceExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (rejected.compareAndSet(false, true)) {
+                    throw new RejectedExecutionException();
+                }
+                executor.execute(command);
+            }
+        };
+        final ScheduledTasks scheduledTasks = new ScheduledTasks(scheduler, saturatedOnceExecutor);
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        scheduledTasks.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0, MILLISECONDS);
+
+        assertTrue(latch.await(5, SECONDS));
+        assertTrue(rejected.get());
+    }
+
+    private static class HandOffExecutor implements Executor {
+        private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+    }
+}
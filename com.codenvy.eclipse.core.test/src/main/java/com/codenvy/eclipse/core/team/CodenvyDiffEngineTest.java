@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static org.eclipse.team.core.synchronize.SyncInfo.ADDITION;
+import static org.eclipse.team.core.synchronize.SyncInfo.CHANGE;
+import static org.eclipse.team.core.synchronize.SyncInfo.CONFLICTING;
+import static org.eclipse.team.core.synchronize.SyncInfo.DELETION;
+import static org.eclipse.team.core.synchronize.SyncInfo.INCOMING;
+import static org.eclipse.team.core.synchronize.SyncInfo.IN_SYNC;
+import static org.eclipse.team.core.synchronize.SyncInfo.OUTGOING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.DiffListener;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTree;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTreeVisitor;
+
+/**
+ * {@link CodenvyDiffEngine} test.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvyDiffEngineTest {
+    private List<Entry>              baseEntries;
+    private Map<String, Entry>       localEntries;
+    private Map<String, String>      remoteFiles;
+    private Map<String, CodenvyDiff> diffs;
+    private Map<String, Entry>       remoteChanges;
+
+    @Before
+    public void before() {
+        baseEntries = new ArrayList<>();
+        localEntries = new HashMap<>();
+        remoteFiles = new HashMap<>();
+        diffs = new HashMap<>();
+        remoteChanges = new HashMap<>();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewCodenvyDiffEngineWithNullLocalTree() {
+        new CodenvyDiffEngine(null, null);
+    }
+
+    @Test
+    public void testComputeKindInSync() {
+        assertEquals(IN_SYNC, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "a"), file("a", "a")));
+        assertEquals(IN_SYNC, CodenvyDiffEngine.computeKind(null, null, null));
+    }
+
+    @Test
+    public void testComputeKindSameChangeOnBothSides() {
+        assertEquals(IN_SYNC, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "b"), file("a", "b")));
+        assertEquals(IN_SYNC, CodenvyDiffEngine.computeKind(null, file("a", "a"), file("a", "a")));
+        assertEquals(IN_SYNC, CodenvyDiffEngine.computeKind(file("a", "a"), null, null));
+    }
+
+    @Test
+    public void testComputeKindOutgoing() {
+        assertEquals(OUTGOING | ADDITION, CodenvyDiffEngine.computeKind(null, file("a", "a"), null));
+        assertEquals(OUTGOING | CHANGE, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "b"), file("a", "a")));
+        assertEquals(OUTGOING | DELETION, CodenvyDiffEngine.computeKind(file("a", "a"), null, file("a", "a")));
+    }
+
+    @Test
+    public void testComputeKindIncoming() {
+        assertEquals(INCOMING | ADDITION, CodenvyDiffEngine.computeKind(null, null, file("a", "a")));
+        assertEquals(INCOMING | CHANGE, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "a"), file("a", "b")));
+        assertEquals(INCOMING | DELETION, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "a"), null));
+    }
+
+    @Test
+    public void testComputeKindConflicting() {
+        assertEquals(CONFLICTING | ADDITION, CodenvyDiffEngine.computeKind(null, file("a", "a"), file("a", "b")));
+        assertEquals(CONFLICTING | CHANGE, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "b"), file("a", "c")));
+        assertEquals(CONFLICTING | DELETION, CodenvyDiffEngine.computeKind(file("a", "a"), file("a", "b"), null));
+        assertEquals(CONFLICTING | DELETION, CodenvyDiffEngine.computeKind(file("a", "a"), null, file("a", "b")));
+    }
+
+    @Test
+    public void testToRemoteEntry() throws IOException {
+        remoteFiles.put("src/App.java", "class App {}");
+
+        try (ZipInputStream stream = remoteStream("/", "/src/")) {
+            assertNull(CodenvyDiffEngine.toRemoteEntry(stream.getNextEntry()));
+
+            final ZipEntry folderEntry = stream.getNextEntry();
+            stream.closeEntry();
+            assertTrue(folder("src").isSameContent(CodenvyDiffEngine.toRemoteEntry(folderEntry)));
+
+            final ZipEntry fileEntry = stream.getNextEntry();
+            stream.closeEntry();
+            assertTrue(file("src/App.java", "class App {}").isSameContent(CodenvyDiffEngine.toRemoteEntry(fileEntry)));
+        }
+    }
+
+    @Test
+    public void testDiffInSync() throws IOException, CoreException {
+        base(folder("src"), file("src/App.java", "class App {}"));
+        local(folder("src"), file("src/App.java", "class App {}"));
+        remoteFiles.put("src/App.java", "class App {}");
+
+        diff("/src/");
+
+        assertTrue(diffs.isEmpty());
+    }
+
+    @Test
+    public void testDiffChanges() throws IOException, CoreException {
+        base(file("outgoing", "a"), file("incoming", "a"), file("conflict", "a"), file("same", "a"));
+        local(file("outgoing", "b"), file("incoming", "a"), file("conflict", "b"), file("same", "b"));
+        remoteFiles.put("outgoing", "a");
+        remoteFiles.put("incoming", "b");
+        remoteFiles.put("conflict", "c");
+        remoteFiles.put("same", "b");
+
+        diff();
+
+        assertKinds(new String[]{"outgoing", "incoming", "conflict"}, OUTGOING | CHANGE, INCOMING | CHANGE, CONFLICTING | CHANGE);
+    }
+
+    @Test
+    public void testDiffAdditions() throws IOException, CoreException {
+        local(file("outgoing", "a"), file("conflict", "a"), file("same", "a"));
+        remoteFiles.put("incoming", "a");
+        remoteFiles.put("conflict", "b");
+        remoteFiles.put("same", "a");
+
+        diff();
+
+        assertKinds(new String[]{"outgoing", "incoming", "conflict"}, OUTGOING | ADDITION, INCOMING | ADDITION, CONFLICTING | ADDITION);
+    }
+
+    @Test
+    public void testDiffDeletions() throws IOException, CoreException {
+        base(file("outgoing", "a"), file("incoming", "a"), file("conflict", "a"), file("same", "a"));
+        local(file("incoming", "a"), file("conflict", "b"));
+        remoteFiles.put("outgoing", "a");
+
+        diff();
+
+        assertKinds(new String[]{"outgoing", "incoming", "conflict"}, OUTGOING | DELETION, INCOMING | DELETION, CONFLICTING | DELETION);
+    }
+
+    @Test
+    public void testDiffImplicitRemoteFolder() throws IOException, CoreException {
+        local(folder("lib"));
+        remoteFiles.put("lib/x.jar", "x");
+
+        diff();
+
+        assertKinds(new String[]{"lib/x.jar"}, INCOMING | ADDITION);
+    }
+
+    @Test
+    public void testDiffReportsRemoteChangesOnly() throws IOException, CoreException {
+        base(folder("src"), file("src/App.java", "class App {}"), file("pom.xml", "<project/>"), file("README", "readme"));
+        local(folder("src"), file("src/App.java", "class App {}"), file("pom.xml", "<project/>"), file("README", "readme"));
+        remoteFiles.put("src/App.java", "class App {}");
+        remoteFiles.put("pom.xml", "<project></project>");
+        remoteFiles.put("lib/ext/x.jar", "x");
+        remoteFiles.put(".project", "<projectDescription/>");
+
+        diff("src/", "doc/");
+
+        assertEquals(new HashSet<>(Arrays.asList("pom.xml", "README", "doc", "lib", "lib/ext", "lib/ext/x.jar")), remoteChanges.keySet());
+        assertEquals(file("pom.xml", "<project></project>").hash, remoteChanges.get("pom.xml").hash);
+        assertTrue(remoteChanges.get("lib/ext").folder);
+        assertNull(remoteChanges.get("README"));
+    }
+
+    @Test
+    public void testDiffWithoutBase() throws IOException, CoreException {
+        local(file("a", "a"));
+
+        new CodenvyDiffEngine(null, localTree()).diff(remoteStream(), listener(), new NullProgressMonitor());
+
+        assertKinds(new String[]{"a"}, OUTGOING | ADDITION);
+    }
+
+    @Test(expected = OperationCanceledException.class)
+    public void testDiffCanceled() throws IOException, CoreException {
+        remoteFiles.put("a", "a");
+
+        final NullProgressMonitor monitor = new NullProgressMonitor();
+        monitor.setCanceled(true);
+
+        new CodenvyDiffEngine(new CodenvyProjectSyncState(baseEntries), localTree()).diff(remoteStream(), listener(), monitor);
+    }
+
+    private void diff(String... remoteFolders) throws IOException, CoreException {
+        new CodenvyDiffEngine(new CodenvyProjectSyncState(baseEntries), localTree()).diff(remoteStream(remoteFolders),
+                                                                                          listener(),
+                                                                                          new NullProgressMonitor());
+    }
+
+    private void assertKinds(String[] paths, int... kinds) {
+        assertEquals(new HashSet<>(Arrays.asList(paths)), diffs.keySet());
+        for (int i = 0; i < paths.length; i++) {
+            assertEquals(paths[i], kinds[i], diffs.get(paths[i]).kind);
+        }
+    }
+
+    private void base(Entry... entries) {
+        baseEntries.addAll(Arrays.asList(entries));
+    }
+
+    private void local(Entry... entries) {
+        for (Entry oneEntry : entries) {
+            localEntries.put(oneEntry.path, oneEntry);
+        }
+    }
+
+    private LocalTree localTree() {
+        return new LocalTree() {
+            @Override
+            public Entry getEntry(String path, Entry base) {
+                return localEntries.get(path);
+            }
+
+            @Override
+            public void accept(LocalTreeVisitor visitor) {
+                for (String onePath : localEntries.keySet()) {
+                    visitor.visit(onePath);
+                }
+            }
+        };
+    }
+
+    private DiffListener listener() {
+        return new DiffListener() {
+            @Override
+            public void diff(CodenvyDiff diff) {
+                diffs.put(diff.path, diff);
+            }
+
+            @Override
+            public void remoteChanged(String path, Entry remote) {
+                assertFalse(path, remoteChanges.containsKey(path));
+                remoteChanges.put(path, remote);
+            }
+        };
+    }
+
+    private ZipInputStream remoteStream(String... folders) throws IOException {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            for (String oneFolder : folders) {
+                zipOutputStream.putNextEntry(new ZipEntry(oneFolder));
+            }
+            for (Map.Entry<String, String> oneFile : remoteFiles.entrySet()) {
+                zipOutputStream.putNextEntry(new ZipEntry(oneFile.getKey()));
+                zipOutputStream.write(oneFile.getValue().getBytes());
+            }
+        }
+        return new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()));
+    }
+
+    private static Entry folder(String path) {
+        return new Entry(path, true, 0, 1, 0);
+    }
+
+    private static Entry file(String path, String content) {
+        final CRC32 crc = new CRC32();
+        crc.update(content.getBytes());
+        return new Entry(path, false, content.length(), 1, crc.getValue());
+    }
+}
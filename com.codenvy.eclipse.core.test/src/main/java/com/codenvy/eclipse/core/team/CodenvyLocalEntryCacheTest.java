@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.team.CodenvyLocalEntryCache.UNKNOWN_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTree;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTreeVisitor;
+import com.codenvy.eclipse.core.team.CodenvyLocalEntryCache.HashListener;
+
+/**
+ * {@link CodenvyLocalEntryCache} test.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvyLocalEntryCacheTest {
+    private static final Entry     BASE_ENTRY = new Entry("src/App.java", false, 12, 42, 1234);
+
+    private ExecutorService        executorService;
+    private CodenvyLocalEntryCache localEntries;
+    private IProject               project;
+    private IFile                  file;
+
+    @Before
+    public void before() {
+        executorService = mock(ExecutorService.class);
+        localEntries = new CodenvyLocalEntryCache(executorService, mock(HashListener.class));
+
+        project = mock(IProject.class);
+        when(project.getName()).thenReturn("prj");
+
+        file = mock(IFile.class);
+        when(file.exists()).thenReturn(true);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(file.getProject()).thenReturn(project);
+        when(file.getProjectRelativePath()).thenReturn(new Path("src/App.java"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNewCodenvyLocalEntryCacheWithNullExecutorService() {
+        new CodenvyLocalEntryCache(null, mock(HashListener.class));
+    }
+
+    @Test
+    public void testUnchangedFileAnswersTheRecordedEntry() {
+        when(file.getModificationStamp()).thenReturn(42L);
+
+        assertSame(BASE_ENTRY, localEntries.getEntry(file, BASE_ENTRY));
+        verify(executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testChangedFileIsHashedOnceInTheBackground() throws Exception {
+        when(file.getModificationStamp()).thenReturn(43L);
+
+        final Entry entry = localEntries.getEntry(file, BASE_ENTRY);
+        localEntries.getEntry(file, BASE_ENTRY);
+
+        assertEquals(UNKNOWN_SIZE, entry.size);
+        assertEquals(43L, entry.modificationStamp);
+        assertFalse(entry.isSameContent(BASE_ENTRY));
+        verify(executorService, times(1)).execute(any(Runnable.class));
+        verify(file, never()).getContents(true);
+    }
+
+    @Test
+    public void testEntriesHashedByARefreshAreCached() {
+        final Entry hashedEntry = new Entry("src/App.java", false, 13, 43, 4321);
+        when(file.getModificationStamp()).thenReturn(43L);
+
+        localEntries.caching(project, localTree(hashedEntry)).getEntry("src/App.java", BASE_ENTRY);
+
+        assertSame(hashedEntry, localEntries.getEntry(file, BASE_ENTRY));
+        verify(executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testInvalidateDropsTheCachedEntries() {
+        when(file.getModificationStamp()).thenReturn(43L);
+        localEntries.caching(project, localTree(new Entry("src/App.java", false, 13, 43, 4321))).getEntry("src/App.java", BASE_ENTRY);
+
+        localEntries.invalidate(project);
+
+        assertEquals(UNKNOWN_SIZE, localEntries.getEntry(file, BASE_ENTRY).size);
+    }
+
+    private static LocalTree localTree(final Entry entry) {
+        return new LocalTree() {
+            @Override
+            public Entry getEntry(String path, Entry base) {
+                return entry;
+            }
+
+            @Override
+            public void accept(LocalTreeVisitor visitor) {
+                visitor.visit(entry.path);
+            }
+        };
+    }
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.team.CodenvySyncStatusIndex.computeSyncStatus;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.NO_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.REMOVED_HASH;
+import static org.eclipse.core.resources.IResource.NULL_STAMP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex.ProjectStatus;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex.SyncStatus;
+
+/**
+ * {@link CodenvySyncStatusIndex} test.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvySyncStatusIndexTest {
+    private static final Entry FILE_ENTRY   = new Entry("src/App.java", false, 12, 42, 1234);
+    private static final Entry FOLDER_ENTRY = new Entry("src", true, 0, 7, 0);
+
+    @Test(expected = NullPointerException.class)
+    public void testNewCodenvySyncStatusIndexWithNullTrackedStateIndex() {
+        new CodenvySyncStatusIndex(null, null);
+    }
+
+    @Test
+    public void testUnchangedFileIsInSync() {
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(FILE_ENTRY, true, false, 42, false, null));
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(FILE_ENTRY, true, false, 42, true, 1234L));
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(FILE_ENTRY, true, false, 42, true, NO_HASH));
+    }
+
+    @Test
+    public void testFolderModificationStampIsIgnored() {
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(FOLDER_ENTRY, true, true, 8, true, NO_HASH));
+    }
+
+    @Test
+    public void testOutgoingChanges() {
+        assertEquals(SyncStatus.OUTGOING, computeSyncStatus(FILE_ENTRY, true, false, 43, true, 1234L));
+        assertEquals(SyncStatus.OUTGOING, computeSyncStatus(FILE_ENTRY, false, false, NULL_STAMP, true, 1234L));
+        assertEquals(SyncStatus.OUTGOING, computeSyncStatus(FILE_ENTRY, true, true, 42, false, null));
+        assertEquals(SyncStatus.OUTGOING, computeSyncStatus(null, true, false, 1, true, null));
+        assertEquals(SyncStatus.OUTGOING, computeSyncStatus(null, true, false, 1, false, null));
+    }
+
+    @Test
+    public void testIncomingChanges() {
+        assertEquals(SyncStatus.INCOMING, computeSyncStatus(FILE_ENTRY, true, false, 42, true, 4321L));
+        assertEquals(SyncStatus.INCOMING, computeSyncStatus(FILE_ENTRY, true, false, 42, true, null));
+        assertEquals(SyncStatus.INCOMING, computeSyncStatus(null, false, false, NULL_STAMP, true, 4321L));
+    }
+
+    @Test
+    public void testConflicts() {
+        assertEquals(SyncStatus.CONFLICT, computeSyncStatus(FILE_ENTRY, true, false, 43, true, 4321L));
+        assertEquals(SyncStatus.CONFLICT, computeSyncStatus(FILE_ENTRY, false, false, NULL_STAMP, true, 4321L));
+        assertEquals(SyncStatus.CONFLICT, computeSyncStatus(null, true, false, 1, true, 4321L));
+    }
+
+    @Test
+    public void testChangesOnBothSidesWithSameOutcome() {
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(FILE_ENTRY, false, false, NULL_STAMP, true, null));
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(null, true, true, 1, true, NO_HASH));
+        assertEquals(SyncStatus.IN_SYNC, computeSyncStatus(null, false, false, NULL_STAMP, false, null));
+    }
+
+    @Test
+    public void testProjectStatusWithoutSyncState() {
+        assertNull(new ProjectStatus(null, null).getSyncStatus("src/App.java", false));
+    }
+
+    @Test
+    public void testProjectStatusAggregatesDescendants() {
+        final ProjectStatus projectStatus = newProjectStatus();
+
+        assertTrue(projectStatus.update("src/main/App.java", SyncStatus.OUTGOING));
+        assertTrue(projectStatus.update("doc/README", SyncStatus.INCOMING));
+
+        assertEquals(SyncStatus.OUTGOING, projectStatus.getSyncStatus("src/main/App.java", false));
+        assertEquals(SyncStatus.OUTGOING, projectStatus.getSyncStatus("src/main", true));
+        assertEquals(SyncStatus.OUTGOING, projectStatus.getSyncStatus("src", true));
+        assertEquals(SyncStatus.INCOMING, projectStatus.getSyncStatus("doc", true));
+        assertEquals(SyncStatus.OUTGOING, projectStatus.getSyncStatus("", true));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.getSyncStatus("src/test", true));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.getSyncStatus("src/main/Other.java", false));
+
+        assertTrue(projectStatus.update("src/main/Util.java", SyncStatus.CONFLICT));
+
+        assertEquals(SyncStatus.CONFLICT, projectStatus.getSyncStatus("src", true));
+        assertEquals(SyncStatus.INCOMING, projectStatus.getSyncStatus("doc", true));
+        assertEquals(SyncStatus.CONFLICT, projectStatus.getSyncStatus("", true));
+    }
+
+    @Test
+    public void testProjectStatusUpdates() {
+        final ProjectStatus projectStatus = newProjectStatus();
+
+        assertFalse(projectStatus.update("src/main/App.java", SyncStatus.IN_SYNC));
+        assertTrue(projectStatus.update("src/main/App.java", SyncStatus.OUTGOING));
+        assertFalse(projectStatus.update("src/main/App.java", SyncStatus.OUTGOING));
+        assertTrue(projectStatus.update("src/main/Util.java", SyncStatus.OUTGOING));
+        assertTrue(projectStatus.update("src/main/App.java", SyncStatus.IN_SYNC));
+
+        assertEquals(SyncStatus.OUTGOING, projectStatus.getSyncStatus("src", true));
+
+        assertTrue(projectStatus.update("src/main/Util.java", SyncStatus.IN_SYNC));
+
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.getSyncStatus("src/main", true));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.getSyncStatus("src", true));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.getSyncStatus("", true));
+    }
+
+    @Test
+    public void testProjectStatusComputesFromSyncStateAndRemoteChanges() {
+        final Map<String, Long> remoteChanges = new HashMap<>();
+        remoteChanges.put("src/App.java", 4321L);
+
+        final ProjectStatus projectStatus = new ProjectStatus(new CodenvyProjectSyncState(Arrays.asList(FOLDER_ENTRY, FILE_ENTRY)),
+                                                              remoteChanges);
+
+        assertEquals(SyncStatus.INCOMING, projectStatus.computeSyncStatus("src/App.java", true, false, 42));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.computeSyncStatus("src", true, true, 7));
+        assertEquals(SyncStatus.OUTGOING, projectStatus.computeSyncStatus("src/New.java", true, false, 1));
+    }
+
+    @Test
+    public void testProjectStatusComputesRemovedRemoteResources() {
+        final ProjectStatus projectStatus = new ProjectStatus(new CodenvyProjectSyncState(Arrays.asList(FOLDER_ENTRY, FILE_ENTRY)),
+                                                              Collections.singletonMap("src/App.java", REMOVED_HASH));
+
+        assertEquals(SyncStatus.INCOMING, projectStatus.computeSyncStatus("src/App.java", true, false, 42));
+        assertEquals(SyncStatus.IN_SYNC, projectStatus.computeSyncStatus("src", true, true, 7));
+    }
+
+    @Test
+    public void testSyncStateWriteWaitsForTheTrackedStateIndex() throws CoreException {
+        final IProject project = mock(IProject.class);
+        when(project.getName()).thenReturn("prj");
+        when(project.getType()).thenReturn(IResource.PROJECT);
+        when(project.getProject()).thenReturn(project);
+
+        final CodenvySyncStatusIndex syncStatusIndex = new CodenvySyncStatusIndex(new CodenvyTrackedStateIndex(mock(ExecutorService.class)),
+                                                                                  mock(ExecutorService.class));
+        syncStatusIndex.getSyncStatus(project);
+
+        final IResourceDelta projectDelta = mock(IResourceDelta.class);
+        when(projectDelta.getResource()).thenReturn(project);
+        when(projectDelta.getKind()).thenReturn(IResourceDelta.CHANGED);
+        when(projectDelta.findMember(CodenvyTrackedStateIndex.SYNC_STATE_PATH)).thenReturn(mock(IResourceDelta.class));
+        final IResourceDelta delta = mock(IResourceDelta.class);
+        when(delta.getAffectedChildren()).thenReturn(new IResourceDelta[]{projectDelta});
+        final IResourceChangeEvent event = mock(IResourceChangeEvent.class);
+        when(event.getDelta()).thenReturn(delta);
+
+        syncStatusIndex.resourceChanged(event);
+
+        verify(projectDelta, never()).accept(any(IResourceDeltaVisitor.class));
+    }
+
+    private static ProjectStatus newProjectStatus() {
+        return new ProjectStatus(new CodenvyProjectSyncState(Arrays.<Entry> asList()), null);
+    }
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.NO_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.REMOVED_HASH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Path;
+import org.junit.Test;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.TrackedStateListener;
+
+/**
+ * {@link CodenvyTrackedStateIndex} test.
+ *
+ * @author Kevin Pollet
+ */
+public class CodenvyTrackedStateIndexTest {
+    @Test(expected = NullPointerException.class)
+    public void testNewCodenvyTrackedStateIndexWithNullExecutorService() {
+        new CodenvyTrackedStateIndex(null);
+    }
+
+    @Test
+    public void testWorkspaceRootIsNotTracked() {
+        final IResource root = mock(IResource.class);
+        when(root.getType()).thenReturn(IResource.ROOT);
+
+        assertFalse(new CodenvyTrackedStateIndex(mock(ExecutorService.class)).isTracked(root));
+    }
+
+    @Test
+    public void testWithParents() {
+        assertEquals(new HashSet<>(Arrays.asList("", "src", "src/main", "src/main/App.java", "pom.xml")),
+                     CodenvyTrackedStateIndex.withParents(Arrays.asList("src/main/App.java", "pom.xml")));
+    }
+
+    @Test
+    public void testListPaths() throws IOException {
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            zipOutputStream.putNextEntry(new ZipEntry("lib/"));
+            zipOutputStream.putNextEntry(new ZipEntry("src/main/App.java"));
+            zipOutputStream.write("class App {}".getBytes());
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList("", "lib", "src", "src/main", "src/main/App.java")),
+                     CodenvyTrackedStateIndex.listPaths(new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))));
+    }
+
+    @Test
+    public void testRemoteTreeListed() {
+        final IProject project = project("prj");
+        final IResource src = resource(project, "src", IResource.FOLDER);
+        final IResource app = resource(project, "src/App.java", IResource.FILE);
+        final IResource readme = resource(project, "README", IResource.FILE);
+        final IResource pom = resource(project, "pom.xml", IResource.FILE);
+
+        final Map<String, Long> remoteChanges = new HashMap<>();
+        remoteChanges.put("src", NO_HASH);
+        remoteChanges.put("src/App.java", 1L);
+        remoteChanges.put("README", REMOVED_HASH);
+        final CodenvyProjectSyncState syncState = new CodenvyProjectSyncState(Arrays.asList(new Entry("README", false, 6, 1, 2),
+                                                                                            new Entry("pom.xml", false, 10, 1, 3)));
+
+        final ExecutorService executorService = mock(ExecutorService.class);
+        final CodenvyTrackedStateIndex trackedStateIndex = new CodenvyTrackedStateIndex(executorService);
+        final TrackedStateListener listener = mock(TrackedStateListener.class);
+        trackedStateIndex.addTrackedStateListener(listener);
+
+        trackedStateIndex.remoteTreeListed(project, syncState, remoteChanges);
+
+        assertTrue(trackedStateIndex.isTracked(project));
+        assertTrue(trackedStateIndex.isTracked(app));
+        assertTrue(trackedStateIndex.isTracked(pom));
+        assertFalse(trackedStateIndex.isTracked(readme));
+        assertEquals(remoteChanges, trackedStateIndex.getRemoteChanges(project));
+        verify(listener).trackedStateChanged(project, new HashSet<>(Arrays.asList(project, src, app, pom)));
+        verify(executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void testInvalidateNotifiesTheProjectOnly() {
+        final IProject project = project("prj");
+        final CodenvyTrackedStateIndex trackedStateIndex = new CodenvyTrackedStateIndex(mock(ExecutorService.class));
+        trackedStateIndex.remoteTreeListed(project, null, Collections.<String, Long> emptyMap());
+
+        final TrackedStateListener listener = mock(TrackedStateListener.class);
+        trackedStateIndex.addTrackedStateListener(listener);
+        trackedStateIndex.invalidate(project);
+
+        verify(listener).trackedStateChanged(project, Collections.<IResource> singleton(project));
+    }
+
+    @Test
+    public void testChangedResources() {
+        final IProject project = project("prj");
+        final IResource src = resource(project, "src", IResource.FOLDER);
+        final IResource app = resource(project, "src/App.java", IResource.FILE);
+        final IResource pom = resource(project, "pom.xml", IResource.FILE);
+        resource(project, "README", IResource.FILE);
+
+        final Set<String> previousPaths = new HashSet<>(Arrays.asList("", "src", "src/App.java", "README"));
+        final Set<String> paths = new HashSet<>(Arrays.asList("", "README", "pom.xml", "deleted"));
+
+        assertEquals(new HashSet<>(Arrays.asList(src, app, pom)),
+                     CodenvyTrackedStateIndex.getChangedResources(project, previousPaths, paths));
+        assertEquals(Collections.<IResource> emptySet(), CodenvyTrackedStateIndex.getChangedResources(project, paths, paths));
+        assertEquals(new HashSet<>(Arrays.asList(project, pom)),
+                     CodenvyTrackedStateIndex.getChangedResources(project, null, new HashSet<>(Arrays.asList("", "pom.xml"))));
+    }
+
+    private static IProject project(String name) {
+        final IProject project = mock(IProject.class);
+        when(project.getName()).thenReturn(name);
+        when(project.getType()).thenReturn(IResource.PROJECT);
+        when(project.getProject()).thenReturn(project);
+        return project;
+    }
+
+    private static IResource resource(IProject project, String path, int type) {
+        final IResource resource = mock(IResource.class);
+        when(resource.getType()).thenReturn(type);
+        when(resource.getProject()).thenReturn(project);
+        when(resource.getProjectRelativePath()).thenReturn(new Path(path));
+        when(project.findMember(path)).thenReturn(resource);
+        return resource;
+    }
+}
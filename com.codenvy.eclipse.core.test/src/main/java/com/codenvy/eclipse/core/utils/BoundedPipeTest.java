@@ -0,0 +1,191 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@link BoundedPipe} test.
+ *
+ * @author Kevin Pollet
+ */
+public class BoundedPipeTest {
+    private static final int BUFFER_SIZE = 16;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewBoundedPipeWithZeroBufferSize() {
+        new BoundedPipe(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNewBoundedPipeWithZeroWriteTimeout() {
+        new BoundedPipe(BUFFER_SIZE, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testTransferLargerThanBuffer() throws InterruptedException, IOException {
+        final byte[] content = new byte[BUFFER_SIZE * 100 + 7];
+        new Random(0).nextBytes(content);
+
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try (OutputStream outputStream = pipe.getOutputStream()) {
+
+                    for (int offset = 0; offset < content.length; offset += 5) {
+                        outputStream.write(content, offset, Math.min(5, content.length - offset));
+                    }
+
+                } catch (IOException e) {
+                    pipe.fail(e);
+                }
+            }
+        };
+        writer.start();
+
+        final ByteArrayOutputStream readContent = new ByteArrayOutputStream();
+        try (InputStream inputStream = pipe.getInputStream()) {
+            final byte[] buffer = new byte[BUFFER_SIZE * 3];
+
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                readContent.write(buffer, 0, read);
+            }
+        }
+        writer.join();
+
+        assertArrayEquals(content, readContent.toByteArray());
+    }
+
+    @Test
+    public void testReadReturnsRemainingBytesBeforeEndOfStream() throws IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        pipe.getOutputStream().write(new byte[]{1, 2, 3});
+        pipe.getOutputStream().close();
+
+        final InputStream inputStream = pipe.getInputStream();
+
+        assertEquals(1, inputStream.read());
+        assertEquals(2, inputStream.read(new byte[BUFFER_SIZE], 0, 2));
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void testWriterBlocksWhileBufferIsFull() throws InterruptedException, IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        final CountDownLatch writeDone = new CountDownLatch(1);
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+
+                    pipe.getOutputStream().write(new byte[BUFFER_SIZE + 1]);
+                    writeDone.countDown();
+
+                } catch (IOException e) {
+                    pipe.fail(e);
+                }
+            }
+        };
+        writer.start();
+
+        assertFalse(writeDone.await(200, TimeUnit.MILLISECONDS));
+
+        pipe.getInputStream().read();
+        writer.join();
+
+        assertEquals(BUFFER_SIZE, pipe.getInputStream().available());
+    }
+
+    @Test
+    public void testWriterFailureIsReportedToReader() throws IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        final RuntimeException failure = new RuntimeException();
+        pipe.getOutputStream().write(new byte[]{1, 2, 3});
+        pipe.fail(failure);
+
+        try {
+
+            pipe.getInputStream().read();
+            fail();
+
+        } catch (IOException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testWriteAfterReaderClose() throws IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        pipe.getInputStream().close();
+
+        pipe.getOutputStream().write(1);
+    }
+
+    @Test
+    public void testBlockedWriterIsReleasedByReaderClose() throws InterruptedException, IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE);
+        final IOException[] writerException = new IOException[1];
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+
+                    pipe.getOutputStream().write(new byte[BUFFER_SIZE * 2]);
+
+                } catch (IOException e) {
+                    writerException[0] = e;
+                }
+            }
+        };
+        writer.start();
+
+        pipe.getInputStream().close();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(writer.isAlive());
+        assertEquals("Pipe closed", writerException[0].getMessage());
+    }
+
+    @Test
+    public void testBlockedWriterTimesOutWhenReaderStalls() throws IOException {
+        final BoundedPipe pipe = new BoundedPipe(BUFFER_SIZE, 100, TimeUnit.MILLISECONDS);
+        final long start = System.nanoTime();
+
+        try {
+
+            pipe.getOutputStream().write(new byte[BUFFER_SIZE + 1]);
+            fail();
+
+        } catch (InterruptedIOException e) {
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+
+        assertEquals(BUFFER_SIZE, pipe.getInputStream().available());
+    }
+}
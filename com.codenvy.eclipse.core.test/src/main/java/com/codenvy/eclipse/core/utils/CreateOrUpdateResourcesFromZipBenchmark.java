@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Throughput benchmark of {@link EclipseProjectHelper#createOrUpdateResourcesFromZip(ZipInputStream, org.eclipse.core.resources.IContainer,
+ * org.eclipse.core.runtime.IProgressMonitor)}. This benchmark is not run by default, it's enabled with the
+ * {@code -Dcodenvy.benchmark=true} system property. The archive size in megabytes can be set with the
+ * {@code -Dcodenvy.benchmark.archiveSize} system property. The timings are reported by the assertion messages, the benchmark fails
+ * when the create or update throughput is below the {@code -Dcodenvy.benchmark.minThroughput} system property in megabytes per second.
+ *
+ * @author Kevin Pollet
+ */
+public class CreateOrUpdateResourcesFromZipBenchmark {
+    private static final int    DEFAULT_ARCHIVE_SIZE = 300;
+    private static final int    LARGE_ENTRY_SIZE     = 16 * 1024 * 1024;
+    private static final int    SMALL_ENTRY_SIZE     = 8 * 1024;
+    private static final int    MEGABYTE             = 1024 * 1024;
+
+    private File                archive;
+    private IProject            project;
+    private int                 numberOfEntries;
+
+    @Before
+    public void setUp() throws IOException, CoreException {
+        assumeTrue(Boolean.getBoolean("codenvy.benchmark"));
+
+        final long archiveSize = Long.getLong("codenvy.benchmark.archiveSize", DEFAULT_ARCHIVE_SIZE) * MEGABYTE;
+        final Random random = new Random(0);
+
+        archive = File.createTempFile("benchmark", ".zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(archive)))) {
+            long written = 0;
+
+            // half of the archive is made of large incompressible entries (jars, assets), the other half of small source files
+            while (written < archiveSize) {
+                final boolean isLargeEntry = written < archiveSize / 2;
+                final byte[] content = new byte[isLargeEntry ? LARGE_ENTRY_SIZE : SMALL_ENTRY_SIZE];
+                random.nextBytes(content);
+
+                zipOutputStream.putNextEntry(new ZipEntry((isLargeEntry ? "lib/" : "src/") + "entry" + numberOfEntries));
+                zipOutputStream.write(content);
+                zipOutputStream.closeEntry();
+
+                written += content.length;
+                numberOfEntries++;
+            }
+        }
+
+        project = ResourcesPlugin.getWorkspace().getRoot().getProject("benchmark");
+        project.create(new NullProgressMonitor());
+        project.open(new NullProgressMonitor());
+        project.getFolder("lib").create(true, true, new NullProgressMonitor());
+        project.getFolder("src").create(true, true, new NullProgressMonitor());
+    }
+
+    @After
+    public void tearDown() throws CoreException {
+        if (project != null && project.exists()) {
+            project.delete(true, true, new NullProgressMonitor());
+        }
+
+        if (archive != null) {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void benchmarkCreateOrUpdateResourcesFromZip() throws IOException, CoreException {
+        final double archiveSizeInMegabytes = (double)archive.length() / MEGABYTE;
+
+        final long createDuration = importArchive();
+        final long updateDuration = importArchive();
+        final double minThroughput = Double.parseDouble(System.getProperty("codenvy.benchmark.minThroughput", "0"));
+
+        final String timings = String.format("Create %d resources from %.1f MB archive: %d ms (%.1f MB/s), update: %d ms (%.1f MB/s)",
+                                             numberOfEntries, archiveSizeInMegabytes,
+                                             createDuration, archiveSizeInMegabytes * 1000 / createDuration,
+                                             updateDuration, archiveSizeInMegabytes * 1000 / updateDuration);
+
+        assertEquals(timings, numberOfEntries, project.getFolder("lib").members().length + project.getFolder("src").members().length);
+        assertTrue(timings, archiveSizeInMegabytes * 1000 / Math.max(createDuration, updateDuration) >= minThroughput);
+    }
+
+    private long importArchive() throws IOException {
+        final long start = System.currentTimeMillis();
+
+        final ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(archive)));
+        EclipseProjectHelper.createOrUpdateResourcesFromZip(zipInputStream, project, new NullProgressMonitor());
+
+        return Math.max(1, System.currentTimeMillis() - start);
+    }
+}
@@ -14,29 +14,46 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
+import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.hamcrest.beans.HasPropertyWithValue;
 import org.junit.Test;
 
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
 import com.google.common.io.ByteStreams;
 
 /**
@@ -95,4 +112,204 @@ public class EclipseProjectHelperTest {
         assertThat(zipEntrys, hasItem(HasPropertyWithValue.<ZipEntry> hasProperty("name", equalTo("/aFolder/aSubFile"))));
         assertThat(zipEntrys, hasItem(HasPropertyWithValue.<ZipEntry> hasProperty("name", equalTo("/aRootFile"))));
     }
+
+    @Test
+    public void testExcludedResources() {
+        assertTrue(EclipseProjectHelper.isExcludedResource(new Path(".project")));
+        assertTrue(EclipseProjectHelper.isExcludedResource(new Path("module/target")));
+        assertTrue(EclipseProjectHelper.isExcludedResource(new Path(".codenvy/syncState.json")));
+        assertTrue(EclipseProjectHelper.isExcludedResource(new Path("/.codenvy/syncState.log")));
+        assertFalse(EclipseProjectHelper.isExcludedResource(new Path("")));
+        assertFalse(EclipseProjectHelper.isExcludedResource(new Path(".codenvy/project.json")));
+        assertFalse(EclipseProjectHelper.isExcludedResource(new Path("syncState.json")));
+        assertFalse(EclipseProjectHelper.isExcludedResource(new Path("src/syncState.log")));
+    }
+
+    @Test
+    public void testOnlyChangedResourcesAreUploaded() throws CoreException, IOException {
+        final IFile unchangedFile = mockFile("unchanged", "content", 1);
+        final IFile changedFile = mockFile("changed", "new content", 2);
+        final IFile addedFile = mockFile("added", "content", 1);
+
+        final IFolder folder = mock(IFolder.class);
+        when(folder.getType()).thenReturn(IResource.FOLDER);
+        when(folder.getProjectRelativePath()).thenReturn(new Path("folder"));
+        when(folder.getModificationStamp()).thenReturn(3L);
+
+        final CodenvyProjectSyncState previousSyncState = new CodenvyProjectSyncState(Arrays.asList(entry("unchanged", "content", 1),
+                                                                                                    entry("changed", "old", 1),
+                                                                                                    new Entry("folder", true, 0, 1, 0)));
+
+        final List<Entry> entries = new ArrayList<>();
+        final List<IResource> resourcesToUpload =
+                                                  EclipseProjectHelper.getResourcesToUpload(Arrays.<IResource> asList(unchangedFile,
+                                                                                                                       changedFile,
+                                                                                                                       addedFile,
+                                                                                                                       folder),
+                                                                                            previousSyncState,
+                                                                                            entries);
+
+        assertEquals(Arrays.<IResource> asList(changedFile, addedFile), resourcesToUpload);
+        assertEquals(Arrays.asList(entry("unchanged", "content", 1),
+                                   entry("changed", "new content", 2),
+                                   entry("added", "content", 1),
+                                   new Entry("folder", true, 0, 3, 0)),
+                     entries);
+    }
+
+    @Test
+    public void testAllResourcesAreUploadedWithoutPreviousSyncState() throws CoreException, IOException {
+        final IFile file = mockFile("file", "content", 1);
+
+        final List<Entry> entries = new ArrayList<>();
+
+        assertEquals(Arrays.<IResource> asList(file),
+                     EclipseProjectHelper.getResourcesToUpload(Arrays.<IResource> asList(file), null, entries));
+        assertEquals(Arrays.asList(entry("file", "content", 1)), entries);
+    }
+
+    @Test
+    public void testOnlyRemovedResourcesAreDeleted() {
+        final CodenvyProjectSyncState previousSyncState = new CodenvyProjectSyncState(Arrays.asList(entry("kept", "content", 1),
+                                                                                                    entry("removed", "content", 1)));
+
+        assertEquals(Arrays.asList("removed"),
+                     EclipseProjectHelper.getPathsToDelete(previousSyncState, new HashSet<>(Arrays.asList("kept", "added"))));
+    }
+
+    @Test
+    public void testDeletesAreCollapsedToTopMostPaths() {
+        final Set<IPath> topMostPaths = EclipseProjectHelper.getTopMostPaths(Arrays.asList("src/main/App.java",
+                                                                                          "lib/x.jar",
+                                                                                          "src",
+                                                                                          "src/main",
+                                                                                          "doc/api/index.html",
+                                                                                          "doc/guide"));
+
+        assertEquals(Arrays.<IPath> asList(new Path("src"), new Path("lib/x.jar"), new Path("doc/guide"), new Path("doc/api/index.html")),
+                     new ArrayList<>(topMostPaths));
+    }
+
+    @Test
+    public void testRemotelyDeletedResources() {
+        final IProject project = mockResource(IProject.class, "");
+        final IFolder srcFolder = mockResource(IFolder.class, "src");
+        final IFile keptFile = mockResource(IFile.class, "src/App.java");
+        final IFile deletedFile = mockResource(IFile.class, "src/Old.java");
+        final IFolder impliedFolder = mockResource(IFolder.class, "lib");
+        final IFolder deletedFolder = mockResource(IFolder.class, "gone");
+        final IFile excludedFile = mockResource(IFile.class, ".project");
+        final IFile missingFile = mockResource(IFile.class, "missing");
+        when(missingFile.exists()).thenReturn(false);
+
+        final List<IResource> resources = Arrays.<IResource> asList(project,
+                                                                    srcFolder,
+                                                                    keptFile,
+                                                                    deletedFile,
+                                                                    impliedFolder,
+                                                                    deletedFolder,
+                                                                    excludedFile,
+                                                                    missingFile);
+        final List<Entry> remoteEntries = Arrays.asList(new Entry("src", true, 0, 1, 0),
+                                                        entry("src/App.java", "a", 1),
+                                                        entry("lib/x.jar", "x", 1));
+
+        final List<IResource> deletedResources = EclipseProjectHelper.getRemotelyDeletedResources(resources, remoteEntries);
+
+        assertEquals(Arrays.<IResource> asList(deletedFile, deletedFolder), deletedResources);
+    }
+
+    @Test
+    public void testIdenticalStoredFileIsNotRewrittenIfWriteOnlyIfDifferent() throws CoreException, IOException {
+        final IFile file = mockFile("file", "content", 1);
+        when(file.exists()).thenReturn(true);
+
+        EclipseProjectHelper.unzipResources(zipStream(true, "file", "content"), mockContainer(file), null, true, null);
+
+        verify(file, never()).setContents(any(InputStream.class), anyBoolean(), anyBoolean(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void testIdenticalDeflatedFileIsNotRewrittenIfWriteOnlyIfDifferent() throws CoreException, IOException {
+        final IFile file = mockFile("file", "content", 1);
+        when(file.exists()).thenReturn(true);
+
+        final List<Entry> entries = EclipseProjectHelper.unzipResources(zipStream(false, "file", "content"), mockContainer(file), null,
+                                                                        true, null);
+
+        verify(file, never()).setContents(any(InputStream.class), anyBoolean(), anyBoolean(), any(IProgressMonitor.class));
+        assertTrue(entry("file", "content", 1).isSameContent(entries.get(0)));
+    }
+
+    @Test
+    public void testDifferentFileIsRewrittenIfWriteOnlyIfDifferent() throws CoreException, IOException {
+        final IFile file = mockFile("file", "content", 1);
+        when(file.exists()).thenReturn(true);
+
+        EclipseProjectHelper.unzipResources(zipStream(false, "file", "new content"), mockContainer(file), null, true, null);
+
+        verify(file).setContents(any(InputStream.class), anyBoolean(), anyBoolean(), any(IProgressMonitor.class));
+    }
+
+    @Test
+    public void testIdenticalFileIsRewrittenIfNotWriteOnlyIfDifferent() throws CoreException, IOException {
+        final IFile file = mockFile("file", "content", 1);
+        when(file.exists()).thenReturn(true);
+
+        EclipseProjectHelper.unzipResources(zipStream(true, "file", "content"), mockContainer(file), null, false, null);
+
+        verify(file).setContents(any(InputStream.class), anyBoolean(), anyBoolean(), any(IProgressMonitor.class));
+    }
+
+    private static IFile mockFile(String path, String content, long modificationStamp) throws CoreException, IOException {
+        final File location = File.createTempFile("file", "temp");
+        location.deleteOnExit();
+        Files.write(location.toPath(), content.getBytes());
+
+        final IFile file = mock(IFile.class);
+        when(file.getType()).thenReturn(IResource.FILE);
+        when(file.getProjectRelativePath()).thenReturn(new Path(path));
+        when(file.getModificationStamp()).thenReturn(modificationStamp);
+        when(file.getLocationURI()).thenReturn(location.toURI());
+        when(file.getContents(true)).thenReturn(new ByteArrayInputStream(content.getBytes()));
+        return file;
+    }
+
+    private static IContainer mockContainer(IFile file) {
+        final IContainer container = mock(IContainer.class);
+        when(container.getFile(any(IPath.class))).thenReturn(file);
+        return container;
+    }
+
+    private static ZipInputStream zipStream(boolean stored, String path, String content) throws IOException {
+        final byte[] bytes = content.getBytes();
+        final ZipEntry zipEntry = new ZipEntry(path);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            crc.update(bytes);
+            zipEntry.setMethod(ZipEntry.STORED);
+            zipEntry.setSize(bytes.length);
+            zipEntry.setCrc(crc.getValue());
+        }
+
+        final ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(zip)) {
+            zipOutputStream.putNextEntry(zipEntry);
+            zipOutputStream.write(bytes);
+        }
+        return new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()));
+    }
+
+    private static <T extends IResource> T mockResource(Class<T> type, String path) {
+        final T resource = mock(type);
+        when(resource.getProjectRelativePath()).thenReturn(new Path(path));
+        when(resource.exists()).thenReturn(true);
+        return resource;
+    }
+
+    private static Entry entry(String path, String content, long modificationStamp) {
+        final CRC32 crc = new CRC32();
+        crc.update(content.getBytes());
+        return new Entry(path, false, content.length(), modificationStamp, crc.getValue());
+    }
 }
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Throughput benchmark of {@link EclipseProjectHelper#exportIProjectToZipStream(IProject, org.eclipse.core.runtime.IProgressMonitor)}
+ * compared to an export through a {@link PipedInputStream} with its default buffer. This benchmark is not run by default, it's enabled
+ * with the {@code -Dcodenvy.benchmark=true} system property. The project size in megabytes can be set with the
+ * {@code -Dcodenvy.benchmark.projectSize} system property. The timings are reported by the assertion message, the benchmark fails
+ * when the speedup over the {@link PipedInputStream} export is below the {@code -Dcodenvy.benchmark.minSpeedup} system property.
+ *
+ * @author Kevin Pollet
+ */
+public class ExportIProjectToZipStreamBenchmark {
+    private static final int   DEFAULT_PROJECT_SIZE = 300;
+    private static final int   FILE_SIZE            = 4 * 1024 * 1024;
+    private static final int   MEGABYTE             = 1024 * 1024;
+
+    private IProject           project;
+    private final List<IFile>  files                = new ArrayList<>();
+
+    @Before
+    public void setUp() throws CoreException {
+        assumeTrue(Boolean.getBoolean("codenvy.benchmark"));
+
+        final long projectSize = Long.getLong("codenvy.benchmark.projectSize", DEFAULT_PROJECT_SIZE) * MEGABYTE;
+        final Random random = new Random(0);
+
+        project = ResourcesPlugin.getWorkspace().getRoot().getProject("benchmark");
+        project.create(new NullProgressMonitor());
+        project.open(new NullProgressMonitor());
+
+        for (long written = 0; written < projectSize; written += FILE_SIZE) {
+            final byte[] content = new byte[FILE_SIZE];
+            random.nextBytes(content);
+
+            final IFile file = project.getFile("file" + files.size());
+            file.create(new ByteArrayInputStream(content), true, new NullProgressMonitor());
+            files.add(file);
+        }
+    }
+
+    @After
+    public void tearDown() throws CoreException {
+        if (project != null && project.exists()) {
+            project.delete(true, true, new NullProgressMonitor());
+        }
+    }
+
+    @Test
+    public void benchmarkExportIProjectToZipStream() throws IOException {
+        final double projectSizeInMegabytes = (double)files.size() * FILE_SIZE / MEGABYTE;
+
+        final long pipedDuration = readArchive(exportWithPipedInputStream());
+        final long exportDuration = readArchive(EclipseProjectHelper.exportIProjectToZipStream(project, new NullProgressMonitor()));
+        final double minSpeedup = Double.parseDouble(System.getProperty("codenvy.benchmark.minSpeedup", "0"));
+
+        final String timings = String.format("Export %.1f MB project with PipedInputStream: %d ms (%.1f MB/s), "
+                                             + "with BoundedPipe: %d ms (%.1f MB/s)",
+                                             projectSizeInMegabytes,
+                                             pipedDuration, projectSizeInMegabytes * 1000 / pipedDuration,
+                                             exportDuration, projectSizeInMegabytes * 1000 / exportDuration);
+
+        assertTrue(timings, (double)pipedDuration / exportDuration >= minSpeedup);
+    }
+
+    private long readArchive(InputStream archive) throws IOException {
+        final long start = System.currentTimeMillis();
+        final byte[] buffer = new byte[64 * 1024];
+
+        int numberOfEntries = 0;
+        try (ZipInputStream zipInputStream = new ZipInputStream(archive)) {
+            while (zipInputStream.getNextEntry() != null) {
+                while (zipInputStream.read(buffer) != -1) {
+                    // the entry content is discarded
+                }
+                numberOfEntries++;
+            }
+        }
+
+        // the project and the files
+        assertEquals(files.size() + 1, numberOfEntries);
+
+        return Math.max(1, System.currentTimeMillis() - start);
+    }
+
+    private InputStream exportWithPipedInputStream() throws IOException {
+        final PipedInputStream pipedInputStream = new PipedInputStream();
+        final PipedOutputStream pipedOutputStream = new PipedOutputStream(pipedInputStream);
+
+        new Thread() {
+            @Override
+            public void run() {
+                try (ZipOutputStream outputStream = new ZipOutputStream(pipedOutputStream)) {
+
+                    outputStream.putNextEntry(new ZipEntry("/"));
+                    for (IFile oneFile : files) {
+                        outputStream.putNextEntry(new ZipEntry(oneFile.getProjectRelativePath().toString()));
+                        try (InputStream inputStream = oneFile.getContents()) {
+                            ByteStreams.copy(inputStream, outputStream);
+                        }
+                    }
+
+                } catch (CoreException | IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }.start();
+
+        return pipedInputStream;
+    }
+}
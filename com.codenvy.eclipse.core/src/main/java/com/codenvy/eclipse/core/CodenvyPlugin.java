@@ -10,6 +10,20 @@
  *******************************************************************************/
 package com.codenvy.eclipse.core;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
@@ -20,7 +34,12 @@ import org.osgi.framework.BundleContext;
 import com.codenvy.client.CodenvyAPI;
 import com.codenvy.client.CodenvyBuilder;
 import com.codenvy.client.auth.CredentialsProvider;
+import com.codenvy.eclipse.core.launcher.ArtifactDownloader;
+import com.codenvy.eclipse.core.launcher.BuildCoordinator;
 import com.codenvy.eclipse.core.store.SecureStorageDataStoreFactory;
+import com.codenvy.eclipse.core.team.CodenvySubscriber;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex;
 
 /**
  * The activator class controls the plug-in life cycle.
@@ -28,22 +47,96 @@ import com.codenvy.eclipse.core.store.SecureStorageDataStoreFactory;
  * @author Kevin Pollet
  */
 public final class CodenvyPlugin extends Plugin {
-    public static final String   PLUGIN_ID                         = "com.codenvy.eclipse.core";        //$NON-NLS-1$
-    public static final String   CREDENTIALS_PROVIDER_EXTENSION_ID = PLUGIN_ID + ".credentialsProvider"; //$NON-NLS-1$
+    public static final String               PLUGIN_ID                         = "com.codenvy.eclipse.core";        //$NON-NLS-1$
+    public static final String               CREDENTIALS_PROVIDER_EXTENSION_ID = PLUGIN_ID + ".credentialsProvider"; //$NON-NLS-1$
+
+    /**
+     * Default maximum number of builds in progress at the same time, until the preference is applied by the UI plugin.
+     */
+    public static final int                  DEFAULT_MAX_CONCURRENT_BUILDS     = 2;
 
     /**
      * Constant identifying the job family identifier for Codenvy jobs.
      */
-    public static final Object   FAMILY_CODENVY                    = new Object();
+    public static final Object               FAMILY_CODENVY                    = new Object();
+
+    /**
+     * Maximum number of threads of the shared worker executor. The workers run requests and file operations which end on their own,
+     * the tasks submitted while all the workers are busy wait in a queue of {@link #WORKER_QUEUE_CAPACITY} tasks and are rejected
+     * beyond.
+     */
+    private static final int                 WORKER_POOL_SIZE                  = 16;
+    private static final int                 WORKER_QUEUE_CAPACITY             = 1024;
+
+    /**
+     * Maximum number of log streams read at the same time, each one holding a thread while its process is alive. The processes
+     * launched beyond poll their logs.
+     */
+    private static final int                 MAX_LOG_STREAMS                   = 8;
 
-    private static CodenvyPlugin plugin;
+    private static final long                IDLE_THREAD_KEEP_ALIVE_SECONDS    = 60;
+    private static final int                 SCHEDULER_POOL_SIZE               = 4;
+    private static final String              ARTIFACTS_CACHE_DIRECTORY_NAME    = "artifacts";                       //$NON-NLS-1$
 
-    private CredentialsProvider  credentialsProvider;
+    private static CodenvyPlugin             plugin;
+
+    private CredentialsProvider              credentialsProvider;
+    private ExecutorService                  executorService;
+    private ExecutorService                  logStreamExecutorService;
+    private ScheduledExecutorService         scheduledExecutorService;
+    private ScheduledExecutorService         streamDispatcher;
+    private BuildCoordinator                 buildCoordinator;
+    private ArtifactDownloader               artifactDownloader;
+    private IResourceChangeListener          syncStateCacheEvictor;
+    private CodenvyTrackedStateIndex         trackedStateIndex;
+    private CodenvySyncStatusIndex           syncStatusIndex;
+    private CodenvySubscriber                subscriber;
 
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
 
+        final ThreadPoolExecutor workerExecutor = new ThreadPoolExecutor(WORKER_POOL_SIZE, WORKER_POOL_SIZE, IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                                                                         SECONDS, new LinkedBlockingQueue<Runnable>(WORKER_QUEUE_CAPACITY),
+                                                                         newDaemonThreadFactory("Codenvy worker "));
+        workerExecutor.allowCoreThreadTimeOut(true);
+        executorService = workerExecutor;
+
+        // no queue, a log stream which cannot be read at once is rejected and its process polls the logs
+        logStreamExecutorService = new ThreadPoolExecutor(0, MAX_LOG_STREAMS, IDLE_THREAD_KEEP_ALIVE_SECONDS, SECONDS,
+                                                          new SynchronousQueue<Runnable>(), newDaemonThreadFactory("Codenvy log stream "));
+
+        scheduledExecutorService = Executors.newScheduledThreadPool(SCHEDULER_POOL_SIZE, newDaemonThreadFactory("Codenvy scheduler "));
+
+        streamDispatcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "Codenvy stream dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        buildCoordinator = new BuildCoordinator(DEFAULT_MAX_CONCURRENT_BUILDS, executorService);
+
+        artifactDownloader = new ArtifactDownloader(getStateLocation().append(ARTIFACTS_CACHE_DIRECTORY_NAME).toFile(),
+                                                    ArtifactDownloader.DEFAULT_CONNECTIONS,
+                                                    executorService);
+
+        syncStateCacheEvictor = new CodenvyProjectSyncState.CacheEvictor();
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(syncStateCacheEvictor,
+                                                                 IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+
+        trackedStateIndex = new CodenvyTrackedStateIndex(executorService);
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(trackedStateIndex, IResourceChangeEvent.POST_CHANGE);
+
+        syncStatusIndex = new CodenvySyncStatusIndex(trackedStateIndex, executorService);
+        trackedStateIndex.addTrackedStateListener(syncStatusIndex);
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(syncStatusIndex, IResourceChangeEvent.POST_CHANGE);
+
+        subscriber = new CodenvySubscriber(executorService);
+        ResourcesPlugin.getWorkspace().addResourceChangeListener(subscriber, IResourceChangeEvent.POST_CHANGE);
+
         final IExtensionRegistry registry = Platform.getExtensionRegistry();
         final IConfigurationElement[] configurationElements = registry.getConfigurationElementsFor(CREDENTIALS_PROVIDER_EXTENSION_ID);
 
@@ -59,6 +152,32 @@ public final class CodenvyPlugin extends Plugin {
     }
 
     public void stop(BundleContext context) throws Exception {
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(subscriber);
+        subscriber = null;
+
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(syncStatusIndex);
+        syncStatusIndex = null;
+
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(trackedStateIndex);
+        trackedStateIndex = null;
+
+        ResourcesPlugin.getWorkspace().removeResourceChangeListener(syncStateCacheEvictor);
+        syncStateCacheEvictor = null;
+
+        executorService.shutdownNow();
+        executorService = null;
+
+        logStreamExecutorService.shutdownNow();
+        logStreamExecutorService = null;
+
+        scheduledExecutorService.shutdownNow();
+        scheduledExecutorService = null;
+
+        streamDispatcher.shutdownNow();
+        streamDispatcher = null;
+        buildCoordinator = null;
+        artifactDownloader = null;
+
         plugin = null;
         super.stop(context);
     }
@@ -72,6 +191,95 @@ public final class CodenvyPlugin extends Plugin {
         return plugin;
     }
 
+    /**
+     * Returns the {@link ExecutorService} shared by the Codenvy plugins to run background tasks. It runs at most
+     * {@value #WORKER_POOL_SIZE} tasks at the same time and queues at most {@value #WORKER_QUEUE_CAPACITY} tasks, the tasks submitted
+     * beyond are rejected. A task must not hold a worker for an unbounded time. The executor is shut down when this plugin is stopped.
+     * 
+     * @return the shared {@link ExecutorService}.
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Returns the {@link ExecutorService} reading the log streams of the builder and runner processes, kept apart from
+     * {@link #getExecutorService()} as a stream holds its thread while its process is alive. At most {@value #MAX_LOG_STREAMS} streams
+     * are read at the same time, the streams submitted beyond are rejected. The executor is shut down when this plugin is stopped.
+     *
+     * @return the log stream {@link ExecutorService}.
+     */
+    public ExecutorService getLogStreamExecutorService() {
+        return logStreamExecutorService;
+    }
+
+    /**
+     * Returns the bounded {@link ScheduledExecutorService} shared by the Codenvy plugins to fire the delays of periodic tasks, like the
+     * launch status pollers. Its threads must not block, the blocking work is handed to {@link #getExecutorService()}. The executor is
+     * shut down when this plugin is stopped.
+     * 
+     * @return the shared {@link ScheduledExecutorService}.
+     */
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
+    /**
+     * Returns the single threaded {@link ScheduledExecutorService} notifying the console listeners of the builder and runner process
+     * streams. It is kept apart from {@link #getScheduledExecutorService()} so that a slow console never delays the pollers. The
+     * executor is shut down when this plugin is stopped.
+     *
+     * @return the stream dispatcher {@link ScheduledExecutorService}.
+     */
+    public ScheduledExecutorService getStreamDispatcher() {
+        return streamDispatcher;
+    }
+
+    /**
+     * Returns the {@link BuildCoordinator} deduplicating and queuing the builds launched on Codenvy.
+     * 
+     * @return the {@link BuildCoordinator}.
+     */
+    public BuildCoordinator getBuildCoordinator() {
+        return buildCoordinator;
+    }
+
+    /**
+     * Returns the {@link ArtifactDownloader} downloading the build artifacts into the plugin state location.
+     * 
+     * @return the {@link ArtifactDownloader}.
+     */
+    public ArtifactDownloader getArtifactDownloader() {
+        return artifactDownloader;
+    }
+
+    /**
+     * Returns the {@link CodenvyTrackedStateIndex} answering if the workspace resources are tracked by Codenvy.
+     * 
+     * @return the {@link CodenvyTrackedStateIndex}.
+     */
+    public CodenvyTrackedStateIndex getTrackedStateIndex() {
+        return trackedStateIndex;
+    }
+
+    /**
+     * Returns the {@link CodenvySyncStatusIndex} answering the synchronization status of the workspace resources.
+     * 
+     * @return the {@link CodenvySyncStatusIndex}.
+     */
+    public CodenvySyncStatusIndex getSyncStatusIndex() {
+        return syncStatusIndex;
+    }
+
+    /**
+     * Returns the {@link CodenvySubscriber} comparing the projects linked to Codenvy to their remote tree.
+     * 
+     * @return the {@link CodenvySubscriber}.
+     */
+    public CodenvySubscriber getSubscriber() {
+        return subscriber;
+    }
+
     /**
      * Returns a Codenvy builder for the given URL and username.
      * 
@@ -85,4 +293,31 @@ public final class CodenvyPlugin extends Plugin {
                          .withCredentialsStoreFactory(SecureStorageDataStoreFactory.INSTANCE)
                          .withCredentialsProvider(credentialsProvider);
     }
+
+    /**
+     * Returns a Codenvy builder for the given URL and username which never prompts the user for credentials, the requests only use the
+     * credentials already stored for the user. It is meant for the requests made in the background.
+     * 
+     * @param url the Codenvy platform URL.
+     * @param username the username.
+     * @return an instance of the {@link CodenvyBuilder}.
+     */
+    public CodenvyBuilder getNonInteractiveCodenvyBuilder(String url, String username) {
+        return CodenvyAPI.getClient()
+                         .newCodenvyBuilder(url, username)
+                         .withCredentialsStoreFactory(SecureStorageDataStoreFactory.INSTANCE);
+    }
+
+    private static ThreadFactory newDaemonThreadFactory(final String namePrefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
 }
@@ -0,0 +1,588 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core;
+
+import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+
+/**
+ * The Codenvy project synchronization state. Records the state of each project resource as it was the last time the project was
+ * synchronized with Codenvy.
+ * <p>
+ * The state is stored in the project '.codenvy' folder as a snapshot followed by an append-only journal: saving a state only appends
+ * the entries changed since the previous state to the journal, the journal is compacted into a new snapshot once it holds more records
+ * than a fraction of the snapshot. A journal whose last record has been cut by a crash is loaded without this record and is compacted by
+ * the next save. The loaded states are cached until one of the files is modified or until the project is closed or deleted, see
+ * {@link CacheEvictor}.
+ *
+ * @author Kevin Pollet
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class CodenvyProjectSyncState {
+    public static final String                                SYNC_STATE_FILE_NAME         = "syncState.json";
+    public static final String                                SYNC_STATE_JOURNAL_FILE_NAME = "syncState.log";
+
+    private static final int                                  BUFFER_SIZE                  = 64 * 1024;
+    static final int                                          MIN_COMPACTION_RECORDS       = 256;
+    private static final ObjectMapper                         MAPPER                       = new ObjectMapper();
+    private static final ConcurrentMap<String, LoadedState>   LOADED_STATES                = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry>                          entries;
+
+    /**
+     * Loads the synchronization state of the given {@link IProject}. The snapshot is read and the journal replayed only if they have
+     * been modified since the last load.
+     *
+     * @param project the {@link IProject}.
+     * @return the {@link CodenvyProjectSyncState} or {@code null} if the project has never been synchronized.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public static CodenvyProjectSyncState load(IProject project) {
+        final LoadedState loadedState = loadState(checkNotNull(project));
+        return loadedState == null ? null : loadedState.syncState;
+    }
+
+    /**
+     * Returns the revision of the synchronization state of the given {@link IProject}, built from the modification stamps of the
+     * snapshot and journal files. The revision changes each time a different state is saved.
+     *
+     * @param project the {@link IProject}.
+     * @return the revision or {@code null} if the project has never been synchronized.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public static String getRevision(IProject project) {
+        final LoadedState loadedState = loadState(checkNotNull(project));
+        return loadedState == null ? null : loadedState.snapshotStamp + ":" + loadedState.journalStamp;
+    }
+
+    /**
+     * Saves the synchronization state of the given {@link IProject}. Only the entries changed since the current state are appended to
+     * the journal, the snapshot is rewritten when the project has no state yet or when the journal needs to be compacted. The state is
+     * saved in a workspace operation holding the project rule, see {@link #runWithProjectRule(IProject, IWorkspaceRunnable)}.
+     *
+     * @param project the {@link IProject}.
+     * @param syncState the {@link CodenvyProjectSyncState} to save.
+     * @throws NullPointerException if project or syncState parameter is {@code null}.
+     */
+    public static void save(final IProject project, final CodenvyProjectSyncState syncState) {
+        checkNotNull(project);
+        checkNotNull(syncState);
+
+        runWithProjectRule(project, new IWorkspaceRunnable() {
+            @Override
+            public void run(IProgressMonitor monitor) throws CoreException {
+                final LoadedState previousState = loadState(project);
+                try {
+
+                    if (previousState == null) {
+                        writeSnapshot(project, syncState);
+                        return;
+                    }
+
+                    final List<JournalRecord> records = diff(previousState.syncState, syncState);
+                    if (records.isEmpty()) {
+                        return;
+                    }
+
+                    final int journalRecords = previousState.journalRecords + records.size();
+                    if (previousState.truncatedJournal
+                        || journalRecords > Math.max(MIN_COMPACTION_RECORDS, syncState.entries.size() / 2)) {
+                        writeSnapshot(project, syncState);
+                    } else {
+                        appendToJournal(project, records);
+                        cache(project, syncState, journalRecords, false);
+                    }
+
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rewrites the snapshot of the given {@link IProject} synchronization state and deletes its journal. The snapshot is rewritten in a
+     * workspace operation holding the project rule, see {@link #runWithProjectRule(IProject, IWorkspaceRunnable)}.
+     *
+     * @param project the {@link IProject}.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public static void compact(final IProject project) {
+        checkNotNull(project);
+
+        runWithProjectRule(project, new IWorkspaceRunnable() {
+            @Override
+            public void run(IProgressMonitor monitor) throws CoreException {
+                final LoadedState loadedState = loadState(project);
+                if (loadedState != null && (loadedState.journalRecords > 0 || loadedState.truncatedJournal)) {
+                    try {
+
+                        writeSnapshot(project, loadedState.syncState);
+
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs the given {@link IWorkspaceRunnable} as a workspace operation holding the rule of the given {@link IProject}. The rule
+     * serializes the writes of the project state files without any other lock: the state of a project is read and written by a single
+     * thread at a time, and a caller already holding the project or the workspace root rule runs the operation as a nested one.
+     */
+    private static void runWithProjectRule(IProject project, IWorkspaceRunnable runnable) {
+        try {
+
+            project.getWorkspace().run(runnable, project, IWorkspace.AVOID_UPDATE, null);
+
+        } catch (CoreException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static LoadedState loadState(IProject project) {
+        final IFile snapshotFile = getSnapshotFile(project);
+        final IFile journalFile = getJournalFile(project);
+        if (!snapshotFile.exists()) {
+            LOADED_STATES.remove(project.getFullPath().toString());
+            return null;
+        }
+
+        final long snapshotStamp = snapshotFile.getModificationStamp();
+        final long journalStamp = journalFile.getModificationStamp();
+        final LoadedState cachedState = LOADED_STATES.get(project.getFullPath().toString());
+        if (cachedState != null && cachedState.snapshotStamp == snapshotStamp && cachedState.journalStamp == journalStamp) {
+            return cachedState;
+        }
+
+        try {
+
+            final Map<String, Entry> entries;
+            try (InputStream inputStream = snapshotFile.getContents(true)) {
+                entries = MAPPER.readValue(inputStream, CodenvyProjectSyncState.class).entries;
+            }
+
+            int journalRecords = 0;
+            boolean truncatedJournal = false;
+            if (journalFile.exists()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(journalFile.getContents(true), Charsets.UTF_8))) {
+                    String line = nextRecordLine(reader);
+                    while (line != null) {
+                        final String nextLine = nextRecordLine(reader);
+
+                        final JournalRecord record;
+                        try {
+
+                            record = MAPPER.readValue(line, JournalRecord.class);
+
+                        } catch (JsonProcessingException e) {
+                            // only the last record can be cut by a crash while it is appended
+                            if (nextLine != null) {
+                                throw e;
+                            }
+                            truncatedJournal = true;
+                            break;
+                        }
+
+                        if (record.removed != null) {
+                            entries.remove(record.removed);
+                        } else if (record.entry != null) {
+                            entries.put(record.entry.path, record.entry);
+                        }
+                        journalRecords++;
+                        line = nextLine;
+                    }
+                }
+            }
+
+            final LoadedState loadedState = new LoadedState(new CodenvyProjectSyncState(entries.values()), snapshotStamp, journalStamp,
+                                                            journalRecords, truncatedJournal);
+            LOADED_STATES.put(project.getFullPath().toString(), loadedState);
+            return loadedState;
+
+        } catch (CoreException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String nextRecordLine(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isEmpty());
+        return line;
+    }
+
+    /**
+     * Computes the journal records turning the given previous state into the given new state.
+     *
+     * @param previousState the previous {@link CodenvyProjectSyncState}.
+     * @param newState the new {@link CodenvyProjectSyncState}.
+     * @return the journal records, never {@code null}.
+     */
+    static List<JournalRecord> diff(CodenvyProjectSyncState previousState, CodenvyProjectSyncState newState) {
+        final List<JournalRecord> records = new ArrayList<>();
+        for (Entry oneEntry : newState.entries.values()) {
+            if (!oneEntry.equals(previousState.entries.get(oneEntry.path))) {
+                records.add(new JournalRecord(oneEntry, null));
+            }
+        }
+        for (String onePath : previousState.entries.keySet()) {
+            if (!newState.entries.containsKey(onePath)) {
+                records.add(new JournalRecord(null, onePath));
+            }
+        }
+        return records;
+    }
+
+    private static void writeSnapshot(IProject project, CodenvyProjectSyncState syncState) throws CoreException, IOException {
+        final IFolder codenvyFolder = project.getFolder(CODENVY_FOLDER_NAME);
+        final IFile snapshotFile = getSnapshotFile(project);
+        final IFile journalFile = getJournalFile(project);
+        final byte[] syncStateBytes = MAPPER.writeValueAsBytes(syncState);
+
+        if (!codenvyFolder.exists()) {
+            codenvyFolder.create(true, true, new NullProgressMonitor());
+        }
+
+        if (!snapshotFile.exists()) {
+            snapshotFile.create(new ByteArrayInputStream(syncStateBytes), true, new NullProgressMonitor());
+        } else {
+            snapshotFile.setContents(new ByteArrayInputStream(syncStateBytes), IResource.FORCE, new NullProgressMonitor());
+        }
+
+        if (journalFile.exists()) {
+            journalFile.delete(true, new NullProgressMonitor());
+        }
+
+        cache(project, syncState, 0, false);
+    }
+
+    private static void appendToJournal(IProject project, List<JournalRecord> records) throws CoreException, IOException {
+        final IFile journalFile = getJournalFile(project);
+        final ByteArrayOutputStream recordsBytes = new ByteArrayOutputStream();
+        for (JournalRecord oneRecord : records) {
+            recordsBytes.write(MAPPER.writeValueAsBytes(oneRecord));
+            recordsBytes.write('\n');
+        }
+
+        if (!journalFile.exists()) {
+            journalFile.create(new ByteArrayInputStream(recordsBytes.toByteArray()), true, new NullProgressMonitor());
+        } else {
+            journalFile.appendContents(new ByteArrayInputStream(recordsBytes.toByteArray()), IResource.FORCE, new NullProgressMonitor());
+        }
+    }
+
+    private static void cache(IProject project, CodenvyProjectSyncState syncState, int journalRecords, boolean truncatedJournal) {
+        LOADED_STATES.put(project.getFullPath().toString(),
+                          new LoadedState(syncState, getSnapshotFile(project).getModificationStamp(),
+                                          getJournalFile(project).getModificationStamp(), journalRecords, truncatedJournal));
+    }
+
+    private static IFile getSnapshotFile(IProject project) {
+        return project.getFolder(CODENVY_FOLDER_NAME).getFile(SYNC_STATE_FILE_NAME);
+    }
+
+    private static IFile getJournalFile(IProject project) {
+        return project.getFolder(CODENVY_FOLDER_NAME).getFile(SYNC_STATE_JOURNAL_FILE_NAME);
+    }
+
+    @JsonCreator
+    public CodenvyProjectSyncState(@JsonProperty(value = "entries", required = true) Collection<Entry> entries) {
+        this.entries = new LinkedHashMap<>();
+
+        for (Entry oneEntry : checkNotNull(entries)) {
+            this.entries.put(oneEntry.path, oneEntry);
+        }
+    }
+
+    /**
+     * Returns the recorded {@link Entry} of the resource with the given project relative path.
+     *
+     * @param path the project relative path.
+     * @return the recorded {@link Entry} or {@code null} if none.
+     */
+    public Entry getEntry(String path) {
+        return entries.get(path);
+    }
+
+    /**
+     * Returns the project relative paths of the recorded resources.
+     *
+     * @return the recorded paths, never {@code null}.
+     */
+    @JsonIgnore
+    public Set<String> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    @JsonProperty("entries")
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final CodenvyProjectSyncState other = (CodenvyProjectSyncState)obj;
+        return entries.equals(other.entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+
+    /**
+     * The synchronization state of a project resource.
+     *
+     * @author Kevin Pollet
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static final class Entry {
+        public static final long UNKNOWN_REMOTE_REVISION = -1;
+
+        public final String      path;
+        public final boolean     folder;
+        public final long        size;
+        public final long        modificationStamp;
+        public final long        hash;
+
+        /**
+         * The remote revision of the resource, the modification time of the resource in the Codenvy project archive when the resource
+         * was last received from Codenvy or {@link #UNKNOWN_REMOTE_REVISION} if the resource was last sent to Codenvy.
+         */
+        public final long        remoteRevision;
+
+        /**
+         * Computes the {@link Entry} of the given {@link IResource}. The content hash of a file is only computed if the file has
+         * changed since the given previous {@link Entry} was recorded.
+         *
+         * @param resource the {@link IResource}.
+         * @param previous the previously recorded {@link Entry} or {@code null} if none.
+         * @return the {@link Entry} of the {@link IResource}, never {@code null}.
+         * @throws NullPointerException if resource parameter is {@code null}.
+         */
+        public static Entry of(IResource resource, Entry previous) {
+            final String path = checkNotNull(resource).getProjectRelativePath().toString();
+
+            if (resource.getType() != IResource.FILE) {
+                return new Entry(path, true, 0, resource.getModificationStamp(), 0);
+            }
+
+            try {
+
+                final IFile file = (IFile)resource;
+                final long size = EFS.getStore(file.getLocationURI()).fetchInfo().getLength();
+                final long modificationStamp = file.getModificationStamp();
+
+                if (previous != null && !previous.folder && previous.size == size && previous.modificationStamp == modificationStamp) {
+                    return previous;
+                }
+
+                try (InputStream inputStream = file.getContents(true)) {
+                    return new Entry(path, false, size, modificationStamp, hash(inputStream));
+                }
+
+            } catch (CoreException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * Computes the content hash of the given {@link InputStream}. The hash is the CRC-32 of the content, the same checksum stored
+         * in ZIP archive entries.
+         *
+         * @param inputStream the {@link InputStream} to hash.
+         * @return the content hash.
+         * @throws IOException if the {@link InputStream} cannot be read.
+         */
+        public static long hash(InputStream inputStream) throws IOException {
+            final CRC32 crc = new CRC32();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+            return crc.getValue();
+        }
+
+        public Entry(String path, boolean folder, long size, long modificationStamp, long hash) {
+            this(path, folder, size, modificationStamp, hash, null);
+        }
+
+        @JsonCreator
+        public Entry(@JsonProperty(value = "path", required = true) String path,
+                     @JsonProperty(value = "folder", required = true) boolean folder,
+                     @JsonProperty(value = "size", required = true) long size,
+                     @JsonProperty(value = "modificationStamp", required = true) long modificationStamp,
+                     @JsonProperty(value = "hash", required = true) long hash,
+                     @JsonProperty(value = "remoteRevision") Long remoteRevision) {
+            this.path = checkNotNull(path);
+            this.folder = folder;
+            this.size = size;
+            this.modificationStamp = modificationStamp;
+            this.hash = hash;
+            this.remoteRevision = remoteRevision == null ? UNKNOWN_REMOTE_REVISION : remoteRevision;
+        }
+
+        /**
+         * Returns a copy of this {@link Entry} with the given remote revision.
+         *
+         * @param remoteRevision the remote revision.
+         * @return the {@link Entry} with the given remote revision, this {@link Entry} if it has already this remote revision.
+         */
+        public Entry withRemoteRevision(long remoteRevision) {
+            if (this.remoteRevision == remoteRevision) {
+                return this;
+            }
+            return new Entry(path, folder, size, modificationStamp, hash, remoteRevision);
+        }
+
+        /**
+         * Returns if this {@link Entry} has the same content as the given one.
+         *
+         * @param other the other {@link Entry}.
+         * @return {@code true} if both entries have the same content, {@code false} otherwise.
+         */
+        public boolean isSameContent(Entry other) {
+            return other != null && folder == other.folder && size == other.size && hash == other.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            final Entry other = (Entry)obj;
+            return path.equals(other.path)
+                   && isSameContent(other)
+                   && modificationStamp == other.modificationStamp
+                   && remoteRevision == other.remoteRevision;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(path, folder, size, modificationStamp, hash, remoteRevision);
+        }
+    }
+
+    /**
+     * A record of the synchronization state journal, either an added or changed {@link Entry} or the path of a removed entry.
+     *
+     * @author Kevin Pollet
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static final class JournalRecord {
+        @JsonProperty("entry")
+        final Entry  entry;
+
+        @JsonProperty("removed")
+        final String removed;
+
+        @JsonCreator
+        JournalRecord(@JsonProperty("entry") Entry entry, @JsonProperty("removed") String removed) {
+            this.entry = entry;
+            this.removed = removed;
+        }
+    }
+
+    /**
+     * A loaded synchronization state with the modification stamps of the files it has been loaded from.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class LoadedState {
+        final CodenvyProjectSyncState syncState;
+        final long                    snapshotStamp;
+        final long                    journalStamp;
+        final int                     journalRecords;
+        final boolean                 truncatedJournal;
+
+        LoadedState(CodenvyProjectSyncState syncState, long snapshotStamp, long journalStamp, int journalRecords,
+                    boolean truncatedJournal) {
+            this.syncState = syncState;
+            this.snapshotStamp = snapshotStamp;
+            this.journalStamp = journalStamp;
+            this.journalRecords = journalRecords;
+            this.truncatedJournal = truncatedJournal;
+        }
+    }
+
+    /**
+     * {@link IResourceChangeListener} dropping the cached synchronization state of a project when the project is closed or deleted. It
+     * must be registered for the {@link IResourceChangeEvent#PRE_CLOSE} and {@link IResourceChangeEvent#PRE_DELETE} events.
+     *
+     * @author Kevin Pollet
+     */
+    public static final class CacheEvictor implements IResourceChangeListener {
+        @Override
+        public void resourceChanged(IResourceChangeEvent event) {
+            if (event.getResource() instanceof IProject) {
+                LOADED_STATES.remove(event.getResource().getFullPath().toString());
+            }
+        }
+    }
+}
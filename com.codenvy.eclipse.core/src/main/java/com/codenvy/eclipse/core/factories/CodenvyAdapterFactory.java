@@ -13,22 +13,44 @@ package com.codenvy.eclipse.core.factories;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IAdapterFactory;
 
+import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.team.CodenvyMetaResource;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex;
 
 /**
- * The Codenvy adapter factory.
+ * The Codenvy adapter factory. The adapters are lightweight handles created without lock nor I/O, their tracked state is resolved from
+ * the {@link CodenvyTrackedStateIndex}.
  * 
  * @author Kevin Pollet
  */
 public class CodenvyAdapterFactory implements IAdapterFactory {
+    private final CodenvyTrackedStateIndex trackedStateIndex;
+
+    public CodenvyAdapterFactory() {
+        this(null);
+    }
+
+    /**
+     * Constructs an instance of {@link CodenvyAdapterFactory}.
+     * 
+     * @param trackedStateIndex the {@link CodenvyTrackedStateIndex} or {@code null} to use the Codenvy plugin one.
+     */
+    CodenvyAdapterFactory(CodenvyTrackedStateIndex trackedStateIndex) {
+        this.trackedStateIndex = trackedStateIndex;
+    }
+
     @Override
-    public synchronized Object getAdapter(Object adaptableObject, @SuppressWarnings("rawtypes") Class adapterType) {
+    public Object getAdapter(Object adaptableObject, @SuppressWarnings("rawtypes") Class adapterType) {
         if (CodenvyMetaResource.class == adapterType && adaptableObject instanceof IResource) {
-            return new CodenvyMetaResource((IResource)adaptableObject);
+            return new CodenvyMetaResource((IResource)adaptableObject, getTrackedStateIndex());
         }
         return null;
     }
 
+    private CodenvyTrackedStateIndex getTrackedStateIndex() {
+        return trackedStateIndex != null ? trackedStateIndex : CodenvyPlugin.getDefault().getTrackedStateIndex();
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public Class[] getAdapterList() {
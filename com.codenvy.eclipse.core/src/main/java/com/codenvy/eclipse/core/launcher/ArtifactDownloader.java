@@ -0,0 +1,592 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.net.HttpURLConnection.HTTP_PARTIAL;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.eclipse.core.runtime.IProgressMonitor.UNKNOWN;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+/**
+ * Downloads the build artifacts into a local cache directory. When the server honours range requests the artifact is split into
+ * segments fetched in parallel, each segment being kept in its own part file so that an interrupted download resumes where it stopped.
+ * The assembled artifact is verified against its expected length and, when provided by the server, its SHA-1 checksum.
+ * <p>
+ * The downloads of the same artifact are serialized, a download waiting for another one then finds the artifact in the cache. When the
+ * artifact changes on the server while its segments are fetched, the server answers the conditional range requests with the whole
+ * artifact and the download restarts from zero.
+ *
+ * @author Kevin Pollet
+ */
+public final class ArtifactDownloader {
+    public static final int                            DEFAULT_CONNECTIONS   = 4;
+    public static final String                         CHECKSUM_HEADER       = "X-Checksum-Sha1";
+
+    static final long                                  MIN_SEGMENT_LENGTH    = 1024 * 1024;
+    static final String                                SEGMENT_SUFFIX        = ".part";
+    static final String                                CHECKSUM_SUFFIX       = ".sha1";
+    static final String                                STATE_SUFFIX          = ".download";
+
+    private static final int                           MAX_ATTEMPTS          = 5;
+    private static final int                           MAX_DOWNLOADS         = 2;
+    private static final int                           RETRY_DELAY           = 500;
+    private static final int                           CONNECT_TIMEOUT       = 10000;
+    private static final int                           READ_TIMEOUT          = 30000;
+    private static final int                           BUFFER_SIZE           = 64 * 1024;
+    private static final int                           PROGRESS_INTERVAL     = 200;
+    private static final Pattern                       CONTENT_RANGE_PATTERN = Pattern.compile("^bytes\\s+\\d+-\\d+/(\\d+)$");
+    private static final Pattern                       FILE_NAME_PATTERN     = Pattern.compile("filename=\"?([^\";]+)\"?");
+
+    private final File                                 cacheDirectory;
+    private final int                                  connections;
+    private final ExecutorService                      executorService;
+    private final ConcurrentMap<String, ReentrantLock> locks;
+
+    /**
+     * Constructs an instance of {@link ArtifactDownloader}.
+     *
+     * @param cacheDirectory the directory where the artifacts are downloaded.
+     * @param connections the maximum number of connections opened in parallel for one artifact.
+     * @param executorService the {@link ExecutorService} used to fetch the segments.
+     * @throws NullPointerException if cacheDirectory or executorService parameter is {@code null}.
+     * @throws IllegalArgumentException if connections is not strictly positive.
+     */
+    public ArtifactDownloader(File cacheDirectory, int connections, ExecutorService executorService) {
+        checkArgument(connections > 0, "connections must be strictly positive");
+
+        this.cacheDirectory = checkNotNull(cacheDirectory);
+        this.connections = connections;
+        this.executorService = checkNotNull(executorService);
+        this.locks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Downloads the artifact at the given URL into the cache directory. The cached artifact is returned without being downloaded again
+     * if it is still valid.
+     *
+     * @param artifactURL the artifact URL.
+     * @param monitor the {@link IProgressMonitor} reporting the download progress.
+     * @return the downloaded artifact {@link File}, never {@code null}.
+     * @throws IOException if the artifact cannot be downloaded or is corrupted.
+     * @throws OperationCanceledException if the download is cancelled, the downloaded segments are kept to resume the download.
+     * @throws NullPointerException if artifactURL or monitor parameter is {@code null}.
+     */
+    public File download(String artifactURL, IProgressMonitor monitor) throws IOException {
+        checkNotNull(artifactURL);
+        checkNotNull(monitor);
+
+        final String directoryName = sha1(artifactURL.getBytes(Charsets.UTF_8));
+        final ReentrantLock lock = lock(directoryName, monitor);
+        try {
+
+            final SubMonitor progress = SubMonitor.convert(monitor, MAX_DOWNLOADS);
+            for (int download = 1;; download++) {
+                try {
+
+                    return downloadOnce(artifactURL, new File(cacheDirectory, directoryName), progress.newChild(1));
+
+                } catch (ArtifactChangedException e) {
+                    if (download == MAX_DOWNLOADS) {
+                        throw e;
+                    }
+                }
+            }
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires the lock of the artifact cached in the given directory, waiting until it is released or until the given
+     * {@link IProgressMonitor} is canceled.
+     */
+    private ReentrantLock lock(String directoryName, IProgressMonitor monitor) {
+        ReentrantLock lock = locks.get(directoryName);
+        if (lock == null) {
+            final ReentrantLock newLock = new ReentrantLock();
+            lock = locks.putIfAbsent(directoryName, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+
+        try {
+
+            while (!lock.tryLock(PROGRESS_INTERVAL, MILLISECONDS)) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+            }
+            return lock;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        }
+    }
+
+    private File downloadOnce(String artifactURL, File directory, IProgressMonitor monitor) throws IOException {
+        final ArtifactInfo artifactInfo = probe(artifactURL);
+        final File artifact = new File(directory, artifactInfo.fileName);
+        final File checksum = new File(directory, artifactInfo.fileName + CHECKSUM_SUFFIX);
+        final File stateFile = new File(directory, artifactInfo.fileName + STATE_SUFFIX);
+
+        if (isValid(artifact, checksum, artifactInfo)) {
+            return artifact;
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+
+        final List<Segment> segments = prepareSegments(directory, artifactInfo);
+        try {
+
+            fetchSegments(artifactURL, artifactInfo, segments, monitor);
+
+        } catch (ArtifactChangedException e) {
+            // the fetched segments belong to the previous artifact version
+            for (Segment oneSegment : segments) {
+                oneSegment.file.delete();
+            }
+            stateFile.delete();
+            throw e;
+        }
+
+        final String sha1 = assemble(segments, artifact, artifactInfo);
+        Files.write(sha1, checksum, Charsets.UTF_8);
+
+        for (Segment oneSegment : segments) {
+            oneSegment.file.delete();
+        }
+        stateFile.delete();
+
+        return artifact;
+    }
+
+    private ArtifactInfo probe(String artifactURL) throws IOException {
+        final HttpURLConnection connection = openConnection(artifactURL);
+        try {
+
+            connection.setRequestProperty("Range", "bytes=0-0");
+
+            final int responseCode = connection.getResponseCode();
+            if (responseCode != HTTP_OK && responseCode != HTTP_PARTIAL) {
+                throw new IOException("Unable to download " + artifactURL + ", server responded with status " + responseCode);
+            }
+
+            long length = -1;
+            boolean acceptRanges = false;
+            if (responseCode == HTTP_PARTIAL) {
+                final String contentRange = connection.getHeaderField("Content-Range");
+                final Matcher matcher = CONTENT_RANGE_PATTERN.matcher(contentRange == null ? "" : contentRange.trim());
+                if (matcher.matches()) {
+                    length = Long.parseLong(matcher.group(1));
+                    acceptRanges = true;
+                }
+            } else {
+                final String contentLength = connection.getHeaderField("Content-Length");
+                length = contentLength == null ? -1 : Long.parseLong(contentLength.trim());
+            }
+
+            final String checksum = connection.getHeaderField(CHECKSUM_HEADER);
+            return new ArtifactInfo(fileName(artifactURL, connection.getHeaderField("Content-Disposition")),
+                                    length,
+                                    acceptRanges,
+                                    connection.getHeaderField("ETag"),
+                                    checksum == null ? null : checksum.trim().toLowerCase());
+
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static String fileName(String artifactURL, String contentDisposition) {
+        if (contentDisposition != null) {
+            final Matcher matcher = FILE_NAME_PATTERN.matcher(contentDisposition);
+            if (matcher.find()) {
+                return new File(matcher.group(1).trim()).getName();
+            }
+        }
+
+        String path = artifactURL.replaceFirst("[?#].*$", "");
+        path = path.substring(path.lastIndexOf('/') + 1);
+        return path.isEmpty() ? "artifact" : path;
+    }
+
+    private boolean isValid(File artifact, File checksum, ArtifactInfo artifactInfo) throws IOException {
+        if (!artifact.isFile() || !checksum.isFile()) {
+            return false;
+        }
+        if (artifactInfo.length >= 0 && artifact.length() != artifactInfo.length) {
+            return false;
+        }
+
+        final String sha1 = Files.toString(checksum, Charsets.UTF_8).trim();
+        if (artifactInfo.checksum != null && !artifactInfo.checksum.equals(sha1)) {
+            return false;
+        }
+        return sha1.equals(sha1(artifact));
+    }
+
+    /**
+     * Splits the artifact in segments, reusing the part files of a previous download of the same artifact version.
+     */
+    private List<Segment> prepareSegments(File directory, ArtifactInfo artifactInfo) throws IOException {
+        final File stateFile = new File(directory, artifactInfo.fileName + STATE_SUFFIX);
+        final Properties state = new Properties();
+        state.setProperty("length", String.valueOf(artifactInfo.length));
+        state.setProperty("etag", String.valueOf(artifactInfo.etag));
+
+        final boolean resumable = artifactInfo.acceptRanges && state.equals(loadState(stateFile));
+
+        final List<Segment> segments = new ArrayList<>();
+        if (artifactInfo.acceptRanges) {
+            final long segmentCount = Math.max(1, Math.min(connections, artifactInfo.length / MIN_SEGMENT_LENGTH));
+            final long segmentLength = artifactInfo.length / segmentCount;
+
+            for (int i = 0; i < segmentCount; i++) {
+                final long start = i * segmentLength;
+                final long end = i == segmentCount - 1 ? artifactInfo.length : start + segmentLength;
+                segments.add(new Segment(new File(directory, artifactInfo.fileName + SEGMENT_SUFFIX + i), start, end - start));
+            }
+        } else {
+            segments.add(new Segment(new File(directory, artifactInfo.fileName + SEGMENT_SUFFIX + 0), 0, artifactInfo.length));
+        }
+
+        for (Segment oneSegment : segments) {
+            if (!resumable || oneSegment.file.length() > oneSegment.length) {
+                oneSegment.file.delete();
+            }
+        }
+
+        try (OutputStream outputStream = new FileOutputStream(stateFile)) {
+            state.store(outputStream, null);
+        }
+
+        return segments;
+    }
+
+    private static Properties loadState(File stateFile) {
+        final Properties state = new Properties();
+        if (stateFile.isFile()) {
+            try (InputStream inputStream = new FileInputStream(stateFile)) {
+
+                state.load(inputStream);
+
+            } catch (IOException e) {
+                state.clear();
+            }
+        }
+        return state;
+    }
+
+    private void fetchSegments(final String artifactURL, final ArtifactInfo artifactInfo, List<Segment> segments,
+                               IProgressMonitor monitor) throws IOException {
+
+        final AtomicLong downloaded = new AtomicLong();
+        for (Segment oneSegment : segments) {
+            downloaded.addAndGet(oneSegment.file.length());
+        }
+
+        monitor.beginTask("Downloading " + artifactInfo.fileName,
+                          artifactInfo.length < 0 ? UNKNOWN : (int)Math.max(1, artifactInfo.length / 1024));
+
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (final Segment oneSegment : segments) {
+            futures.add(executorService.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException, InterruptedException {
+                    fetchSegment(artifactURL, artifactInfo, oneSegment, downloaded);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+
+            int reportedKilobytes = 0;
+            for (Future<Void> oneFuture : futures) {
+                while (true) {
+                    if (monitor.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+
+                    final int kilobytes = (int)(downloaded.get() / 1024);
+                    monitor.worked(kilobytes - reportedKilobytes);
+                    reportedKilobytes = kilobytes;
+
+                    try {
+
+                        oneFuture.get(PROGRESS_INTERVAL, MILLISECONDS);
+                        break;
+
+                    } catch (TimeoutException e) {
+                        // report the progress and check the cancellation
+                    }
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException(e.getCause());
+
+        } finally {
+            for (Future<Void> oneFuture : futures) {
+                oneFuture.cancel(true);
+            }
+            monitor.done();
+        }
+    }
+
+    /**
+     * Fetches the missing bytes of the given segment, retrying with a linear back-off when the connection fails.
+     */
+    private void fetchSegment(String artifactURL, ArtifactInfo artifactInfo, Segment segment, AtomicLong downloaded) throws IOException,
+                                                                                                                   InterruptedException {
+        for (int attempt = 1;; attempt++) {
+            try {
+
+                fetchSegmentOnce(artifactURL, artifactInfo, segment, downloaded);
+                return;
+
+            } catch (IOException e) {
+                if (attempt == MAX_ATTEMPTS || !artifactInfo.acceptRanges || e instanceof ArtifactChangedException) {
+                    throw e;
+                }
+                MILLISECONDS.sleep(attempt * RETRY_DELAY);
+            }
+        }
+    }
+
+    private void fetchSegmentOnce(String artifactURL, ArtifactInfo artifactInfo, Segment segment, AtomicLong downloaded)
+        throws IOException {
+        final long alreadyDownloaded = segment.file.length();
+        if (segment.length >= 0 && alreadyDownloaded >= segment.length) {
+            return;
+        }
+
+        final HttpURLConnection connection = openConnection(artifactURL);
+        try {
+
+            if (artifactInfo.acceptRanges) {
+                connection.setRequestProperty("Range", "bytes=" + (segment.start + alreadyDownloaded) + "-"
+                                                       + (segment.start + segment.length - 1));
+                if (artifactInfo.etag != null) {
+                    connection.setRequestProperty("If-Range", artifactInfo.etag);
+                }
+            }
+
+            final int responseCode = connection.getResponseCode();
+            if (artifactInfo.acceptRanges && responseCode == HTTP_OK) {
+                // the If-Range validator does not match anymore, the server sends the new artifact version
+                throw new ArtifactChangedException(artifactURL);
+            }
+            if (responseCode != (artifactInfo.acceptRanges ? HTTP_PARTIAL : HTTP_OK)) {
+                throw new IOException("Unable to download " + artifactURL + ", server responded with status " + responseCode);
+            }
+
+            try (InputStream inputStream = connection.getInputStream();
+                 OutputStream outputStream = new FileOutputStream(segment.file, artifactInfo.acceptRanges)) {
+
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Download of " + artifactURL + " interrupted");
+                    }
+
+                    outputStream.write(buffer, 0, read);
+                    downloaded.addAndGet(read);
+                }
+            }
+
+            if (segment.length >= 0 && segment.file.length() < segment.length) {
+                throw new IOException("Connection closed before the end of " + segment.file.getName());
+            }
+
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Concatenates the segments into the artifact file and verifies the artifact integrity.
+     *
+     * @return the SHA-1 checksum of the artifact.
+     */
+    private String assemble(List<Segment> segments, File artifact, ArtifactInfo artifactInfo) throws IOException {
+        final File assembled = new File(artifact.getParentFile(), artifact.getName() + SEGMENT_SUFFIX);
+        final MessageDigest digest = newSha1Digest();
+
+        try (OutputStream outputStream = new DigestOutputStream(new FileOutputStream(assembled), digest)) {
+            for (Segment oneSegment : segments) {
+                if (oneSegment.length >= 0 && oneSegment.file.length() != oneSegment.length) {
+                    throw new IOException("Segment " + oneSegment.file.getName() + " is incomplete");
+                }
+                Files.copy(oneSegment.file, outputStream);
+            }
+        }
+
+        final String sha1 = toHex(digest.digest());
+        if (artifactInfo.length >= 0 && assembled.length() != artifactInfo.length) {
+            assembled.delete();
+            throw new IOException("Downloaded artifact " + artifact.getName() + " has an unexpected length");
+        }
+        if (artifactInfo.checksum != null && !artifactInfo.checksum.equals(sha1)) {
+            assembled.delete();
+            for (Segment oneSegment : segments) {
+                oneSegment.file.delete();
+            }
+            throw new IOException("Downloaded artifact " + artifact.getName() + " is corrupted, checksum mismatch");
+        }
+
+        if (artifact.exists() && !artifact.delete() || !assembled.renameTo(artifact)) {
+            throw new IOException("Unable to move downloaded artifact to " + artifact);
+        }
+
+        return sha1;
+    }
+
+    private static HttpURLConnection openConnection(String artifactURL) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection)new URL(artifactURL).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        return connection;
+    }
+
+    static String sha1(File file) throws IOException {
+        final MessageDigest digest = newSha1Digest();
+        try (InputStream inputStream = new FileInputStream(file)) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String sha1(byte[] bytes) {
+        return toHex(newSha1Digest().digest(bytes));
+    }
+
+    private static MessageDigest newSha1Digest() {
+        try {
+
+            return MessageDigest.getInstance("SHA-1");
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte oneByte : bytes) {
+            hex.append(Character.forDigit((oneByte >> 4) & 0xF, 16)).append(Character.forDigit(oneByte & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The artifact information returned by the server.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class ArtifactInfo {
+        final String  fileName;
+        final long    length;
+        final boolean acceptRanges;
+        final String  etag;
+        final String  checksum;
+
+        ArtifactInfo(String fileName, long length, boolean acceptRanges, String etag, String checksum) {
+            this.fileName = fileName;
+            this.length = length;
+            this.acceptRanges = acceptRanges;
+            this.etag = etag;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Thrown when the artifact has changed on the server since the download started.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class ArtifactChangedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ArtifactChangedException(String artifactURL) {
+            super("Artifact " + artifactURL + " has changed during the download");
+        }
+    }
+
+    /**
+     * A segment of the artifact downloaded into its own part file.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class Segment {
+        final File file;
+        final long start;
+        final long length;
+
+        Segment(File file, long start, long length) {
+            this.file = file;
+            this.start = start;
+            this.length = length;
+        }
+    }
+}
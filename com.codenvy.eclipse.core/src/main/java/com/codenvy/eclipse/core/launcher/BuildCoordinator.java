@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Coordinates the builds launched on Codenvy. A build requested while an identical build is queued or in progress is attached to it
+ * instead of starting a new remote build. The remote builds are queued so that at most the configured number of builds are in
+ * progress at the same time. The remote builds are started on the given {@link Executor}, never on the thread joining or leaving a
+ * build.
+ *
+ * @author Kevin Pollet
+ */
+public final class BuildCoordinator {
+    /**
+     * Participant of a coordinated build, typically a {@link CodenvyBuilderProcess}.
+     *
+     * @author Kevin Pollet
+     */
+    interface BuildParticipant {
+        /**
+         * Starts the remote build. Called on one participant of the build when a build slot is available.
+         *
+         * @return the builder task id or {@code null} if the build cannot be started, the participant having reported the error.
+         */
+        Long startBuild();
+
+        /**
+         * Called when the remote build is started, immediately if the participant joins a build already started.
+         *
+         * @param build the started {@link Build}.
+         * @param taskId the builder task id.
+         */
+        void buildStarted(Build build, long taskId);
+
+        /**
+         * Called when the remote build cannot be started by another participant.
+         */
+        void buildNotStarted();
+
+        /**
+         * Called on the participant which started the remote build when every participant has left while the build was starting.
+         * The participant must cancel the remote build.
+         *
+         * @param taskId the builder task id.
+         */
+        void cancelBuild(long taskId);
+    }
+
+    /**
+     * A coordinated build.
+     *
+     * @author Kevin Pollet
+     */
+    static final class Build {
+        private final Object                 key;
+        private final List<BuildParticipant> participants;
+        private Long                         taskId;
+        private boolean                      done;
+
+        private Build(Object key) {
+            this.key = key;
+            this.participants = new ArrayList<>();
+            this.taskId = null;
+            this.done = false;
+        }
+    }
+
+    private final Executor           executor;
+    private final Map<Object, Build> builds;
+    private final Deque<Build>       queue;
+    private int                      maxConcurrentBuilds;
+    private int                      runningBuilds;
+
+    /**
+     * Constructs an instance of {@link BuildCoordinator}.
+     *
+     * @param maxConcurrentBuilds the maximum number of builds in progress at the same time.
+     * @param executor the {@link Executor} used to start the remote builds.
+     * @throws IllegalArgumentException if maxConcurrentBuilds is not strictly positive.
+     * @throws NullPointerException if executor parameter is {@code null}.
+     */
+    public BuildCoordinator(int maxConcurrentBuilds, Executor executor) {
+        checkArgument(maxConcurrentBuilds > 0, "maxConcurrentBuilds must be strictly positive");
+
+        this.executor = checkNotNull(executor);
+        this.builds = new HashMap<>();
+        this.queue = new ArrayDeque<>();
+        this.maxConcurrentBuilds = maxConcurrentBuilds;
+        this.runningBuilds = 0;
+    }
+
+    /**
+     * Changes the maximum number of builds in progress at the same time. When lowered, the builds in progress are not cancelled and
+     * the queued builds wait until the number of builds in progress is below the new maximum.
+     *
+     * @param maxConcurrentBuilds the maximum number of builds in progress at the same time.
+     * @throws IllegalArgumentException if maxConcurrentBuilds is not strictly positive.
+     */
+    public void setMaxConcurrentBuilds(int maxConcurrentBuilds) {
+        checkArgument(maxConcurrentBuilds > 0, "maxConcurrentBuilds must be strictly positive");
+
+        synchronized (this) {
+            this.maxConcurrentBuilds = maxConcurrentBuilds;
+        }
+
+        startQueuedBuilds();
+    }
+
+    /**
+     * Returns the maximum number of builds in progress at the same time.
+     *
+     * @return the maximum number of builds in progress at the same time.
+     */
+    public synchronized int getMaxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    /**
+     * Joins the build identified by the given key. The participant is attached to the identical build queued or in progress if any,
+     * otherwise a new build is queued.
+     *
+     * @param key the build key, identifying the project and its sources.
+     * @param participant the {@link BuildParticipant}.
+     * @return the joined {@link Build}, never {@code null}.
+     * @throws NullPointerException if key or participant parameter is {@code null}.
+     */
+    Build join(Object key, BuildParticipant participant) {
+        checkNotNull(key);
+        checkNotNull(participant);
+
+        final Build build;
+        final Long taskId;
+        synchronized (this) {
+            Build existingBuild = builds.get(key);
+            if (existingBuild == null) {
+                existingBuild = new Build(key);
+                builds.put(key, existingBuild);
+                queue.addLast(existingBuild);
+            }
+
+            build = existingBuild;
+            build.participants.add(participant);
+            taskId = build.taskId;
+        }
+
+        if (taskId != null) {
+            participant.buildStarted(build, taskId);
+        }
+
+        startQueuedBuilds();
+        return build;
+    }
+
+    /**
+     * Returns whether the given build is waiting for a build slot.
+     *
+     * @param build the {@link Build}.
+     * @return {@code true} if the build is queued, {@code false} otherwise.
+     * @throws NullPointerException if build parameter is {@code null}.
+     */
+    synchronized boolean isQueued(Build build) {
+        return queue.contains(checkNotNull(build));
+    }
+
+    /**
+     * Detaches the given participant from the given build. When the last participant leaves, the build is removed from the queue or, if
+     * in progress, is considered terminated.
+     *
+     * @param build the {@link Build}.
+     * @param participant the leaving {@link BuildParticipant}.
+     * @return {@code true} if the remote build is in progress and no participant remains, meaning that it must be cancelled,
+     *         {@code false} otherwise.
+     * @throws NullPointerException if build or participant parameter is {@code null}.
+     */
+    boolean leave(Build build, BuildParticipant participant) {
+        checkNotNull(build);
+        checkNotNull(participant);
+
+        final boolean cancel;
+        synchronized (this) {
+            if (!build.participants.remove(participant) || !build.participants.isEmpty() || build.done) {
+                return false;
+            }
+
+            cancel = build.taskId != null;
+            if (!cancel) {
+                queue.remove(build);
+            }
+            markDone(build);
+        }
+
+        startQueuedBuilds();
+        return cancel;
+    }
+
+    /**
+     * Signals that the given build is terminated, releasing its build slot. Calling this method several times has no effect.
+     *
+     * @param build the terminated {@link Build}.
+     * @throws NullPointerException if build parameter is {@code null}.
+     */
+    void terminated(Build build) {
+        checkNotNull(build);
+
+        synchronized (this) {
+            if (build.done) {
+                return;
+            }
+            markDone(build);
+        }
+
+        startQueuedBuilds();
+    }
+
+    private void markDone(Build build) {
+        build.done = true;
+        if (builds.get(build.key) == build) {
+            builds.remove(build.key);
+        }
+        if (build.taskId != null) {
+            runningBuilds--;
+        }
+    }
+
+    private void startQueuedBuilds() {
+        while (true) {
+            final Build build;
+            final BuildParticipant starter;
+            synchronized (this) {
+                if (runningBuilds >= maxConcurrentBuilds || queue.isEmpty()) {
+                    return;
+                }
+
+                build = queue.removeFirst();
+                starter = build.participants.get(0);
+                runningBuilds++;
+            }
+
+            try {
+
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        started(build, starter, starter.startBuild());
+                        startQueuedBuilds();
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+                started(build, null, null);
+            }
+        }
+    }
+
+    /**
+     * Records the start of the given build and notifies its participants.
+     *
+     * @param build the {@link Build}.
+     * @param starter the {@link BuildParticipant} which tried to start the build or {@code null} if none.
+     * @param taskId the builder task id or {@code null} if the build has not been started.
+     */
+    private void started(Build build, BuildParticipant starter, Long taskId) {
+        final List<BuildParticipant> participants;
+        synchronized (this) {
+            if (taskId == null) {
+                markDone(build);
+                runningBuilds--;
+            } else {
+                build.taskId = taskId;
+                if (build.participants.isEmpty()) {
+                    markDone(build);
+                }
+            }
+            participants = new ArrayList<>(build.participants);
+        }
+
+        if (taskId != null && participants.isEmpty()) {
+            starter.cancelBuild(taskId);
+            return;
+        }
+
+        for (BuildParticipant oneParticipant : participants) {
+            if (taskId != null) {
+                oneParticipant.buildStarted(build, taskId);
+            } else if (oneParticipant != starter) {
+                oneParticipant.buildNotStarted();
+            }
+        }
+    }
+}
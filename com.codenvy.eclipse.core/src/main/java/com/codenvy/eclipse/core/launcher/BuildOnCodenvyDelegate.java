@@ -12,6 +12,9 @@ package com.codenvy.eclipse.core.launcher;
 
 import static com.codenvy.eclipse.core.CodenvyPlugin.PLUGIN_ID;
 import static com.codenvy.eclipse.core.launcher.LaunchConstants.CODENVY_PROJECT_NAME_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.DEFAULT_POLLING_MAX_INTERVAL;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.LOG_STREAM_URL_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.POLLING_MAX_INTERVAL_ATTRIBUTE_NAME;
 import static com.codenvy.eclipse.core.team.CodenvyProvider.PROVIDER_ID;
 import static org.eclipse.core.runtime.IStatus.ERROR;
 import static org.eclipse.debug.core.ILaunchManager.RUN_MODE;
@@ -28,6 +31,9 @@ import org.eclipse.debug.core.model.ILaunchConfigurationDelegate;
 import org.eclipse.team.core.RepositoryProvider;
 
 import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.store.SecureStorageDataStoreFactory;
 import com.codenvy.eclipse.core.team.CodenvyProvider;
 
 /**
@@ -55,7 +61,22 @@ public final class BuildOnCodenvyDelegate implements ILaunchConfigurationDelegat
                 throw new CoreException(new Status(ERROR, PLUGIN_ID, "Project named " + projectName + " isn't a Codenvy project"));
             }
 
-            new CodenvyBuilderProcess(launch, codenvyProvider.getProjectMetadata());
+            final int maxPollingInterval = configuration.getAttribute(POLLING_MAX_INTERVAL_ATTRIBUTE_NAME, DEFAULT_POLLING_MAX_INTERVAL);
+            final String logStreamUrl = configuration.getAttribute(LOG_STREAM_URL_ATTRIBUTE_NAME, (String)null);
+
+            final CodenvyProjectMetadata projectMetadata = codenvyProvider.getProjectMetadata();
+
+            LogEventSource logEventSource = null;
+            if (logStreamUrl != null) {
+                logEventSource = new ChunkedHttpLogEventSource(logStreamUrl,
+                                                               SecureStorageDataStoreFactory.INSTANCE.getDataStore(projectMetadata.url),
+                                                               projectMetadata.username,
+                                                               CodenvyPlugin.getDefault().getLogStreamExecutorService());
+            }
+
+            final String syncRevision = CodenvyProjectSyncState.getRevision(project);
+
+            new CodenvyBuilderProcess(launch, projectMetadata, syncRevision, maxPollingInterval, logEventSource);
         }
     }
 }
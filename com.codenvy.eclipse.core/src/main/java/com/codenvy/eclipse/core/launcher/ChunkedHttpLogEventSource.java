@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.net.HttpURLConnection.HTTP_OK;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.codenvy.client.auth.Credentials;
+import com.codenvy.client.store.DataStore;
+import com.google.common.base.Charsets;
+
+/**
+ * {@link LogEventSource} reading the logs from an HTTP stream, typically a chunked response kept open by the server while the process
+ * is alive. The stream URL is built from a template where the {@value #PROCESS_ID_PLACEHOLDER} placeholder is replaced by the process
+ * id.
+ * <p>
+ * The connection is opened and its headers are read on the given {@link ExecutorService}, never on the thread opening the push channel.
+ * A server not answering with the stream is reported as a closed push channel and the process falls back to polling the logs.
+ * <p>
+ * The stream is requested with the token stored for the user, as the Codenvy client does. The server is expected to push something at
+ * least every {@value #READ_TIMEOUT} milliseconds while the process is alive, a stream silent for longer is considered lost and closed,
+ * handing the logs back to polling.
+ *
+ * @author Kevin Pollet
+ */
+public final class ChunkedHttpLogEventSource implements LogEventSource {
+    public static final String                   PROCESS_ID_PLACEHOLDER = "{id}";
+
+    /**
+     * Maximum time in milliseconds to wait for data on the stream, also acting as the heartbeat of the push channel.
+     */
+    static final int                             READ_TIMEOUT           = 30000;
+
+    private static final String                  TOKEN_PARAMETER_NAME   = "token";
+    private static final int                     CONNECT_TIMEOUT        = 5000;
+    private static final int                     BUFFER_SIZE            = 8192;
+
+    private final String                         urlTemplate;
+    private final DataStore<String, Credentials> credentialsStore;
+    private final String                         username;
+    private final ExecutorService                executorService;
+    private final int                            readTimeout;
+    private volatile HttpURLConnection           connection;
+    private volatile boolean                     closed;
+
+    /**
+     * Constructs an instance of {@link ChunkedHttpLogEventSource}.
+     *
+     * @param urlTemplate the log stream URL template.
+     * @param credentialsStore the {@link DataStore} of the Codenvy credentials.
+     * @param username the name of the user whose token is sent.
+     * @param executorService the {@link ExecutorService} used to read the log stream.
+     * @throws NullPointerException if urlTemplate, credentialsStore, username or executorService parameter is {@code null}.
+     */
+    public ChunkedHttpLogEventSource(String urlTemplate,
+                                     DataStore<String, Credentials> credentialsStore,
+                                     String username,
+                                     ExecutorService executorService) {
+        this(urlTemplate, credentialsStore, username, executorService, READ_TIMEOUT);
+    }
+
+    ChunkedHttpLogEventSource(String urlTemplate,
+                              DataStore<String, Credentials> credentialsStore,
+                              String username,
+                              ExecutorService executorService,
+                              int readTimeout) {
+        this.urlTemplate = checkNotNull(urlTemplate);
+        this.credentialsStore = checkNotNull(credentialsStore);
+        this.username = checkNotNull(username);
+        this.executorService = checkNotNull(executorService);
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public boolean open(long processId, final LogEventListener listener) {
+        checkNotNull(listener);
+
+        try {
+
+            final URL url = new URL(urlTemplate.replace(PROCESS_ID_PLACEHOLDER, String.valueOf(processId)));
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+
+                        stream(withToken(url), listener);
+
+                    } catch (IOException e) {
+                        // no push channel is available, the stream has been lost, silent for too long or closed
+                    } catch (RuntimeException e) {
+                        // HttpURLConnection may fail with an unchecked exception when disconnected while connecting
+                        if (!closed) {
+                            throw e;
+                        }
+                    } finally {
+                        listener.logsClosed();
+                    }
+                }
+            });
+
+            return true;
+
+        } catch (MalformedURLException | RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        final HttpURLConnection connection = this.connection;
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    private URL withToken(URL url) throws IOException {
+        final Credentials credentials = credentialsStore.get(username);
+        if (credentials == null || credentials.token() == null) {
+            // the server rejects the request and the logs are polled with the Codenvy client
+            return url;
+        }
+
+        final String separator = url.getQuery() == null ? "?" : "&";
+        return new URL(url.toString() + separator + TOKEN_PARAMETER_NAME + '='
+                       + URLEncoder.encode(credentials.token().value(), Charsets.UTF_8.name()));
+    }
+
+    private void stream(URL url, LogEventListener listener) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(readTimeout);
+        this.connection = connection;
+
+        // close() may have run before the connection was assigned
+        if (closed) {
+            return;
+        }
+
+        // a disconnect made by close() while connecting is lost, it is only effective once the connection is established
+        connection.connect();
+        if (closed) {
+            connection.disconnect();
+            return;
+        }
+
+        if (connection.getResponseCode() != HTTP_OK) {
+            connection.disconnect();
+            return;
+        }
+
+        try (Reader reader = new InputStreamReader(connection.getInputStream(), Charsets.UTF_8)) {
+
+            final char[] buffer = new char[BUFFER_SIZE];
+            int length;
+            while ((length = reader.read(buffer)) != -1) {
+                listener.logsAppended(new String(buffer, 0, length));
+            }
+        }
+    }
+}
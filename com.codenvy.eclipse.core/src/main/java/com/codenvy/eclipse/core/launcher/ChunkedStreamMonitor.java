@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IFlushableStreamMonitor;
+import org.eclipse.debug.core.model.IStreamMonitor;
+
+/**
+ * Implementation of an {@link IStreamMonitor} keeping the stream contents in fixed size chunks. Appending text never copies the
+ * already retained contents. When a retention cap is set, the oldest contents are dropped once the cap is exceeded and replaced by a
+ * marker in the returned contents. Once the console has flushed the contents and disabled buffering, nothing is retained anymore.
+ * <p>
+ * The listeners are notified asynchronously on the given {@link ScheduledExecutorService}: the texts appended during the dispatch
+ * delay are coalesced and delivered in a single {@link IStreamListener#streamAppended(String, IStreamMonitor)} call, so a slow
+ * listener never blocks the appending thread. A listener is only notified of the texts appended after its registration.
+ *
+ * @author Kevin Pollet
+ */
+final class ChunkedStreamMonitor implements IFlushableStreamMonitor {
+    public static final int                DEFAULT_MAX_RETAINED_LENGTH = 1024 * 1024;
+
+    private static final int               CHUNK_SIZE                  = 8192;
+    private static final int               DISPATCH_DELAY              = 16;
+    private static final TimeUnit          DISPATCH_TIME_UNIT          = MILLISECONDS;
+
+    private final int                      maxRetainedLength;
+    private final ScheduledExecutorService dispatcher;
+    private final Deque<StringBuilder>     chunks;
+    private final List<Registration>       listeners;
+    private final Object                   dispatchLock;
+    private final StringBuilder            pendingText;
+    private long                           pendingPosition;
+    private boolean                        dispatchScheduled;
+    private long                           length;
+    private long                           startPosition;
+    private int                            retainedLength;
+    private boolean                        buffered;
+
+    /**
+     * Constructs an instance of {@link ChunkedStreamMonitor} retaining at most {@value #DEFAULT_MAX_RETAINED_LENGTH} characters.
+     *
+     * @param dispatcher the {@link ScheduledExecutorService} used to notify the listeners.
+     * @throws NullPointerException if dispatcher parameter is {@code null}.
+     */
+    public ChunkedStreamMonitor(ScheduledExecutorService dispatcher) {
+        this(DEFAULT_MAX_RETAINED_LENGTH, dispatcher);
+    }
+
+    /**
+     * Constructs an instance of {@link ChunkedStreamMonitor}.
+     *
+     * @param maxRetainedLength the maximum number of retained characters or {@code 0} to retain all the contents.
+     * @param dispatcher the {@link ScheduledExecutorService} used to notify the listeners.
+     * @throws IllegalArgumentException if maxRetainedLength is negative.
+     * @throws NullPointerException if dispatcher parameter is {@code null}.
+     */
+    public ChunkedStreamMonitor(int maxRetainedLength, ScheduledExecutorService dispatcher) {
+        checkArgument(maxRetainedLength >= 0, "maxRetainedLength must be positive");
+
+        this.maxRetainedLength = maxRetainedLength;
+        this.dispatcher = checkNotNull(dispatcher);
+        this.chunks = new ArrayDeque<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.dispatchLock = new Object();
+        this.pendingText = new StringBuilder();
+        this.pendingPosition = 0;
+        this.dispatchScheduled = false;
+        this.length = 0;
+        this.startPosition = 0;
+        this.retainedLength = 0;
+        this.buffered = true;
+    }
+
+    @Override
+    public synchronized void addListener(IStreamListener listener) {
+        for (Registration oneRegistration : listeners) {
+            if (oneRegistration.listener.equals(listener)) {
+                return;
+            }
+        }
+        listeners.add(new Registration(listener, length));
+    }
+
+    @Override
+    public synchronized String getContents() {
+        return getContents(startPosition);
+    }
+
+    /**
+     * Returns the contents appended since the given position. If part of these contents has been dropped, the returned contents start
+     * with a marker followed by the retained contents.
+     *
+     * @param position the position, as returned by {@link #getLength()}.
+     * @return the contents appended since the given position, never {@code null}.
+     * @throws IllegalArgumentException if position is negative or greater than the stream length.
+     */
+    public synchronized String getContents(long position) {
+        checkArgument(position >= 0 && position <= length, "position must be between 0 and the stream length");
+
+        final long firstRetainedPosition = length - retainedLength;
+        final StringBuilder contents = new StringBuilder();
+
+        long skip = position - firstRetainedPosition;
+        if (skip < 0) {
+            contents.append("[... ").append(-skip).append(" characters dropped ...]\n");
+            skip = 0;
+        }
+
+        for (StringBuilder oneChunk : chunks) {
+            if (skip >= oneChunk.length()) {
+                skip -= oneChunk.length();
+            } else {
+                contents.append(oneChunk, (int)skip, oneChunk.length());
+                skip = 0;
+            }
+        }
+        return contents.toString();
+    }
+
+    /**
+     * Returns the number of characters appended to this stream since its creation, including the dropped and flushed ones. This value
+     * can be used as a cursor with {@link #getContents(long)}.
+     *
+     * @return the stream length.
+     */
+    public synchronized long getLength() {
+        return length;
+    }
+
+    @Override
+    public void removeListener(IStreamListener listener) {
+        for (Registration oneRegistration : listeners) {
+            if (oneRegistration.listener.equals(listener)) {
+                listeners.remove(oneRegistration);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flushContents() {
+        chunks.clear();
+        retainedLength = 0;
+        startPosition = length;
+    }
+
+    @Override
+    public synchronized void setBuffered(boolean buffer) {
+        buffered = buffer;
+    }
+
+    @Override
+    public synchronized boolean isBuffered() {
+        return buffered;
+    }
+
+    /**
+     * Appends the given text to this stream. The listeners are notified after the dispatch delay.
+     *
+     * @param text the text to append.
+     * @throws NullPointerException if text parameter is {@code null}.
+     */
+    public synchronized void append(String text) {
+        checkNotNull(text);
+
+        length += text.length();
+        if (buffered) {
+            retain(text);
+        } else {
+            startPosition = length;
+        }
+
+        pendingText.append(text);
+        if (!dispatchScheduled) {
+            dispatchScheduled = true;
+            scheduleDispatch();
+        }
+    }
+
+    /**
+     * Notifies the listeners of the pending appended texts without waiting for the dispatch delay. Called before the process
+     * termination is signaled, so that the console receives the whole output.
+     */
+    void dispatchPendingText() {
+        synchronized (dispatchLock) {
+            final String text;
+            final long position;
+            synchronized (this) {
+                text = pendingText.toString();
+                position = pendingPosition;
+                pendingText.setLength(0);
+                pendingPosition = length;
+                dispatchScheduled = false;
+            }
+
+            if (!text.isEmpty()) {
+                fireStreamAppend(text, position);
+            }
+        }
+    }
+
+    private void scheduleDispatch() {
+        try {
+
+            dispatcher.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    dispatchPendingText();
+                }
+            }, DISPATCH_DELAY, DISPATCH_TIME_UNIT);
+
+        } catch (RejectedExecutionException e) {
+            dispatchScheduled = false;
+        }
+    }
+
+    private void retain(String text) {
+        final StringBuilder lastChunk = chunks.peekLast();
+        if (lastChunk != null && lastChunk.length() + text.length() <= CHUNK_SIZE) {
+            lastChunk.append(text);
+        } else {
+            chunks.addLast(new StringBuilder(Math.max(CHUNK_SIZE, text.length())).append(text));
+        }
+        retainedLength += text.length();
+
+        if (maxRetainedLength > 0 && retainedLength > maxRetainedLength) {
+            while (retainedLength - chunks.peekFirst().length() >= maxRetainedLength) {
+                retainedLength -= chunks.removeFirst().length();
+            }
+
+            if (retainedLength > maxRetainedLength) {
+                chunks.peekFirst().delete(0, retainedLength - maxRetainedLength);
+                retainedLength = maxRetainedLength;
+            }
+        }
+    }
+
+    private void fireStreamAppend(String text, long position) {
+        for (Registration oneRegistration : listeners) {
+            final long skip = oneRegistration.position - position;
+            if (skip <= 0) {
+                oneRegistration.listener.streamAppended(text, this);
+            } else if (skip < text.length()) {
+                oneRegistration.listener.streamAppended(text.substring((int)skip), this);
+            }
+        }
+    }
+
+    /**
+     * A registered {@link IStreamListener} with the stream position at registration time.
+     */
+    private static final class Registration {
+        private final IStreamListener listener;
+        private final long            position;
+
+        private Registration(IStreamListener listener, long position) {
+            this.listener = listener;
+            this.position = position;
+        }
+    }
+}
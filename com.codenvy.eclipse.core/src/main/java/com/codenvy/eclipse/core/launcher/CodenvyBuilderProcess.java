@@ -20,10 +20,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.eclipse.core.runtime.IStatus.ERROR;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.Status;
@@ -44,6 +45,10 @@ import com.codenvy.client.model.Link;
 import com.codenvy.client.model.ProjectReference;
 import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.launcher.BuildCoordinator.Build;
+import com.codenvy.eclipse.core.launcher.BuildCoordinator.BuildParticipant;
+import com.google.common.base.Supplier;
 
 /**
  * The codenvy builder process.
@@ -58,10 +63,16 @@ public final class CodenvyBuilderProcess implements IProcess {
     private final Codenvy                   codenvy;
     private final ProjectReference          project;
     private final Map<String, String>       attributes;
-    private long                            taskId;
-    private final ScheduledExecutorService  executorService;
-    private final StringBufferStreamMonitor outputStream;
-    private final StringBufferStreamMonitor errorStream;
+    private volatile long                   taskId;
+    private final BuildCoordinator          buildCoordinator;
+    private final BuilderParticipant        participant;
+    private volatile Build                  build;
+    private final ScheduledTasks            scheduledTasks;
+    private final ChunkedStreamMonitor      outputStream;
+    private final ChunkedStreamMonitor      errorStream;
+    private final CodenvyBuilderThread      builderThread;
+    private final LogFollower               logFollower;
+    private final PollingPolicy             pollingPolicy;
     private int                             exitValue;
     private volatile BuilderState           status;
 
@@ -70,9 +81,14 @@ public final class CodenvyBuilderProcess implements IProcess {
      * 
      * @param launch the {@link ILaunch} object.
      * @param projectMetadata the {@link CodenvyProjectMetadata}.
+     * @param syncRevision the {@link CodenvyProjectSyncState} revision identifying the project sources or {@code null} if unknown, in
+     *            which case the build is never shared.
+     * @param maxPollingInterval the maximum interval in milliseconds between two polls of the builder status.
+     * @param logEventSource the {@link LogEventSource} pushing the builder logs or {@code null} to poll them.
      * @throws NullPointerException if launch or codenvyMetaProject parameter is {@code null}.
      */
-    public CodenvyBuilderProcess(ILaunch launch, CodenvyProjectMetadata projectMetadata) {
+    public CodenvyBuilderProcess(ILaunch launch, CodenvyProjectMetadata projectMetadata, String syncRevision,
+                                 long maxPollingInterval, LogEventSource logEventSource) {
         checkNotNull(projectMetadata);
 
         this.launch = checkNotNull(launch);
@@ -84,28 +100,38 @@ public final class CodenvyBuilderProcess implements IProcess {
                                     .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
                                     .build();
 
+        final ScheduledExecutorService scheduler = CodenvyPlugin.getDefault().getScheduledExecutorService();
+        final ScheduledExecutorService streamDispatcher = CodenvyPlugin.getDefault().getStreamDispatcher();
+
         this.attributes = new HashMap<>();
-        this.executorService = Executors.newScheduledThreadPool(4);
-        this.outputStream = new StringBufferStreamMonitor();
-        this.errorStream = new StringBufferStreamMonitor();
+        this.buildCoordinator = CodenvyPlugin.getDefault().getBuildCoordinator();
+        this.participant = new BuilderParticipant();
+        this.scheduledTasks = new ScheduledTasks(scheduler, CodenvyPlugin.getDefault().getExecutorService());
+        this.outputStream = new ChunkedStreamMonitor(streamDispatcher);
+        this.errorStream = new ChunkedStreamMonitor(streamDispatcher);
+        this.builderThread = new CodenvyBuilderThread();
+        this.logFollower = new LogFollower(logEventSource, outputStream, new Runnable() {
+            @Override
+            public void run() {
+                builderThread.pollNow();
+            }
+        });
+        this.pollingPolicy = new PollingPolicy(TICK_DELAY, Math.max(TICK_DELAY, maxPollingInterval));
         this.exitValue = 0;
 
         this.attributes.put(ATTR_PROCESS_TYPE, getClass().getName());
         launch.addProcess(this);
 
-        try {
-
-            final BuilderStatus builderStatus = codenvy.builder()
-                                                       .build(project)
-                                                       .execute();
-
-            this.taskId = builderStatus.taskId();
-            this.status = builderStatus.status();
-
-            executorService.scheduleAtFixedRate(new CodenvyBuilderThread(), 0, TICK_DELAY, TICK_TIME_UNIT);
+        // without a known revision the sources cannot be compared, the build is keyed by a unique object
+        Object buildKey = new Object();
+        if (syncRevision != null) {
+            buildKey = Arrays.asList(projectMetadata.url, projectMetadata.username, projectMetadata.workspaceId,
+                                     projectMetadata.projectName, syncRevision);
+        }
 
-        } catch (CodenvyErrorException e) {
-            terminateWithAnError(e);
+        this.build = buildCoordinator.join(buildKey, participant);
+        if (buildCoordinator.isQueued(build)) {
+            outputStream.append("Waiting for an available build slot...\n");
         }
     }
 
@@ -131,9 +157,12 @@ public final class CodenvyBuilderProcess implements IProcess {
     public void terminate() throws DebugException {
         try {
 
-            codenvy.builder()
-                   .cancel(project, taskId)
-                   .execute();
+            final Build build = this.build;
+            if (build != null && buildCoordinator.leave(build, participant)) {
+                codenvy.builder()
+                       .cancel(project, taskId)
+                       .execute();
+            }
 
             status = CANCELLED;
 
@@ -149,11 +178,19 @@ public final class CodenvyBuilderProcess implements IProcess {
         exitValue = exception.getStatus();
         status = FAILED;
 
+        final Build build = this.build;
+        if (build != null) {
+            buildCoordinator.leave(build, participant);
+        }
+
         stopProcess();
     }
 
     private void stopProcess() {
-        executorService.shutdownNow();
+        scheduledTasks.cancelAll();
+        logFollower.close();
+        outputStream.dispatchPendingText();
+        errorStream.dispatchPendingText();
         fireDebugEvent(DebugEvent.TERMINATE);
     }
 
@@ -215,11 +252,13 @@ public final class CodenvyBuilderProcess implements IProcess {
     }
 
     /**
-     * {@link Runnable} polling the builder status and logs.
+     * {@link Runnable} polling the builder status and logs. The next poll is scheduled according to the {@link PollingPolicy}.
      * 
      * @author Kevin Pollet
      */
     class CodenvyBuilderThread implements Runnable {
+        private ScheduledFuture<?> nextPoll;
+
         @Override
         public void run() {
             try {
@@ -229,6 +268,7 @@ public final class CodenvyBuilderProcess implements IProcess {
                                                            .execute();
 
                 final Link downloadLink = builderStatus.getDownloadLink();
+                final BuilderState previousStatus = status;
                 boolean isLogsAppended = false;
 
                 status = builderStatus.status();
@@ -242,32 +282,127 @@ public final class CodenvyBuilderProcess implements IProcess {
                         outputStream.append("\n\nLink to download build result: " + downloadLink.href() + "\n");
                     }
 
+                    buildCoordinator.terminated(build);
+
                     stopProcess();
+                    return;
                 }
 
+                schedule(pollingPolicy.nextDelay(isLogsAppended || status != previousStatus));
+
             } catch (CodenvyErrorException e) {
                 terminateWithAnError(e);
             }
         }
 
         /**
-         * Appends builder logs to output stream.
+         * Schedules this {@link Runnable} after the given delay, unless the process has been stopped in the meantime.
          * 
-         * @return {@code true} if logs have been appended, {@code false} otherwise.
+         * @param delay the delay in milliseconds.
          */
-        private boolean appendLogsToOutputStream() {
-            final String fullLogs = codenvy.builder()
-                                           .logs(project, taskId)
-                                           .execute()
-                                           .trim();
+        synchronized void schedule(long delay) {
+            nextPoll = scheduledTasks.schedule(this, delay, TICK_TIME_UNIT);
+        }
 
-            final String logsDiff = fullLogs.substring(outputStream.getContents().length());
+        /**
+         * Polls as soon as possible instead of waiting for the scheduled poll. Nothing is done if the poll is already running.
+         */
+        synchronized void pollNow() {
+            if (nextPoll != null && nextPoll.cancel(false)) {
+                schedule(0);
+            }
+        }
 
-            if (!logsDiff.isEmpty()) {
-                outputStream.append(logsDiff);
+        /**
+         * Appends the builder logs added since the last call to output stream. While the build is in progress only the complete lines
+         * are appended, the last line is appended once the build is terminated. The logs pushed by the server are appended as soon as
+         * they are received and are not polled.
+         * 
+         * @return {@code true} if polled logs have been appended, {@code false} otherwise.
+         */
+        private boolean appendLogsToOutputStream() {
+            final String newLogs = logFollower.follow(taskId, isTerminated(), new Supplier<String>() {
+                @Override
+                public String get() {
+                    return codenvy.builder()
+                                  .logs(project, taskId)
+                                  .execute();
+                }
+            });
+
+            if (!newLogs.isEmpty()) {
+                outputStream.append(newLogs);
                 return true;
             }
             return false;
         }
     }
+
+    /**
+     * {@link BuildParticipant} of this process in the {@link BuildCoordinator}.
+     * 
+     * @author Kevin Pollet
+     */
+    private class BuilderParticipant implements BuildParticipant {
+        private volatile boolean starter = false;
+
+        @Override
+        public Long startBuild() {
+            starter = true;
+
+            try {
+
+                final BuilderStatus builderStatus = codenvy.builder()
+                                                           .build(project)
+                                                           .execute();
+
+                return builderStatus.taskId();
+
+            } catch (CodenvyErrorException e) {
+                terminateWithAnError(e);
+                return null;
+            }
+        }
+
+        @Override
+        public void buildStarted(Build startedBuild, long startedTaskId) {
+            build = startedBuild;
+            taskId = startedTaskId;
+
+            if (isTerminated()) {
+                // terminated while the build was starting
+                if (buildCoordinator.leave(startedBuild, this)) {
+                    cancelBuild(startedTaskId);
+                }
+                return;
+            }
+
+            if (!starter) {
+                outputStream.append("Following the build of this project already in progress\n");
+            }
+            builderThread.schedule(0);
+        }
+
+        @Override
+        public void buildNotStarted() {
+            errorStream.append("Error: The build of this project cannot be started");
+            exitValue = 1;
+            status = FAILED;
+
+            stopProcess();
+        }
+
+        @Override
+        public void cancelBuild(long startedTaskId) {
+            try {
+
+                codenvy.builder()
+                       .cancel(project, startedTaskId)
+                       .execute();
+
+            } catch (CodenvyErrorException e) {
+                // the build is not followed anymore
+            }
+        }
+    }
 }
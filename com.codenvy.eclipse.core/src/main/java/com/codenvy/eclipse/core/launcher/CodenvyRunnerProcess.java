@@ -18,17 +18,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.eclipse.core.runtime.IStatus.ERROR;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.runtime.Status;
@@ -50,6 +46,7 @@ import com.codenvy.client.model.RunnerStatus;
 import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.CodenvyProjectMetadata;
 import com.codenvy.eclipse.core.launcher.CodenvyRunnerProcess.WebApplicationListener.WebApplicationEvent;
+import com.google.common.base.Supplier;
 
 /**
  * The codenvy runner process.
@@ -57,10 +54,8 @@ import com.codenvy.eclipse.core.launcher.CodenvyRunnerProcess.WebApplicationList
  * @author Kevin Pollet
  */
 public final class CodenvyRunnerProcess implements IProcess {
-    private static final int                  STATUS_CHECKER_INTERVAL        = 500;
-    private static final TimeUnit             STATUS_CHECKER_TIME_UNIT       = MILLISECONDS;
-    private static final int                  URL_CHECKER_INTERVAL           = 1000;
-    private static final int                  URL_CHECKER_NUMBER_OF_ATTEMPTS = 30;
+    private static final int                  STATUS_CHECKER_INTERVAL  = 500;
+    private static final TimeUnit             STATUS_CHECKER_TIME_UNIT = MILLISECONDS;
 
     private final ILaunch                     launch;
     private final Codenvy                     codenvy;
@@ -69,9 +64,13 @@ public final class CodenvyRunnerProcess implements IProcess {
     private volatile RunnerState              status;
     private final Object                      statusLock;
     private long                              processId;
-    private final ScheduledExecutorService    executorService;
-    private final StringBufferStreamMonitor   outputStream;
-    private final StringBufferStreamMonitor   errorStream;
+    private final ScheduledTasks              scheduledTasks;
+    private final ChunkedStreamMonitor        outputStream;
+    private final ChunkedStreamMonitor        errorStream;
+    private final PollingPolicy               pollingPolicy;
+    private final RunnerStatusChecker         statusChecker;
+    private final LogFollower                 logFollower;
+    private final ReadinessStrategy           readinessStrategy;
     private int                               exitValue;
     private final Set<WebApplicationListener> listeners;
     private volatile boolean                  webApplicationStarted;
@@ -82,11 +81,17 @@ public final class CodenvyRunnerProcess implements IProcess {
      *
      * @param launch the {@link ILaunch} object.
      * @param projectMetadata the {@link CodenvyProjectMetadata}.
-     * @throws NullPointerException if launch or codenvyMetaProject parameter is {@code null}.
+     * @param maxPollingInterval the maximum interval in milliseconds between two polls of the runner status.
+     * @param logEventSource the {@link LogEventSource} pushing the runner logs or {@code null} to poll them.
+     * @param readinessStrategy the {@link ReadinessStrategy} used to detect when the web application is ready.
+     * @throws NullPointerException if launch, codenvyMetaProject or readinessStrategy parameter is {@code null}.
      */
-    public CodenvyRunnerProcess(ILaunch launch, CodenvyProjectMetadata projectMetadata) {
+    public CodenvyRunnerProcess(ILaunch launch, CodenvyProjectMetadata projectMetadata, long maxPollingInterval,
+                                LogEventSource logEventSource, ReadinessStrategy readinessStrategy) {
         checkNotNull(projectMetadata);
 
+        this.readinessStrategy = checkNotNull(readinessStrategy);
+
         this.launch = checkNotNull(launch);
         this.project = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
                                  .withWorkspaceId(projectMetadata.workspaceId)
@@ -96,10 +101,21 @@ public final class CodenvyRunnerProcess implements IProcess {
                                     .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
                                     .build();
 
+        final ScheduledExecutorService scheduler = CodenvyPlugin.getDefault().getScheduledExecutorService();
+        final ScheduledExecutorService streamDispatcher = CodenvyPlugin.getDefault().getStreamDispatcher();
+
         this.attributes = new HashMap<>();
-        this.executorService = Executors.newScheduledThreadPool(4);
-        this.outputStream = new StringBufferStreamMonitor();
-        this.errorStream = new StringBufferStreamMonitor();
+        this.scheduledTasks = new ScheduledTasks(scheduler, CodenvyPlugin.getDefault().getExecutorService());
+        this.outputStream = new ChunkedStreamMonitor(streamDispatcher);
+        this.errorStream = new ChunkedStreamMonitor(streamDispatcher);
+        this.pollingPolicy = new PollingPolicy(STATUS_CHECKER_INTERVAL, Math.max(STATUS_CHECKER_INTERVAL, maxPollingInterval));
+        this.statusChecker = new RunnerStatusChecker();
+        this.logFollower = new LogFollower(logEventSource, outputStream, new Runnable() {
+            @Override
+            public void run() {
+                statusChecker.pollNow();
+            }
+        });
         this.exitValue = 0;
         this.listeners = new HashSet<>();
         this.webApplicationStarted = false;
@@ -118,7 +134,7 @@ public final class CodenvyRunnerProcess implements IProcess {
             this.processId = runnerStatus.processId();
             this.status = runnerStatus.status();
 
-            executorService.scheduleAtFixedRate(new RunnerStatusChecker(), 0, STATUS_CHECKER_INTERVAL, STATUS_CHECKER_TIME_UNIT);
+            statusChecker.schedule(0);
 
         } catch (CodenvyErrorException e) {
             terminateWithAnError(e);
@@ -175,7 +191,10 @@ public final class CodenvyRunnerProcess implements IProcess {
     }
 
     private void stopProcess() {
-        executorService.shutdownNow();
+        scheduledTasks.cancelAll();
+        logFollower.close();
+        outputStream.dispatchPendingText();
+        errorStream.dispatchPendingText();
         fireDebugEvent(DebugEvent.TERMINATE);
 
         synchronized (webApplicationStartedLock) {
@@ -273,18 +292,29 @@ public final class CodenvyRunnerProcess implements IProcess {
         }
     }
 
+    private void probeWebApplication(Link webApplicationLink) {
+        final ReadinessProber prober = new ReadinessProber(webApplicationLink.href(), readinessStrategy, scheduledTasks,
+                                                           new WebApplicationReadinessListener(webApplicationLink));
+
+        outputStream.append("Probing web application readiness at " + prober.getURL() + "\n");
+        prober.start();
+    }
+
     private void fireDebugEvent(int kind) {
         DebugPlugin.getDefault().fireDebugEventSet(new DebugEvent[]{new DebugEvent(this, kind)});
     }
 
     /**
-     * {@link Runnable} polling the runner status and logs.
+     * {@link Runnable} polling the runner status and logs. The next poll is scheduled according to the {@link PollingPolicy}.
      *
      * @author Kevin Pollet
      */
     private class RunnerStatusChecker implements Runnable {
         private static final String WAITING_FOR_RUNNER_MESSAGE = "Waiting for available runner";
 
+        private boolean             waitingForRunner           = false;
+        private ScheduledFuture<?>  nextPoll;
+
         @Override
         public void run() {
             try {
@@ -296,117 +326,121 @@ public final class CodenvyRunnerProcess implements IProcess {
                 final Link webApplicationURL = runnerStatus.getWebLink();
                 synchronized (webApplicationStartedLock) {
                     if (webApplicationURL != null && !webApplicationStarted) {
-                        new WebApplicationURLChecker(URL_CHECKER_INTERVAL, URL_CHECKER_NUMBER_OF_ATTEMPTS, webApplicationURL).start();
+                        probeWebApplication(webApplicationURL);
                         webApplicationStarted = true;
                     }
                 }
 
+                final boolean changed;
                 synchronized (statusLock) {
+                    final RunnerState previousStatus = status;
                     status = runnerStatus.status();
 
                     switch (status) {
                         case NEW: {
-                            final String waitingString = outputStream.getContents().isEmpty() ? WAITING_FOR_RUNNER_MESSAGE : ".";
-                            outputStream.append(waitingString);
+                            outputStream.append(waitingForRunner ? "." : WAITING_FOR_RUNNER_MESSAGE);
+                            waitingForRunner = true;
+                            changed = status != previousStatus;
                         }
                             break;
 
                         case RUNNING: {
-                            appendRunnerLogs();
+                            changed = appendRunnerLogs(false) || status != previousStatus;
                         }
                             break;
 
                         default: {
-                            appendRunnerLogs();
+                            appendRunnerLogs(true);
                             stopProcess();
+                            return;
                         }
                     }
                 }
 
+                schedule(pollingPolicy.nextDelay(changed));
+
             } catch (CodenvyErrorException e) {
                 terminateWithAnError(e);
-
-            } catch (IOException e) {
-                // ignore we read a string
             }
         }
 
-        private void appendRunnerLogs() throws IOException {
-            final String outputStreamContent = outputStream.getContents();
+        /**
+         * Schedules this {@link Runnable} after the given delay, unless the process has been stopped in the meantime.
+         *
+         * @param delay the delay in milliseconds.
+         */
+        synchronized void schedule(long delay) {
+            nextPoll = scheduledTasks.schedule(this, delay, STATUS_CHECKER_TIME_UNIT);
+        }
 
-            if (outputStreamContent.matches("^" + WAITING_FOR_RUNNER_MESSAGE + "[.]*$")) {
-                outputStream.append("\n");
+        /**
+         * Polls as soon as possible instead of waiting for the scheduled poll. Nothing is done if the poll is already running.
+         */
+        synchronized void pollNow() {
+            if (nextPoll != null && nextPoll.cancel(false)) {
+                schedule(0);
             }
+        }
 
-            final String logs = codenvy.runner()
-                                       .logs(project, processId)
-                                       .execute()
-                                       .trim();
-
-            final BufferedReader logsReader = new BufferedReader(new StringReader(logs));
+        /**
+         * Appends the runner log lines added since the last call to output stream. Repeated lines are appended as many times as they
+         * are logged. The logs pushed by the server are appended as soon as they are received and are not polled.
+         *
+         * @param terminated {@code true} if the runner is terminated and the last line must be appended, {@code false} otherwise.
+         * @return {@code true} if polled logs have been appended, {@code false} otherwise.
+         */
+        private boolean appendRunnerLogs(boolean terminated) {
+            if (waitingForRunner) {
+                outputStream.append("\n");
+                waitingForRunner = false;
+            }
 
-            String line;
-            while ((line = logsReader.readLine()) != null) {
-                if (!outputStreamContent.contains(line)) {
-                    outputStream.append(line + "\n");
+            final String newLogs = logFollower.follow(processId, terminated, new Supplier<String>() {
+                @Override
+                public String get() {
+                    return codenvy.runner()
+                                  .logs(project, processId)
+                                  .execute();
                 }
+            });
+            if (!newLogs.isEmpty()) {
+                outputStream.append(newLogs.endsWith("\n") ? newLogs : newLogs + "\n");
+                return true;
             }
+            return false;
         }
     }
 
     /**
-     * Thread checking when the web application is started.
+     * {@link ReadinessProber.ReadinessListener} reporting the probing timings to the console and notifying the
+     * {@link WebApplicationListener} once the web application is ready.
      *
      * @author Kevin Pollet
      */
-    private class WebApplicationURLChecker extends Thread {
-        private final long interval;
-        private long       numberOfAttemps;
-        private final Link webApplicationURL;
+    private class WebApplicationReadinessListener implements ReadinessProber.ReadinessListener {
+        private final Link webApplicationLink;
 
         /**
-         * Constructs an instance of {@link WebApplicationURLChecker}.
+         * Constructs an instance of {@link WebApplicationReadinessListener}.
          *
-         * @param interval the checking interval.
-         * @param numberOfAttempts the number of attempts.
-         * @param webApplicationURL the web application {@link Link} to check.
-         * @throws NullPointerException if webApplicationURL parameter is {@code null}.
+         * @param webApplicationLink the web application {@link Link}.
+         * @throws NullPointerException if webApplicationLink parameter is {@code null}.
          */
-        public WebApplicationURLChecker(long interval, long numberOfAttempts, Link webApplicationURL) {
-            this.interval = interval;
-            this.numberOfAttemps = numberOfAttempts;
-            this.webApplicationURL = checkNotNull(webApplicationURL);
+        WebApplicationReadinessListener(Link webApplicationLink) {
+            this.webApplicationLink = checkNotNull(webApplicationLink);
         }
 
         @Override
-        public void run() {
-            for (int i = 0; i < numberOfAttemps && !Thread.interrupted() && !isTerminated(); i++) {
-                try {
-
-                    final URL url = new URL(webApplicationURL.href());
-                    final HttpURLConnection connection = (HttpURLConnection)url.openConnection();
-
-                    connection.setRequestMethod("HEAD");
-                    connection.setConnectTimeout(1000);
-                    connection.setReadTimeout(1000);
-
-                    try {
-
-                        Thread.sleep(interval);
-
-                    } catch (InterruptedException e) {
-                        return;
-                    }
-
-                    if (connection.getResponseCode() == 200) {
-                        fireWebApplicationStartedEvent(webApplicationURL);
-                        return;
-                    }
+        public void ready(int attempts, long elapsedTime) {
+            outputStream.append(String.format("Web application ready in %.1f s (%d probes)\n", elapsedTime / 1000d, attempts));
+            fireWebApplicationStartedEvent(webApplicationLink);
+        }
 
-                } catch (IOException e) {
-                    // ignore the exception
-                }
-            }
+        @Override
+        public void notReady(int attempts, long elapsedTime, int lastStatusCode) {
+            final String lastStatus = lastStatusCode == -1 ? "unreachable" : String.valueOf(lastStatusCode);
+            errorStream.append(String.format("Web application not ready after %.1f s (%d probes, last status: %s)\n",
+                                             elapsedTime / 1000d, attempts, lastStatus));
         }
     }
 
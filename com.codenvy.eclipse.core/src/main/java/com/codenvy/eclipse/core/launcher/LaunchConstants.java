@@ -22,6 +22,14 @@ public final class LaunchConstants {
     public static final String RUNNER_LAUNCH_CONFIGURATION_NAME_PREFIX  = "Run_";
     public static final String BUILDER_LAUNCH_DELEGATE_ID               = "com.codenvy.eclipse.core.launcher.buildLaunchDelegate";
     public static final String BUILDER_LAUNCH_CONFIGURATION_NAME_PREFIX = "Build_";
+    public static final String POLLING_MAX_INTERVAL_ATTRIBUTE_NAME      = "codenvy.polling.maxInterval";
+    public static final int    DEFAULT_POLLING_MAX_INTERVAL             = 10000;
+    public static final String LOG_STREAM_URL_ATTRIBUTE_NAME            = "codenvy.logs.streamUrl";
+    public static final String READINESS_PATH_ATTRIBUTE_NAME            = "codenvy.readiness.path";
+    public static final String READINESS_STATUS_CODES_ATTRIBUTE_NAME    = "codenvy.readiness.statusCodes";
+    public static final String READINESS_MAX_INTERVAL_ATTRIBUTE_NAME    = "codenvy.readiness.maxInterval";
+    public static final String READINESS_DEADLINE_ATTRIBUTE_NAME        = "codenvy.readiness.deadline";
+    public static final String ARTIFACT_PROJECT_FOLDER_ATTRIBUTE_NAME   = "codenvy.artifact.projectFolder";
 
     /**
      * Disable instantiation.
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+/**
+ * Source of the logs pushed by the server for a builder or runner process. When no push channel can be opened the process falls back
+ * to polling the logs.
+ *
+ * @author Kevin Pollet
+ */
+public interface LogEventSource {
+    /**
+     * Opens the push channel of the given process logs. The logs are then delivered asynchronously to the given listener until the
+     * channel is closed. This method must not block, a channel failing to open once the request has been sent is reported with
+     * {@link LogEventListener#logsClosed()}.
+     *
+     * @param processId the builder task or runner process id.
+     * @param listener the {@link LogEventListener} notified of the pushed logs.
+     * @return {@code true} if the push channel is being opened, {@code false} if no push channel is available.
+     * @throws NullPointerException if listener parameter is {@code null}.
+     */
+    boolean open(long processId, LogEventListener listener);
+
+    /**
+     * Closes the push channel, if opened.
+     */
+    void close();
+
+    /**
+     * The {@link LogEventListener} interface.
+     *
+     * @author Kevin Pollet
+     */
+    public static interface LogEventListener {
+        /**
+         * Called when logs are pushed by the server.
+         *
+         * @param logs the pushed logs, never {@code null}.
+         */
+        void logsAppended(String logs);
+
+        /**
+         * Called once when the push channel is closed, either because all the logs have been pushed or because the channel has been
+         * lost.
+         */
+        void logsClosed();
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.codenvy.eclipse.core.launcher.LogEventSource.LogEventListener;
+import com.google.common.base.Supplier;
+
+/**
+ * Follows the logs of a builder or runner process. The logs are pushed to the output stream through the {@link LogEventSource} when a
+ * push channel is available, otherwise or once the push channel is closed they are polled and tailed with a {@link LogTailer}.
+ *
+ * @author Kevin Pollet
+ */
+final class LogFollower implements LogEventListener {
+    private enum State {
+        NOT_OPENED, STREAMING, STREAM_CLOSED, POLLING
+    }
+
+    private final LogEventSource            logEventSource;
+    private final ChunkedStreamMonitor      outputStream;
+    private final Runnable                  streamClosedCallback;
+    private final LogTailer                 logTailer;
+    private State                           state;
+    private int                             streamedLength;
+
+    /**
+     * Constructs an instance of {@link LogFollower}.
+     *
+     * @param logEventSource the {@link LogEventSource} or {@code null} to only poll the logs.
+     * @param outputStream the output stream where the pushed logs are appended.
+     * @param streamClosedCallback the callback run when the push channel is closed by the server.
+     * @throws NullPointerException if outputStream or streamClosedCallback parameter is {@code null}.
+     */
+    LogFollower(LogEventSource logEventSource, ChunkedStreamMonitor outputStream, Runnable streamClosedCallback) {
+        this.logEventSource = logEventSource;
+        this.outputStream = checkNotNull(outputStream);
+        this.streamClosedCallback = checkNotNull(streamClosedCallback);
+        this.logTailer = new LogTailer();
+        this.state = logEventSource == null ? State.POLLING : State.NOT_OPENED;
+        this.streamedLength = 0;
+    }
+
+    /**
+     * Returns the logs added since the previous call which have not been pushed. The push channel is opened on the first call made
+     * while the process is alive. While the logs are pushed nothing is polled, once the push channel is closed the logs are polled
+     * from where the push channel stopped.
+     *
+     * @param processId the builder task or runner process id.
+     * @param terminated {@code true} if the process is terminated and the last line must be returned, {@code false} otherwise.
+     * @param logs the {@link Supplier} polling the whole log.
+     * @return the logs to append or an empty {@link String} if none, never {@code null}.
+     * @throws NullPointerException if logs parameter is {@code null}.
+     */
+    String follow(long processId, boolean terminated, Supplier<String> logs) {
+        checkNotNull(logs);
+
+        synchronized (this) {
+            if (state == State.NOT_OPENED) {
+                state = terminated ? State.POLLING : State.STREAMING;
+                if (state == State.STREAMING && !logEventSource.open(processId, this)) {
+                    state = State.POLLING;
+                }
+            }
+
+            if (state == State.STREAMING && !terminated) {
+                return "";
+            }
+
+            if (state == State.STREAMING || state == State.STREAM_CLOSED) {
+                close();
+                logTailer.advance(streamedLength);
+            }
+        }
+
+        final String remoteLogs = logs.get();
+        return terminated ? logTailer.flush(remoteLogs) : logTailer.tail(remoteLogs);
+    }
+
+    /**
+     * Closes the push channel, if opened. The logs pushed afterwards are ignored.
+     */
+    synchronized void close() {
+        if (state == State.STREAMING) {
+            logEventSource.close();
+        }
+        state = State.POLLING;
+    }
+
+    @Override
+    public synchronized void logsAppended(String logs) {
+        if (state == State.STREAMING) {
+            outputStream.append(logs);
+            streamedLength += logs.length();
+        }
+    }
+
+    @Override
+    public void logsClosed() {
+        synchronized (this) {
+            if (state != State.STREAMING) {
+                return;
+            }
+            state = State.STREAM_CLOSED;
+        }
+
+        streamClosedCallback.run();
+    }
+}
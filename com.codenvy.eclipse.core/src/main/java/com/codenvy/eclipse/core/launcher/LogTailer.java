@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Tails a remote log fetched as a whole at each poll. The tailer keeps a cursor on the log characters already consumed, each poll only
+ * returns the complete lines added since the previous poll. The last line is held back until it is terminated by a line separator or
+ * until the log is flushed.
+ *
+ * @author Kevin Pollet
+ */
+final class LogTailer {
+    private int offset;
+
+    LogTailer() {
+        this.offset = 0;
+    }
+
+    /**
+     * Returns the complete lines of the given log added since the previous call, including their line separator. If the given log is
+     * shorter than the already consumed part, the log is considered unchanged.
+     *
+     * @param logs the whole log.
+     * @return the new complete lines or an empty {@link String} if none, never {@code null}.
+     * @throws NullPointerException if logs parameter is {@code null}.
+     */
+    String tail(String logs) {
+        checkNotNull(logs);
+
+        final int lastLineEnd = logs.lastIndexOf('\n') + 1;
+        if (lastLineEnd <= offset) {
+            return "";
+        }
+
+        final String newLines = logs.substring(offset, lastLineEnd);
+        offset = lastLineEnd;
+        return newLines;
+    }
+
+    /**
+     * Marks the given number of log characters as consumed, used when these characters have been obtained by other means.
+     *
+     * @param length the number of consumed characters.
+     * @throws IllegalArgumentException if length is negative.
+     */
+    void advance(int length) {
+        checkArgument(length >= 0, "length must be positive");
+
+        offset += length;
+    }
+
+    /**
+     * Returns the part of the given log added since the previous call, including the last line even if it is not terminated by a line
+     * separator. Used when the log is complete.
+     *
+     * @param logs the whole log.
+     * @return the new part of the log or an empty {@link String} if none, never {@code null}.
+     * @throws NullPointerException if logs parameter is {@code null}.
+     */
+    String flush(String logs) {
+        checkNotNull(logs);
+
+        if (logs.length() <= offset) {
+            return "";
+        }
+
+        final String newPart = logs.substring(offset);
+        offset = logs.length();
+        return newPart;
+    }
+}
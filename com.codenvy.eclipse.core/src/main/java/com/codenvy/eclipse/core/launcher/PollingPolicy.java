@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Adaptive polling policy. The polling delay starts at the minimum delay, is doubled each time a poll observes no change and is reset
+ * to the minimum delay as soon as a poll observes a change. The delay never exceeds the maximum delay.
+ *
+ * @author Kevin Pollet
+ */
+final class PollingPolicy {
+    private final long minDelay;
+    private final long maxDelay;
+    private long       delay;
+
+    /**
+     * Constructs an instance of {@link PollingPolicy}.
+     *
+     * @param minDelay the minimum delay between two polls in milliseconds.
+     * @param maxDelay the maximum delay between two polls in milliseconds.
+     * @throws IllegalArgumentException if minDelay is not strictly positive or if maxDelay is lower than minDelay.
+     */
+    PollingPolicy(long minDelay, long maxDelay) {
+        checkArgument(minDelay > 0, "minDelay must be strictly positive");
+        checkArgument(maxDelay >= minDelay, "maxDelay must be greater than or equal to minDelay");
+
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.delay = minDelay;
+    }
+
+    /**
+     * Returns the delay before the next poll.
+     *
+     * @param changed {@code true} if the last poll observed a change, {@code false} otherwise.
+     * @return the delay before the next poll in milliseconds.
+     */
+    long nextDelay(boolean changed) {
+        delay = changed ? minDelay : Math.min(delay * 2, maxDelay);
+        return delay;
+    }
+}
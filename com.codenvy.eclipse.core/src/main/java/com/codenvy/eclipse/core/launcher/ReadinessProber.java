@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * {@link Runnable} probing a web application until it answers with one of the status codes accepted by the {@link ReadinessStrategy}
+ * or until the deadline is reached. The first probe is sent immediately and the next ones are scheduled with an exponential back-off.
+ *
+ * @author Kevin Pollet
+ */
+final class ReadinessProber implements Runnable {
+    private static final int        PROBE_TIMEOUT = 1000;
+
+    private final String            url;
+    private final ReadinessStrategy strategy;
+    private final ScheduledTasks    scheduledTasks;
+    private final ReadinessListener listener;
+    private final PollingPolicy     pollingPolicy;
+    private long                    startTime;
+    private int                     attempts;
+
+    /**
+     * Constructs an instance of {@link ReadinessProber}.
+     *
+     * @param webApplicationURL the web application URL.
+     * @param strategy the {@link ReadinessStrategy}.
+     * @param scheduledTasks the {@link ScheduledTasks} used to schedule the probes.
+     * @param listener the {@link ReadinessListener} notified of the probing result.
+     * @throws NullPointerException if webApplicationURL, strategy, scheduledTasks or listener parameter is {@code null}.
+     */
+    ReadinessProber(String webApplicationURL, ReadinessStrategy strategy, ScheduledTasks scheduledTasks, ReadinessListener listener) {
+        this.strategy = checkNotNull(strategy);
+        this.url = resolve(checkNotNull(webApplicationURL), strategy.path);
+        this.scheduledTasks = checkNotNull(scheduledTasks);
+        this.listener = checkNotNull(listener);
+        this.pollingPolicy = new PollingPolicy(strategy.minInterval, strategy.maxInterval);
+    }
+
+    /**
+     * Sends the first probe as soon as possible.
+     */
+    void start() {
+        startTime = System.nanoTime();
+        scheduledTasks.schedule(this, 0, MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        attempts++;
+
+        final int statusCode = probe();
+        final long elapsedTime = MILLISECONDS.convert(System.nanoTime() - startTime, NANOSECONDS);
+
+        if (strategy.acceptedStatusCodes.contains(statusCode)) {
+            listener.ready(attempts, elapsedTime);
+            return;
+        }
+
+        final long delay = pollingPolicy.nextDelay(false);
+        if (elapsedTime + delay > strategy.deadline) {
+            listener.notReady(attempts, elapsedTime, statusCode);
+            return;
+        }
+
+        scheduledTasks.schedule(this, delay, MILLISECONDS);
+    }
+
+    private int probe() {
+        try {
+
+            final HttpURLConnection connection = (HttpURLConnection)new URL(url).openConnection();
+            try {
+
+                connection.setRequestMethod("HEAD");
+                connection.setConnectTimeout(PROBE_TIMEOUT);
+                connection.setReadTimeout(PROBE_TIMEOUT);
+
+                return connection.getResponseCode();
+
+            } finally {
+                connection.disconnect();
+            }
+
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String resolve(String webApplicationURL, String path) {
+        if (path.isEmpty()) {
+            return webApplicationURL;
+        }
+        if (webApplicationURL.endsWith("/") && path.startsWith("/")) {
+            return webApplicationURL + path.substring(1);
+        }
+        if (!webApplicationURL.endsWith("/") && !path.startsWith("/")) {
+            return webApplicationURL + "/" + path;
+        }
+        return webApplicationURL + path;
+    }
+
+    /**
+     * Returns the URL probed by this {@link ReadinessProber}.
+     *
+     * @return the probed URL, never {@code null}.
+     */
+    String getURL() {
+        return url;
+    }
+
+    /**
+     * Listener notified once the web application is ready or once the deadline is reached.
+     *
+     * @author Kevin Pollet
+     */
+    interface ReadinessListener {
+        /**
+         * Called when the web application answered with an accepted status code.
+         *
+         * @param attempts the number of probes sent.
+         * @param elapsedTime the time in milliseconds elapsed since the first probe.
+         */
+        void ready(int attempts, long elapsedTime);
+
+        /**
+         * Called when the deadline is reached before the web application answered with an accepted status code.
+         *
+         * @param attempts the number of probes sent.
+         * @param elapsedTime the time in milliseconds elapsed since the first probe.
+         * @param lastStatusCode the status code of the last probe or {@code -1} if the web application was not reachable.
+         */
+        void notReady(int attempts, long elapsedTime, int lastStatusCode);
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.codenvy.eclipse.core.CodenvyPlugin.PLUGIN_ID;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_DEADLINE_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_MAX_INTERVAL_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_PATH_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.READINESS_STATUS_CODES_ATTRIBUTE_NAME;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.runtime.IStatus.ERROR;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.debug.core.ILaunchConfiguration;
+
+import com.google.common.base.Splitter;
+
+/**
+ * Strategy used to detect when a web application started on Codenvy is ready. The first probe is sent as soon as the web application
+ * URL is known, the interval between two probes then doubles up to the maximum interval until the deadline is reached. The probes are
+ * run by the {@link ReadinessProber} through the process {@link ScheduledTasks}, so the scheduler only fires their delays and the
+ * probe requests are sent from the worker executor.
+ *
+ * @author Kevin Pollet
+ */
+public final class ReadinessStrategy {
+    public static final String   DEFAULT_PATH           = "";
+    public static final String   DEFAULT_STATUS_CODES   = "200";
+    public static final int      DEFAULT_MIN_INTERVAL   = 250;
+    public static final int      DEFAULT_MAX_INTERVAL   = 4000;
+    public static final int      DEFAULT_DEADLINE       = 120000;
+
+    public final String          path;
+    public final Set<Integer>    acceptedStatusCodes;
+    public final long            minInterval;
+    public final long            maxInterval;
+    public final long            deadline;
+
+    /**
+     * Constructs an instance of {@link ReadinessStrategy}.
+     *
+     * @param path the path probed relative to the web application URL, empty to probe the web application URL.
+     * @param acceptedStatusCodes the HTTP status codes meaning that the web application is ready.
+     * @param minInterval the interval in milliseconds between the first two probes.
+     * @param maxInterval the maximum interval in milliseconds between two probes.
+     * @param deadline the delay in milliseconds after which the web application is considered as not ready.
+     * @throws NullPointerException if path or acceptedStatusCodes parameter is {@code null}.
+     * @throws IllegalArgumentException if acceptedStatusCodes is empty, if minInterval is not strictly positive, if maxInterval is
+     *             lower than minInterval or if deadline is not strictly positive.
+     */
+    public ReadinessStrategy(String path, Set<Integer> acceptedStatusCodes, long minInterval, long maxInterval, long deadline) {
+        checkArgument(!checkNotNull(acceptedStatusCodes).isEmpty(), "acceptedStatusCodes must not be empty");
+        checkArgument(minInterval > 0, "minInterval must be strictly positive");
+        checkArgument(maxInterval >= minInterval, "maxInterval must be greater than or equal to minInterval");
+        checkArgument(deadline > 0, "deadline must be strictly positive");
+
+        this.path = checkNotNull(path);
+        this.acceptedStatusCodes = Collections.unmodifiableSet(new HashSet<>(acceptedStatusCodes));
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Reads the {@link ReadinessStrategy} from the given {@link ILaunchConfiguration} attributes, using the defaults for the missing
+     * attributes. A maximum interval lower than the minimum interval is raised to the minimum interval.
+     *
+     * @param configuration the {@link ILaunchConfiguration}.
+     * @return the {@link ReadinessStrategy}, never {@code null}.
+     * @throws CoreException if the attributes cannot be read or are invalid.
+     * @throws NullPointerException if configuration parameter is {@code null}.
+     */
+    public static ReadinessStrategy fromLaunchConfiguration(ILaunchConfiguration configuration) throws CoreException {
+        checkNotNull(configuration);
+
+        final String path = configuration.getAttribute(READINESS_PATH_ATTRIBUTE_NAME, DEFAULT_PATH);
+        final String statusCodes = configuration.getAttribute(READINESS_STATUS_CODES_ATTRIBUTE_NAME, DEFAULT_STATUS_CODES);
+        final int maxInterval = configuration.getAttribute(READINESS_MAX_INTERVAL_ATTRIBUTE_NAME, DEFAULT_MAX_INTERVAL);
+        final int deadline = configuration.getAttribute(READINESS_DEADLINE_ATTRIBUTE_NAME, DEFAULT_DEADLINE);
+
+        final Set<Integer> acceptedStatusCodes;
+        try {
+
+            acceptedStatusCodes = parseStatusCodes(statusCodes);
+
+        } catch (IllegalArgumentException e) {
+            throw invalidAttribute("Invalid readiness status codes: " + statusCodes, e);
+        }
+
+        if (acceptedStatusCodes.isEmpty()) {
+            throw invalidAttribute("No readiness status code", null);
+        }
+        if (maxInterval <= 0) {
+            throw invalidAttribute("Invalid readiness maximum interval: " + maxInterval + ", it must be strictly positive", null);
+        }
+        if (deadline <= 0) {
+            throw invalidAttribute("Invalid readiness deadline: " + deadline + ", it must be strictly positive", null);
+        }
+
+        return new ReadinessStrategy(path, acceptedStatusCodes, DEFAULT_MIN_INTERVAL, Math.max(DEFAULT_MIN_INTERVAL, maxInterval),
+                                     deadline);
+    }
+
+    private static CoreException invalidAttribute(String message, Throwable cause) {
+        return new CoreException(new Status(ERROR, PLUGIN_ID, message, cause));
+    }
+
+    /**
+     * Parses a comma separated list of HTTP status codes.
+     *
+     * @param statusCodes the comma separated list of HTTP status codes.
+     * @return the parsed HTTP status codes, never {@code null}.
+     * @throws NullPointerException if statusCodes parameter is {@code null}.
+     * @throws IllegalArgumentException if a status code is not a number or is not an HTTP status code.
+     */
+    static Set<Integer> parseStatusCodes(String statusCodes) {
+        checkNotNull(statusCodes);
+
+        final Set<Integer> parsedStatusCodes = new HashSet<>();
+        for (String oneStatusCode : Splitter.on(',').trimResults().omitEmptyStrings().split(statusCodes)) {
+            final int statusCode = Integer.parseInt(oneStatusCode);
+            checkArgument(statusCode >= 100 && statusCode <= 599, "%s is not an HTTP status code", statusCode);
+            parsedStatusCodes.add(statusCode);
+        }
+        return parsedStatusCodes;
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.launcher;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the tasks scheduled by a launch on a shared {@link ScheduledExecutorService}, so that they can be cancelled together when the
+ * launch is stopped without shutting down the shared executor. The bounded scheduler only fires the delays, the tasks themselves run on
+ * the worker {@link Executor} so that a task blocked on a remote call doesn't hold a scheduler thread.
+ *
+ * @author Kevin Pollet
+ */
+final class ScheduledTasks {
+    /**
+     * Delay before handing a task off again to the worker {@link Executor} when it has been rejected.
+     */
+    static final long                      REJECTED_TASK_RETRY_DELAY_MILLIS = 500;
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor                 executor;
+    private final List<ScheduledFuture<?>> tasks;
+    private boolean                        cancelled;
+
+    /**
+     * Constructs an instance of {@link ScheduledTasks}.
+     *
+     * @param scheduler the shared {@link ScheduledExecutorService} firing the delays.
+     * @param executor the shared {@link Executor} running the tasks.
+     * @throws NullPointerException if scheduler or executor parameter is {@code null}.
+     */
+    ScheduledTasks(ScheduledExecutorService scheduler, Executor executor) {
+        this.scheduler = checkNotNull(scheduler);
+        this.executor = checkNotNull(executor);
+        this.tasks = new ArrayList<>();
+        this.cancelled = false;
+    }
+
+    /**
+     * Schedules the given task to run on the worker {@link Executor} after the given delay, unless the tasks have been cancelled. The
+     * returned {@link ScheduledFuture} is done once the task has been handed to the worker {@link Executor}.
+     *
+     * @param task the task to schedule.
+     * @param delay the delay before running the task.
+     * @param unit the delay {@link TimeUnit}.
+     * @return the {@link ScheduledFuture} of the task or {@code null} if the tasks have been cancelled or if the shared executor is
+     *         shut down.
+     * @throws NullPointerException if task or unit parameter is {@code null}.
+     */
+    synchronized ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        checkNotNull(task);
+        checkNotNull(unit);
+
+        if (cancelled) {
+            return null;
+        }
+
+        final Iterator<ScheduledFuture<?>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+
+        try {
+
+            final ScheduledFuture<?> future = scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    execute(task);
+                }
+            }, delay, unit);
+            tasks.add(future);
+            return future;
+
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs the given task on the worker {@link Executor}, unless the tasks have been cancelled in the meantime.
+     *
+     * @param task the task to run.
+     */
+    private void execute(final Runnable task) {
+        try {
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (!isCancelled()) {
+                        task.run();
+                    }
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            // the workers are saturated, the task is handed off again later unless the plugin is stopping
+            schedule(task, REJECTED_TASK_RETRY_DELAY_MILLIS, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Cancels the scheduled tasks. The running tasks are not interrupted, as the threads are shared with other launches, and no task
+     * can be scheduled afterwards.
+     */
+    synchronized void cancelAll() {
+        cancelled = true;
+
+        for (ScheduledFuture<?> oneTask : tasks) {
+            oneTask.cancel(false);
+        }
+        tasks.clear();
+    }
+
+    /**
+     * Returns whether the tasks have been cancelled.
+     *
+     * @return {@code true} if the tasks have been cancelled, {@code false} otherwise.
+     */
+    synchronized boolean isCancelled() {
+        return cancelled;
+    }
+}
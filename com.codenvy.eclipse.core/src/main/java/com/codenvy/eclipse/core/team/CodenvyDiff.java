@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.eclipse.team.core.synchronize.SyncInfo;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+
+/**
+ * A change of a project resource reported by the {@link CodenvyDiffEngine}.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvyDiff {
+    public final String path;
+
+    /**
+     * The kind of change, a direction and a change type as defined by {@link SyncInfo}.
+     */
+    public final int    kind;
+
+    /**
+     * The recorded state of the resource or {@code null} if the resource has never been synchronized.
+     */
+    public final Entry  base;
+
+    /**
+     * The local state of the resource or {@code null} if the resource doesn't exist locally.
+     */
+    public final Entry  local;
+
+    /**
+     * The remote state of the resource or {@code null} if the resource doesn't exist on Codenvy.
+     */
+    public final Entry  remote;
+
+    public CodenvyDiff(String path, int kind, Entry base, Entry local, Entry remote) {
+        this.path = checkNotNull(path);
+        this.kind = kind;
+        this.base = base;
+        this.local = local;
+        this.remote = remote;
+    }
+
+    /**
+     * Returns if the resource is a folder on the side where it exists.
+     *
+     * @return {@code true} if the resource is a folder, {@code false} otherwise.
+     */
+    public boolean isFolder() {
+        final Entry entry = remote != null ? remote : local != null ? local : base;
+        return entry != null && entry.folder;
+    }
+
+    @Override
+    public String toString() {
+        return SyncInfo.kindToString(kind) + " " + path;
+    }
+}
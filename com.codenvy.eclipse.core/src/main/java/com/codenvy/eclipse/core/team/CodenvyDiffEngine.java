@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.isExcludedResource;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.resources.IResource.NULL_STAMP;
+import static org.eclipse.core.resources.IResource.PROJECT;
+import static org.eclipse.team.core.synchronize.SyncInfo.ADDITION;
+import static org.eclipse.team.core.synchronize.SyncInfo.CHANGE;
+import static org.eclipse.team.core.synchronize.SyncInfo.CONFLICTING;
+import static org.eclipse.team.core.synchronize.SyncInfo.DELETION;
+import static org.eclipse.team.core.synchronize.SyncInfo.INCOMING;
+import static org.eclipse.team.core.synchronize.SyncInfo.IN_SYNC;
+import static org.eclipse.team.core.synchronize.SyncInfo.OUTGOING;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+
+/**
+ * Three-way diff engine comparing the remote tree of a Codenvy project to the local resources and to the recorded synchronization
+ * state. The remote archive is streamed once: each remote entry is compared as soon as it is read and only its path is kept if it has
+ * never been synchronized. The recorded resources missing from the archive and the local resources never synchronized are compared
+ * afterwards. The changes are reported to a {@link DiffListener} as they are found.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvyDiffEngine {
+    private final CodenvyProjectSyncState base;
+    private final LocalTree               localTree;
+
+    /**
+     * Constructs an instance of {@link CodenvyDiffEngine}.
+     *
+     * @param base the recorded {@link CodenvyProjectSyncState} or {@code null} if the project has never been synchronized.
+     * @param localTree the {@link LocalTree} of the project.
+     * @throws NullPointerException if localTree parameter is {@code null}.
+     */
+    public CodenvyDiffEngine(CodenvyProjectSyncState base, LocalTree localTree) {
+        this.base = base;
+        this.localTree = checkNotNull(localTree);
+    }
+
+    /**
+     * Compares the remote tree contained in the given {@link ZipInputStream} to the local and recorded states.
+     *
+     * @param remoteStream the {@link ZipInputStream} of the remote project.
+     * @param listener the {@link DiffListener} notified of each change.
+     * @param monitor the {@link IProgressMonitor}.
+     * @throws IOException if the remote stream cannot be read.
+     * @throws CoreException if the local tree cannot be visited.
+     * @throws OperationCanceledException if the diff is canceled.
+     * @throws NullPointerException if remoteStream, listener or monitor parameter is {@code null}.
+     */
+    public void diff(ZipInputStream remoteStream, final DiffListener listener, final IProgressMonitor monitor) throws IOException,
+                                                                                                                  CoreException {
+        checkNotNull(remoteStream);
+        checkNotNull(listener);
+        checkNotNull(monitor);
+
+        final Set<String> unseenBasePaths = new HashSet<>(base == null ? Collections.<String> emptySet() : base.getPaths());
+        final Set<String> remoteOnlyPaths = new HashSet<>();
+
+        ZipEntry zipEntry;
+        while ((zipEntry = remoteStream.getNextEntry()) != null) {
+            checkCanceled(monitor);
+
+            // the entry data is consumed to read its checksum when it is stored after the data
+            remoteStream.closeEntry();
+
+            final Entry remote = toRemoteEntry(zipEntry);
+            if (remote == null) {
+                continue;
+            }
+
+            for (String onePath = remote.path; !onePath.isEmpty(); onePath = getParentPath(onePath)) {
+                if (!unseenBasePaths.remove(onePath) && getBaseEntry(onePath) == null && remoteOnlyPaths.add(onePath)
+                    && !onePath.equals(remote.path)) {
+                    // a folder only known from the paths of its descendants
+                    listener.remoteChanged(onePath, new Entry(onePath, true, 0, NULL_STAMP, 0));
+                }
+            }
+
+            final Entry baseEntry = getBaseEntry(remote.path);
+            if (!remote.isSameContent(baseEntry)) {
+                listener.remoteChanged(remote.path, remote);
+            }
+            compare(remote.path, baseEntry, remote, listener);
+        }
+
+        for (String onePath : unseenBasePaths) {
+            checkCanceled(monitor);
+            listener.remoteChanged(onePath, null);
+            compare(onePath, getBaseEntry(onePath), null, listener);
+        }
+
+        localTree.accept(new LocalTreeVisitor() {
+            @Override
+            public void visit(String path) {
+                checkCanceled(monitor);
+                if (getBaseEntry(path) == null && !remoteOnlyPaths.contains(path)) {
+                    compare(path, null, null, listener);
+                }
+            }
+        });
+    }
+
+    private Entry getBaseEntry(String path) {
+        return base == null ? null : base.getEntry(path);
+    }
+
+    private void compare(String path, Entry baseEntry, Entry remote, DiffListener listener) {
+        final Entry local = localTree.getEntry(path, baseEntry);
+        final int kind = computeKind(baseEntry, local, remote);
+        if (kind != IN_SYNC) {
+            listener.diff(new CodenvyDiff(path, kind, baseEntry, local, remote));
+        }
+    }
+
+    /**
+     * Computes the kind of change of a resource from its three states. A resource changed the same way locally and remotely is in sync.
+     *
+     * @param base the recorded {@link Entry} or {@code null} if the resource has never been synchronized.
+     * @param local the local {@link Entry} or {@code null} if the resource doesn't exist locally.
+     * @param remote the remote {@link Entry} or {@code null} if the resource doesn't exist on Codenvy.
+     * @return the kind of change, a direction and a change type as defined by {@link org.eclipse.team.core.synchronize.SyncInfo}.
+     */
+    public static int computeKind(Entry base, Entry local, Entry remote) {
+        final boolean localChanged = base == null ? local != null : !base.isSameContent(local);
+        final boolean remoteChanged = base == null ? remote != null : !base.isSameContent(remote);
+
+        if (localChanged && remoteChanged) {
+            if (local == null ? remote == null : local.isSameContent(remote)) {
+                return IN_SYNC;
+            }
+            return CONFLICTING | (base == null ? ADDITION : local == null || remote == null ? DELETION : CHANGE);
+        }
+        if (localChanged) {
+            return OUTGOING | getChangeType(base, local);
+        }
+        if (remoteChanged) {
+            return INCOMING | getChangeType(base, remote);
+        }
+        return IN_SYNC;
+    }
+
+    private static int getChangeType(Entry from, Entry to) {
+        return from == null ? ADDITION : to == null ? DELETION : CHANGE;
+    }
+
+    /**
+     * Returns the remote {@link Entry} of the given {@link ZipEntry}. The entry must have been consumed to know its size and checksum.
+     *
+     * @param zipEntry the {@link ZipEntry}.
+     * @return the remote {@link Entry} or {@code null} if the entry is the project root or an excluded resource.
+     */
+    static Entry toRemoteEntry(ZipEntry zipEntry) {
+        final IPath path = new Path(zipEntry.getName()).makeRelative().removeTrailingSeparator();
+        if (path.segmentCount() == 0 || isExcludedResource(path)) {
+            return null;
+        }
+
+        final boolean folder = zipEntry.isDirectory();
+        return new Entry(path.toString(),
+                         folder,
+                         folder ? 0 : zipEntry.getSize(),
+                         NULL_STAMP,
+                         folder ? 0 : zipEntry.getCrc(),
+                         zipEntry.getTime());
+    }
+
+    private static String getParentPath(String path) {
+        final int lastSeparatorIndex = path.lastIndexOf('/');
+        return lastSeparatorIndex == -1 ? "" : path.substring(0, lastSeparatorIndex);
+    }
+
+    private static void checkCanceled(IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Returns the {@link LocalTree} of the given {@link IProject}. The content of a file is hashed only if the file has changed since
+     * it was recorded.
+     *
+     * @param project the {@link IProject}.
+     * @return the {@link LocalTree}, never {@code null}.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public static LocalTree localTree(final IProject project) {
+        checkNotNull(project);
+
+        return new LocalTree() {
+            @Override
+            public Entry getEntry(String path, Entry base) {
+                final IResource resource = project.findMember(path);
+                if (resource == null || resource.isDerived() || isExcludedResource(resource.getProjectRelativePath())) {
+                    return null;
+                }
+                return Entry.of(resource, base);
+            }
+
+            @Override
+            public void accept(final LocalTreeVisitor visitor) throws CoreException {
+                project.accept(new IResourceProxyVisitor() {
+                    @Override
+                    public boolean visit(IResourceProxy proxy) {
+                        if (proxy.isDerived()) {
+                            return false;
+                        }
+                        if (proxy.getType() != PROJECT) {
+                            final IPath path = proxy.requestFullPath().removeFirstSegments(1);
+                            if (!isExcludedResource(path)) {
+                                visitor.visit(path.toString());
+                            }
+                        }
+                        return true;
+                    }
+                }, IResource.NONE);
+            }
+        };
+    }
+
+    /**
+     * The local resources of a project.
+     *
+     * @author Kevin Pollet
+     */
+    public interface LocalTree {
+        /**
+         * Returns the local {@link Entry} of the resource with the given path.
+         *
+         * @param path the project relative path of the resource.
+         * @param base the recorded {@link Entry} of the resource or {@code null} if none.
+         * @return the local {@link Entry} or {@code null} if the resource doesn't exist locally or is not synchronized.
+         */
+        Entry getEntry(String path, Entry base);
+
+        /**
+         * Visits the paths of the local resources synchronized with Codenvy.
+         *
+         * @param visitor the {@link LocalTreeVisitor}.
+         * @throws CoreException if the local resources cannot be visited.
+         */
+        void accept(LocalTreeVisitor visitor) throws CoreException;
+    }
+
+    /**
+     * Visitor of the paths of a {@link LocalTree}.
+     *
+     * @author Kevin Pollet
+     */
+    public interface LocalTreeVisitor {
+        void visit(String path);
+    }
+
+    /**
+     * Listener notified of the changes found by the {@link CodenvyDiffEngine}.
+     *
+     * @author Kevin Pollet
+     */
+    public interface DiffListener {
+        /**
+         * Called for each changed resource, in the thread running the diff.
+         *
+         * @param diff the {@link CodenvyDiff}.
+         */
+        void diff(CodenvyDiff diff);
+
+        /**
+         * Called for each resource whose remote state differs from the recorded one, whatever its local state, in the thread running the
+         * diff. Only these resources are reported so that the remote tree can be recorded without keeping the paths it shares with the
+         * recorded state.
+         *
+         * @param path the project relative path of the resource.
+         * @param remote the remote {@link Entry} or {@code null} if the resource has been deleted on Codenvy.
+         */
+        void remoteChanged(String path, Entry remote);
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.isExcludedResource;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.resources.IResource.FILE;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTree;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.LocalTreeVisitor;
+
+/**
+ * Cache of the local entries of the files changed since they were recorded, indexed by modification stamp. The entries are computed by
+ * a refresh in the background, the lookups made on the caller thread, which can be the UI thread, never hash a file: an unchanged file
+ * answers its recorded entry, a changed file its cached entry if its modification stamp has not changed since it was hashed, otherwise
+ * an entry whose content is unknown while the file is hashed in the background.
+ *
+ * @author Kevin Pollet
+ */
+final class CodenvyLocalEntryCache {
+    /**
+     * The size of the entries whose content is not hashed yet, such an entry never has the same content as a recorded or remote entry.
+     */
+    static final long                                                 UNKNOWN_SIZE = -1;
+
+    private final ExecutorService                                     executorService;
+    private final HashListener                                        listener;
+    private final ConcurrentMap<String, ConcurrentMap<String, Entry>> projectEntries;
+    private final Set<IResource>                                      pendingResources;
+
+    /**
+     * Constructs an instance of {@link CodenvyLocalEntryCache}.
+     *
+     * @param executorService the {@link ExecutorService} used to hash the files looked up.
+     * @param listener the {@link HashListener} notified when a file looked up has been hashed.
+     * @throws NullPointerException if executorService or listener parameter is {@code null}.
+     */
+    CodenvyLocalEntryCache(ExecutorService executorService, HashListener listener) {
+        this.executorService = checkNotNull(executorService);
+        this.listener = checkNotNull(listener);
+        this.projectEntries = new ConcurrentHashMap<>();
+        this.pendingResources = Collections.newSetFromMap(new ConcurrentHashMap<IResource, Boolean>());
+    }
+
+    /**
+     * Returns the local {@link Entry} of the given {@link IResource} without hashing its content. If the file has changed since it was
+     * recorded and hashed, it is hashed in the background and the {@link HashListener} is notified once its entry is cached.
+     *
+     * @param resource the {@link IResource}.
+     * @param base the recorded {@link Entry} of the resource or {@code null} if none.
+     * @return the local {@link Entry}, an {@link Entry} of size {@link #UNKNOWN_SIZE} if the file is being hashed or {@code null} if the
+     *         resource doesn't exist locally or is not synchronized.
+     * @throws NullPointerException if resource parameter is {@code null}.
+     */
+    Entry getEntry(final IResource resource, final Entry base) {
+        if (!checkNotNull(resource).exists() || resource.isDerived() || isExcludedResource(resource.getProjectRelativePath())) {
+            return null;
+        }
+        if (resource.getType() != FILE) {
+            return Entry.of(resource, base);
+        }
+
+        final String path = resource.getProjectRelativePath().toString();
+        final long modificationStamp = resource.getModificationStamp();
+        if (base != null && !base.folder && base.modificationStamp == modificationStamp) {
+            return base;
+        }
+
+        final ConcurrentMap<String, Entry> entries = projectEntries.get(resource.getProject().getName());
+        final Entry cachedEntry = entries == null ? null : entries.get(path);
+        if (cachedEntry != null && cachedEntry.modificationStamp == modificationStamp) {
+            return cachedEntry;
+        }
+
+        if (pendingResources.add(resource)) {
+            try {
+
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+
+                            if (resource.exists()) {
+                                put(resource.getProject(), Entry.of(resource, base), base);
+                            }
+
+                        } finally {
+                            pendingResources.remove(resource);
+                        }
+                        listener.hashed(resource);
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+                // the plugin is stopping or the workers are saturated, the next lookup retries
+                pendingResources.remove(resource);
+            }
+        }
+        return new Entry(path, false, UNKNOWN_SIZE, modificationStamp, 0);
+    }
+
+    /**
+     * Returns a {@link LocalTree} caching the entries of the files hashed by the given {@link LocalTree}.
+     *
+     * @param project the {@link IProject} of the {@link LocalTree}.
+     * @param localTree the {@link LocalTree} to cache.
+     * @return the caching {@link LocalTree}, never {@code null}.
+     * @throws NullPointerException if project or localTree parameter is {@code null}.
+     */
+    LocalTree caching(final IProject project, final LocalTree localTree) {
+        checkNotNull(project);
+        checkNotNull(localTree);
+
+        return new LocalTree() {
+            @Override
+            public Entry getEntry(String path, Entry base) {
+                final Entry entry = localTree.getEntry(path, base);
+                if (entry != null) {
+                    put(project, entry, base);
+                }
+                return entry;
+            }
+
+            @Override
+            public void accept(LocalTreeVisitor visitor) throws CoreException {
+                localTree.accept(visitor);
+            }
+        };
+    }
+
+    private void put(IProject project, Entry entry, Entry base) {
+        if (entry.folder || entry == base) {
+            return;
+        }
+
+        ConcurrentMap<String, Entry> entries = projectEntries.get(project.getName());
+        if (entries == null) {
+            final ConcurrentMap<String, Entry> newEntries = new ConcurrentHashMap<>();
+            entries = projectEntries.putIfAbsent(project.getName(), newEntries);
+            if (entries == null) {
+                entries = newEntries;
+            }
+        }
+        entries.put(entry.path, entry);
+    }
+
+    /**
+     * Drops the cached entries of the given {@link IProject}.
+     *
+     * @param project the {@link IProject}.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    void invalidate(IProject project) {
+        projectEntries.remove(checkNotNull(project).getName());
+    }
+
+    /**
+     * Listener notified when a file looked up has been hashed in the background.
+     *
+     * @author Kevin Pollet
+     */
+    interface HashListener {
+        /**
+         * Called in the thread which has hashed the given {@link IResource}.
+         *
+         * @param resource the hashed {@link IResource}.
+         */
+        void hashed(IResource resource);
+    }
+}
@@ -10,18 +10,11 @@
  *******************************************************************************/
 package com.codenvy.eclipse.core.team;
 
-import static com.codenvy.eclipse.core.team.CodenvyProvider.PROVIDER_ID;
-import static org.eclipse.core.resources.IResource.ROOT;
+import static com.google.common.base.Preconditions.checkNotNull;
 
-import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.team.core.RepositoryProvider;
 
-import com.codenvy.client.CodenvyAPI;
-import com.codenvy.client.auth.CodenvyAuthenticationException;
-import com.codenvy.client.model.ProjectReference;
 import com.codenvy.eclipse.core.CodenvyPlugin;
-import com.codenvy.eclipse.core.CodenvyProjectMetadata;
 
 /**
  * The Codenvy resource mapping class.
@@ -29,48 +22,31 @@ import com.codenvy.eclipse.core.CodenvyProjectMetadata;
  * @author Kevin Pollet
  */
 public final class CodenvyMetaResource {
-    private final IResource resource;
-    private boolean         tracked;
+    private final IResource                resource;
+    private final CodenvyTrackedStateIndex trackedStateIndex;
 
+    /**
+     * Constructs an instance of {@link CodenvyMetaResource} reading its tracked state from the Codenvy plugin
+     * {@link CodenvyTrackedStateIndex}.
+     * 
+     * @param resource the {@link IResource}.
+     * @throws NullPointerException if resource parameter is {@code null}.
+     */
     public CodenvyMetaResource(IResource resource) {
-        this.resource = resource;
-        this.tracked = false;
-
-        if (resource.getType() != ROOT) {
-            final CodenvyProvider codenvyProvider = (CodenvyProvider)RepositoryProvider.getProvider(resource.getProject(), PROVIDER_ID);
-
-            if (codenvyProvider != null) {
-                final CodenvyProjectMetadata projectMetadata = codenvyProvider.getProjectMetadata();
-
-                if (projectMetadata != null) {
-                    final ProjectReference codenvyProject = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
-                                                                      .withWorkspaceId(projectMetadata.workspaceId)
-                                                                      .build();
-
-                    try {
-
-                        if (resource instanceof IFile) {
-                            this.tracked = CodenvyPlugin.getDefault()
-                                                        .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
-                                                        .build()
-                                                        .project()
-                                                        .hasFile(codenvyProject, resource.getProjectRelativePath().toString())
-                                                        .execute();
-                        } else {
-                            this.tracked = CodenvyPlugin.getDefault()
-                                                        .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
-                                                        .build()
-                                                        .project()
-                                                        .hasFolder(codenvyProject, resource.getProjectRelativePath().toString())
-                                                        .execute();
-                        }
+        this(resource, CodenvyPlugin.getDefault().getTrackedStateIndex());
+    }
 
-                    } catch (CodenvyAuthenticationException e) {
-                        this.tracked = false;
-                    }
-                }
-            }
-        }
+    /**
+     * Constructs an instance of {@link CodenvyMetaResource}. No lock is taken and no I/O is performed, the tracked state is read from
+     * the given {@link CodenvyTrackedStateIndex} when requested.
+     * 
+     * @param resource the {@link IResource}.
+     * @param trackedStateIndex the {@link CodenvyTrackedStateIndex}.
+     * @throws NullPointerException if resource or trackedStateIndex parameter is {@code null}.
+     */
+    public CodenvyMetaResource(IResource resource, CodenvyTrackedStateIndex trackedStateIndex) {
+        this.resource = checkNotNull(resource);
+        this.trackedStateIndex = checkNotNull(trackedStateIndex);
     }
 
     /**
@@ -88,6 +64,6 @@ public final class CodenvyMetaResource {
      * @return {@code true} if the resource is tracked, {@code false} otherwise.
      */
     public boolean isTracked() {
-        return tracked;
+        return trackedStateIndex.isTracked(resource);
     }
 }
@@ -15,7 +15,9 @@ import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.team.core.RepositoryProvider;
+import org.eclipse.team.core.subscribers.Subscriber;
 
+import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.CodenvyProjectMetadata;
 
 /**
@@ -43,6 +45,11 @@ public final class CodenvyProvider extends RepositoryProvider {
         return PROVIDER_ID;
     }
 
+    @Override
+    public Subscriber getSubscriber() {
+        return CodenvyPlugin.getDefault().getSubscriber();
+    }
+
     public CodenvyProjectMetadata getProjectMetadata() {
         if (projectMetadata == null) {
             projectMetadata = CodenvyProjectMetadata.get(getProject());
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.variants.CachedResourceVariant;
+
+import com.codenvy.client.CodenvyAPI;
+import com.codenvy.client.CodenvyErrorException;
+import com.codenvy.client.auth.CodenvyAuthenticationException;
+import com.codenvy.client.model.ProjectReference;
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.google.common.base.Charsets;
+
+/**
+ * The remote state of a resource of a Codenvy project. The content is fetched from Codenvy only when it is first read, for instance when
+ * the resource is opened in a compare editor, and is then cached by its content hash. The Codenvy API has no single file download, see
+ * {@link #fetchContents(IProgressMonitor)} for the cost of a fetch.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvyResourceVariant extends CachedResourceVariant {
+    private final CodenvyProjectMetadata projectMetadata;
+    private final Entry                  entry;
+
+    /**
+     * Constructs an instance of {@link CodenvyResourceVariant}.
+     *
+     * @param projectMetadata the {@link CodenvyProjectMetadata} of the project.
+     * @param entry the remote {@link Entry} of the resource.
+     * @throws NullPointerException if projectMetadata or entry parameter is {@code null}.
+     */
+    public CodenvyResourceVariant(CodenvyProjectMetadata projectMetadata, Entry entry) {
+        this.projectMetadata = checkNotNull(projectMetadata);
+        this.entry = checkNotNull(entry);
+    }
+
+    /**
+     * Returns the remote {@link Entry} of the resource.
+     *
+     * @return the remote {@link Entry}, never {@code null}.
+     */
+    public Entry getEntry() {
+        return entry;
+    }
+
+    @Override
+    public String getName() {
+        return new Path(entry.path).lastSegment();
+    }
+
+    @Override
+    public boolean isContainer() {
+        return entry.folder;
+    }
+
+    @Override
+    public String getContentIdentifier() {
+        return Long.toHexString(entry.hash);
+    }
+
+    @Override
+    public byte[] asBytes() {
+        return getContentIdentifier().getBytes(Charsets.UTF_8);
+    }
+
+    @Override
+    protected String getCachePath() {
+        return projectMetadata.workspaceId + "/" + projectMetadata.projectName + "/" + entry.path + " " + getContentIdentifier();
+    }
+
+    @Override
+    protected String getCacheId() {
+        return CodenvyPlugin.PLUGIN_ID;
+    }
+
+    /**
+     * Fetches the content of the file. The narrowest archive Codenvy can export for a file is the one of its parent folder, which holds
+     * the whole subtree of the folder: a fetch downloads this archive only up to the file entry and then closes the connection, so its
+     * cost grows with the size of the subtree stored before the file, up to the whole project for a file at the project root. The
+     * fetch can be canceled while the archive is read.
+     */
+    @Override
+    protected void fetchContents(IProgressMonitor monitor) throws TeamException {
+        final IPath path = new Path(entry.path);
+        final IPath parentPath = path.removeLastSegments(1);
+        final ProjectReference codenvyProject = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
+                                                          .withWorkspaceId(projectMetadata.workspaceId)
+                                                          .build();
+
+        try (ZipInputStream stream = CodenvyPlugin.getDefault()
+                                                  .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
+                                                  .build()
+                                                  .project()
+                                                  .exportResources(codenvyProject, parentPath.toString())
+                                                  .execute()) {
+
+            ZipEntry zipEntry;
+            while ((zipEntry = stream.getNextEntry()) != null) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+
+                final IPath entryPath = new Path(zipEntry.getName()).makeRelative();
+                if (entryPath.equals(path) || parentPath.append(entryPath).equals(path)) {
+                    setContents(stream, monitor);
+                    return;
+                }
+            }
+            throw new TeamException("Resource " + entry.path + " not found in Codenvy project " + projectMetadata.projectName);
+
+        } catch (CodenvyAuthenticationException e) {
+            throw new TeamException("Unable to authenticate on " + projectMetadata.url, e);
+
+        } catch (CodenvyErrorException | IOException e) {
+            throw new TeamException("Unable to download " + entry.path + " from Codenvy", e);
+        }
+    }
+}
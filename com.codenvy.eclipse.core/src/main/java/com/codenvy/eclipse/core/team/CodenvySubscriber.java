@@ -0,0 +1,450 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
+import static com.codenvy.eclipse.core.team.CodenvyProvider.PROVIDER_ID;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.NO_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.REMOVED_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.SYNC_STATE_JOURNAL_PATH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.SYNC_STATE_PATH;
+import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.isExcludedResource;
+import static org.eclipse.core.resources.IResource.PROJECT;
+import static org.eclipse.core.resources.IResource.ROOT;
+import static org.eclipse.core.resources.IResourceDelta.ADDED;
+import static org.eclipse.core.resources.IResourceDelta.CONTENT;
+import static org.eclipse.core.resources.IResourceDelta.OPEN;
+import static org.eclipse.core.resources.IResourceDelta.REMOVED;
+import static org.eclipse.core.resources.IResourceDelta.REPLACED;
+import static org.eclipse.core.resources.IResourceDelta.TYPE;
+import static org.eclipse.team.core.synchronize.SyncInfo.IN_SYNC;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.ZipInputStream;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.team.core.RepositoryProvider;
+import org.eclipse.team.core.TeamException;
+import org.eclipse.team.core.subscribers.ISubscriberChangeEvent;
+import org.eclipse.team.core.subscribers.Subscriber;
+import org.eclipse.team.core.subscribers.SubscriberChangeEvent;
+import org.eclipse.team.core.synchronize.SyncInfo;
+import org.eclipse.team.core.variants.IResourceVariant;
+import org.eclipse.team.core.variants.IResourceVariantComparator;
+
+import com.codenvy.client.CodenvyAPI;
+import com.codenvy.client.CodenvyErrorException;
+import com.codenvy.client.auth.CodenvyAuthenticationException;
+import com.codenvy.client.model.ProjectReference;
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyDiffEngine.DiffListener;
+import com.codenvy.eclipse.core.team.CodenvyLocalEntryCache.HashListener;
+
+/**
+ * {@link Subscriber} comparing the projects linked to Codenvy to their remote tree. A refresh streams the remote tree of each project
+ * through the {@link CodenvyDiffEngine} and reports the changed resources in batches while the remote tree is read. Only the changed
+ * resources are kept by the subscriber, the content hashes of the remote tree are handed to the {@link CodenvyTrackedStateIndex}. The
+ * local side is compared again each time a resource is looked up, so the local changes made after a refresh are taken into account
+ * without contacting Codenvy. A lookup never hashes a file, the files changed since the last refresh are hashed in the background by
+ * the {@link CodenvyLocalEntryCache} and reported again once hashed.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvySubscriber extends Subscriber implements IResourceChangeListener {
+    private static final int                                                EVENTS_BATCH_SIZE = 64;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, CodenvyDiff>> projectDiffs;
+    private final CodenvyLocalEntryCache                                    localEntries;
+    private final IResourceVariantComparator                                comparator;
+
+    /**
+     * Constructs an instance of {@link CodenvySubscriber}.
+     *
+     * @param executorService the {@link ExecutorService} used to hash the files changed since the last refresh.
+     * @throws NullPointerException if executorService parameter is {@code null}.
+     */
+    public CodenvySubscriber(ExecutorService executorService) {
+        this.projectDiffs = new ConcurrentHashMap<>();
+        this.localEntries = new CodenvyLocalEntryCache(executorService, new HashListener() {
+            @Override
+            public void hashed(IResource resource) {
+                fireTeamResourceChange(new ISubscriberChangeEvent[]{new SubscriberChangeEvent(CodenvySubscriber.this,
+                                                                                              ISubscriberChangeEvent.SYNC_CHANGED,
+                                                                                              resource)});
+            }
+        });
+        this.comparator = new CodenvyResourceVariantComparator(localEntries);
+    }
+
+    @Override
+    public String getName() {
+        return "Codenvy";
+    }
+
+    @Override
+    public boolean isSupervised(IResource resource) {
+        if (resource.getType() == ROOT || RepositoryProvider.getProvider(resource.getProject(), PROVIDER_ID) == null) {
+            return false;
+        }
+        if (resource.getType() == PROJECT) {
+            return true;
+        }
+        return !resource.isTeamPrivateMember()
+               && !resource.isDerived()
+               && !isExcludedResource(resource.getProjectRelativePath())
+               && !resource.getProjectRelativePath().segment(0).equals(CODENVY_FOLDER_NAME);
+    }
+
+    @Override
+    public IResource[] members(IResource resource) throws TeamException {
+        if (!(resource instanceof IContainer) || !isSupervised(resource)) {
+            return new IResource[0];
+        }
+
+        final IContainer container = (IContainer)resource;
+        final Set<IResource> members = new LinkedHashSet<>();
+        try {
+
+            if (container.exists()) {
+                for (IResource oneMember : container.members()) {
+                    if (isSupervised(oneMember)) {
+                        members.add(oneMember);
+                    }
+                }
+            }
+
+        } catch (CoreException e) {
+            throw TeamException.asTeamException(e);
+        }
+
+        // the resources which exist only on Codenvy
+        final Map<String, CodenvyDiff> diffs = projectDiffs.get(container.getProject().getName());
+        if (diffs != null) {
+            final String containerPath = container.getProjectRelativePath().toString();
+            final String prefix = containerPath.isEmpty() ? "" : containerPath + "/";
+
+            for (CodenvyDiff oneDiff : diffs.values()) {
+                if (oneDiff.path.startsWith(prefix)) {
+                    final int separatorIndex = oneDiff.path.indexOf('/', prefix.length());
+                    members.add(separatorIndex == -1 ? getResource(container.getProject(), oneDiff)
+                        : container.getProject().getFolder(oneDiff.path.substring(0, separatorIndex)));
+                }
+            }
+        }
+
+        return members.toArray(new IResource[members.size()]);
+    }
+
+    @Override
+    public IResource[] roots() {
+        final List<IResource> roots = new ArrayList<>();
+        for (IProject oneProject : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+            if (oneProject.isAccessible() && RepositoryProvider.getProvider(oneProject, PROVIDER_ID) != null) {
+                roots.add(oneProject);
+            }
+        }
+        return roots.toArray(new IResource[roots.size()]);
+    }
+
+    @Override
+    public SyncInfo getSyncInfo(IResource resource) throws TeamException {
+        if (!isSupervised(resource)) {
+            return null;
+        }
+
+        final IProject project = resource.getProject();
+        final CodenvyProvider provider = (CodenvyProvider)RepositoryProvider.getProvider(project, PROVIDER_ID);
+        final CodenvyProjectMetadata projectMetadata = provider.getProjectMetadata();
+        if (projectMetadata == null) {
+            return null;
+        }
+
+        final SyncInfo syncInfo;
+
+        if (resource.getType() == PROJECT) {
+            syncInfo = new CodenvySyncInfo(resource, null, comparator, IN_SYNC);
+
+        } else {
+            final String path = resource.getProjectRelativePath().toString();
+            final CodenvyProjectSyncState syncState = CodenvyProjectSyncState.load(project);
+            final Entry base = syncState == null ? null : syncState.getEntry(path);
+            final Map<String, CodenvyDiff> diffs = projectDiffs.get(project.getName());
+            final CodenvyDiff diff = diffs == null ? null : diffs.get(path);
+
+            // without a change found by the last refresh the remote resource is the recorded one
+            final Entry remote = diff == null ? base : diff.remote;
+            final Entry local = localEntries.getEntry(resource, base);
+            final IResourceVariant remoteVariant = remote == null ? null : new CodenvyResourceVariant(projectMetadata, remote);
+
+            syncInfo = new CodenvySyncInfo(resource, remoteVariant, comparator, CodenvyDiffEngine.computeKind(base, local, remote));
+        }
+
+        syncInfo.init();
+        return syncInfo;
+    }
+
+    @Override
+    public IResourceVariantComparator getResourceComparator() {
+        return comparator;
+    }
+
+    @Override
+    public void refresh(IResource[] resources, int depth, IProgressMonitor monitor) throws TeamException {
+        final Set<IProject> projects = new LinkedHashSet<>();
+        for (IResource oneResource : resources) {
+            if (isSupervised(oneResource)) {
+                projects.add(oneResource.getProject());
+            }
+        }
+
+        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Synchronize with Codenvy", projects.size());
+        try {
+
+            for (IProject oneProject : projects) {
+                refresh(oneProject, subMonitor.newChild(1));
+            }
+
+        } finally {
+            subMonitor.done();
+        }
+    }
+
+    /**
+     * Compares the given {@link IProject} to its remote tree. The changed resources are reported while the remote tree is read, the
+     * resources changed at the previous refresh and now in sync are reported at the end. The remote tree read by a completed comparison
+     * is recorded in the {@link CodenvyTrackedStateIndex}, it is the only place where the remote tree of a project is listed.
+     */
+    private void refresh(final IProject project, IProgressMonitor monitor) throws TeamException {
+        final CodenvyProvider provider = (CodenvyProvider)RepositoryProvider.getProvider(project, PROVIDER_ID);
+        final CodenvyProjectMetadata projectMetadata = provider == null ? null : provider.getProjectMetadata();
+        if (projectMetadata == null) {
+            return;
+        }
+
+        monitor.subTask("Compare " + project.getName() + " with Codenvy");
+
+        final ProjectReference codenvyProject = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
+                                                          .withWorkspaceId(projectMetadata.workspaceId)
+                                                          .build();
+
+        final ConcurrentMap<String, CodenvyDiff> diffs = new ConcurrentHashMap<>();
+        final ConcurrentMap<String, CodenvyDiff> previousDiffs = projectDiffs.put(project.getName(), diffs);
+        final List<ISubscriberChangeEvent> events = new ArrayList<>();
+        boolean completed = false;
+
+        try (ZipInputStream stream = CodenvyPlugin.getDefault()
+                                                  .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
+                                                  .build()
+                                                  .project()
+                                                  .exportResources(codenvyProject, "")
+                                                  .execute()) {
+
+            final CodenvyProjectSyncState syncState = CodenvyProjectSyncState.load(project);
+            final CodenvyDiffEngine diffEngine = new CodenvyDiffEngine(syncState,
+                                                                       localEntries.caching(project, CodenvyDiffEngine.localTree(project)));
+            final Map<String, Long> remoteChanges = new HashMap<>();
+            diffEngine.diff(stream, new DiffListener() {
+                @Override
+                public void diff(CodenvyDiff diff) {
+                    diffs.put(diff.path, diff);
+                    events.add(new SubscriberChangeEvent(CodenvySubscriber.this, ISubscriberChangeEvent.SYNC_CHANGED,
+                                                         getResource(project, diff)));
+
+                    if (events.size() >= EVENTS_BATCH_SIZE) {
+                        fireEvents(events);
+                    }
+                }
+
+                @Override
+                public void remoteChanged(String path, Entry remote) {
+                    remoteChanges.put(path, remote == null ? REMOVED_HASH : remote.folder ? NO_HASH : remote.hash);
+                }
+            }, monitor);
+            completed = true;
+
+            CodenvyPlugin.getDefault().getTrackedStateIndex().remoteTreeListed(project, syncState, remoteChanges);
+
+        } catch (CodenvyAuthenticationException e) {
+            throw new TeamException("Unable to authenticate on " + projectMetadata.url, e);
+
+        } catch (CodenvyErrorException | IOException | CoreException e) {
+            throw new TeamException("Unable to compare " + project.getName() + " with Codenvy", e);
+
+        } finally {
+            // an interrupted refresh keeps the changes previously found which have not been compared again
+            if (previousDiffs != null) {
+                for (CodenvyDiff onePreviousDiff : previousDiffs.values()) {
+                    if (!completed) {
+                        diffs.putIfAbsent(onePreviousDiff.path, onePreviousDiff);
+                    } else if (!diffs.containsKey(onePreviousDiff.path)) {
+                        events.add(new SubscriberChangeEvent(this, ISubscriberChangeEvent.SYNC_CHANGED,
+                                                             getResource(project, onePreviousDiff)));
+                    }
+                }
+            }
+            fireEvents(events);
+        }
+    }
+
+    private void fireEvents(List<ISubscriberChangeEvent> events) {
+        if (!events.isEmpty()) {
+            fireTeamResourceChange(events.toArray(new ISubscriberChangeEvent[events.size()]));
+            events.clear();
+        }
+    }
+
+    /**
+     * Reports the local changes of the compared projects. When the synchronization state of a project is written by a push or an update
+     * the remote tree is the recorded one again, the changes found by the last refresh are dropped.
+     */
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        final IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+
+        final List<ISubscriberChangeEvent> events = new ArrayList<>();
+        for (IResourceDelta oneProjectDelta : delta.getAffectedChildren()) {
+            final IProject project = (IProject)oneProjectDelta.getResource();
+            final boolean syncStateChanged = oneProjectDelta.findMember(SYNC_STATE_PATH) != null
+                                             || oneProjectDelta.findMember(SYNC_STATE_JOURNAL_PATH) != null;
+
+            if (oneProjectDelta.getKind() == REMOVED || (oneProjectDelta.getFlags() & OPEN) != 0 && !project.isOpen()) {
+                localEntries.invalidate(project);
+                projectDiffs.remove(project.getName());
+                continue;
+            }
+            if (syncStateChanged) {
+                localEntries.invalidate(project);
+            }
+            if (!projectDiffs.containsKey(project.getName())) {
+                continue;
+            }
+
+            if (syncStateChanged) {
+                final Map<String, CodenvyDiff> diffs = projectDiffs.remove(project.getName());
+                if (diffs != null) {
+                    for (CodenvyDiff oneDiff : diffs.values()) {
+                        events.add(new SubscriberChangeEvent(this, ISubscriberChangeEvent.SYNC_CHANGED, getResource(project, oneDiff)));
+                    }
+                }
+            }
+
+            try {
+
+                oneProjectDelta.accept(new IResourceDeltaVisitor() {
+                    @Override
+                    public boolean visit(IResourceDelta delta) {
+                        final IResource resource = delta.getResource();
+                        if (resource.getType() != PROJECT
+                            && (delta.getKind() == ADDED || delta.getKind() == REMOVED
+                                || (delta.getFlags() & (CONTENT | REPLACED | TYPE)) != 0)) {
+                            events.add(new SubscriberChangeEvent(CodenvySubscriber.this, ISubscriberChangeEvent.SYNC_CHANGED, resource));
+                        }
+                        return true;
+                    }
+                });
+
+            } catch (CoreException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        fireEvents(events);
+    }
+
+    private static IResource getResource(IProject project, CodenvyDiff diff) {
+        return diff.isFolder() ? project.getFolder(diff.path) : project.getFile(diff.path);
+    }
+
+    /**
+     * {@link SyncInfo} whose kind is computed by the {@link CodenvyDiffEngine}. The content of the recorded resources is not kept, the
+     * resources are compared with their remote variant only.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class CodenvySyncInfo extends SyncInfo {
+        private final int kind;
+
+        CodenvySyncInfo(IResource local, IResourceVariant remote, IResourceVariantComparator comparator, int kind) {
+            super(local, null, remote, comparator);
+            this.kind = kind;
+        }
+
+        @Override
+        protected int calculateKind() {
+            return kind;
+        }
+    }
+
+    /**
+     * {@link IResourceVariantComparator} comparing the content hashes. The local content hashes are looked up in the
+     * {@link CodenvyLocalEntryCache}, a file which is not hashed yet differs from its remote variant.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class CodenvyResourceVariantComparator implements IResourceVariantComparator {
+        private final CodenvyLocalEntryCache localEntries;
+
+        CodenvyResourceVariantComparator(CodenvyLocalEntryCache localEntries) {
+            this.localEntries = localEntries;
+        }
+
+        @Override
+        public boolean compare(IResource local, IResourceVariant remote) {
+            if (local.getType() != IResource.FILE || remote.isContainer()) {
+                return local.getType() != IResource.FILE && remote.isContainer();
+            }
+            if (!local.exists()) {
+                return false;
+            }
+
+            final CodenvyProjectSyncState syncState = CodenvyProjectSyncState.load(local.getProject());
+            final Entry base = syncState == null ? null : syncState.getEntry(local.getProjectRelativePath().toString());
+            final Entry localEntry = localEntries.getEntry(local, base);
+            return localEntry != null && localEntry.size != CodenvyLocalEntryCache.UNKNOWN_SIZE
+                   && Long.toHexString(localEntry.hash).equals(remote.getContentIdentifier());
+        }
+
+        @Override
+        public boolean compare(IResourceVariant base, IResourceVariant remote) {
+            return base.isContainer() == remote.isContainer() && base.getContentIdentifier().equals(remote.getContentIdentifier());
+        }
+
+        @Override
+        public boolean isThreeWay() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,554 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.NO_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.REMOVED_HASH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.SYNC_STATE_JOURNAL_PATH;
+import static com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.SYNC_STATE_PATH;
+import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.isExcludedResource;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.resources.IResource.FILE;
+import static org.eclipse.core.resources.IResource.PROJECT;
+import static org.eclipse.core.resources.IResource.ROOT;
+import static org.eclipse.core.resources.IResourceDelta.ADDED;
+import static org.eclipse.core.resources.IResourceDelta.CONTENT;
+import static org.eclipse.core.resources.IResourceDelta.OPEN;
+import static org.eclipse.core.resources.IResourceDelta.REMOVED;
+import static org.eclipse.core.resources.IResourceDelta.REPLACED;
+import static org.eclipse.core.resources.IResourceDelta.TYPE;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState.Entry;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.TrackedStateListener;
+
+/**
+ * Index of the synchronization status of the resources of the projects linked to Codenvy. The status is computed without contacting
+ * Codenvy: the outgoing changes compare the resources to the project synchronization state and the incoming changes compare the
+ * synchronization state to the remote tree listed by the last synchronization, kept by the {@link CodenvyTrackedStateIndex}. The status
+ * of a project is computed in the background the first time the project is looked up, then kept up to date from the resource deltas. The
+ * status of a container aggregates the status of its descendants. Lookups never block and answer {@code null} while the status of the
+ * project is computed.
+ * <p>
+ * Codenvy is never listed to compute the incoming changes: they are only known once the project has been compared with Codenvy by an
+ * explicit Synchronize, and they are dropped by the next push or update. Until then a resource is either in sync or outgoing, the
+ * {@link SyncStatus#INCOMING} and {@link SyncStatus#CONFLICT} statuses only appear after a Synchronize.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvySyncStatusIndex implements IResourceChangeListener, TrackedStateListener {
+    private final CodenvyTrackedStateIndex             trackedStateIndex;
+    private final ExecutorService                      executorService;
+    private final ConcurrentMap<String, ProjectStatus> projectStatuses;
+    private final ConcurrentMap<String, ProjectStatus> loadingProjectStatuses;
+    private final Set<SyncStatusListener>              listeners;
+
+    /**
+     * Constructs an instance of {@link CodenvySyncStatusIndex}. The index must be added as a {@link TrackedStateListener} of the given
+     * {@link CodenvyTrackedStateIndex} to recompute the status of a project when its synchronization state or remote tree changes.
+     *
+     * @param trackedStateIndex the {@link CodenvyTrackedStateIndex} providing the remote trees.
+     * @param executorService the {@link ExecutorService} used to compute the project statuses.
+     * @throws NullPointerException if trackedStateIndex or executorService parameter is {@code null}.
+     */
+    public CodenvySyncStatusIndex(CodenvyTrackedStateIndex trackedStateIndex, ExecutorService executorService) {
+        this.trackedStateIndex = checkNotNull(trackedStateIndex);
+        this.executorService = checkNotNull(executorService);
+        this.projectStatuses = new ConcurrentHashMap<>();
+        this.loadingProjectStatuses = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArraySet<>();
+    }
+
+    /**
+     * Returns the {@link SyncStatus} of the given {@link IResource}. The status of the resource project is computed in the background
+     * if it is not yet computed.
+     *
+     * @param resource the {@link IResource}.
+     * @return the {@link SyncStatus} or {@code null} if the project has never been synchronized or if its status is not yet computed.
+     * @throws NullPointerException if resource parameter is {@code null}.
+     */
+    public SyncStatus getSyncStatus(IResource resource) {
+        if (checkNotNull(resource).getType() == ROOT) {
+            return null;
+        }
+
+        final IProject project = resource.getProject();
+        ProjectStatus projectStatus = projectStatuses.get(project.getName());
+        if (projectStatus == null) {
+            final ProjectStatus newProjectStatus = new ProjectStatus(null, null);
+            projectStatus = projectStatuses.putIfAbsent(project.getName(), newProjectStatus);
+            if (projectStatus == null) {
+                load(project);
+                return null;
+            }
+        }
+
+        final String path = resource.getType() == PROJECT ? "" : resource.getProjectRelativePath().toString();
+        return projectStatus.getSyncStatus(path, resource.getType() != FILE);
+    }
+
+    /**
+     * Adds a {@link SyncStatusListener} notified when the synchronization status of resources changes.
+     *
+     * @param listener the {@link SyncStatusListener} to add.
+     * @return {@code true} if the {@link SyncStatusListener} is not already added, {@code false} otherwise.
+     */
+    public boolean addSyncStatusListener(SyncStatusListener listener) {
+        return listeners.add(checkNotNull(listener));
+    }
+
+    /**
+     * Removes a {@link SyncStatusListener}.
+     *
+     * @param listener the {@link SyncStatusListener} to remove.
+     * @return {@code true} if the {@link SyncStatusListener} is removed, {@code false} otherwise.
+     */
+    public boolean removeSyncStatusListener(SyncStatusListener listener) {
+        return listeners.remove(listener);
+    }
+
+    @Override
+    public void trackedStateChanged(IProject project, Set<IResource> resources) {
+        if (projectStatuses.containsKey(project.getName())) {
+            load(project);
+        }
+    }
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        final IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+
+        for (IResourceDelta oneProjectDelta : delta.getAffectedChildren()) {
+            final IProject project = (IProject)oneProjectDelta.getResource();
+            final ProjectStatus projectStatus = projectStatuses.get(project.getName());
+            final ProjectStatus loadingProjectStatus = loadingProjectStatuses.get(project.getName());
+            if (projectStatus == null && loadingProjectStatus == null) {
+                continue;
+            }
+
+            if (oneProjectDelta.getKind() == REMOVED || (oneProjectDelta.getFlags() & OPEN) != 0 && !project.isOpen()) {
+                loadingProjectStatuses.remove(project.getName());
+                if (projectStatuses.remove(project.getName()) != null) {
+                    fireSyncStatusChanged(project, null);
+                }
+                continue;
+            }
+
+            // the synchronization state has been written by a push or an update, the status is recomputed from the new state once the
+            // tracked state index has been reloaded, see trackedStateChanged
+            if (oneProjectDelta.findMember(SYNC_STATE_PATH) != null || oneProjectDelta.findMember(SYNC_STATE_JOURNAL_PATH) != null) {
+                continue;
+            }
+
+            final Set<String> changedPaths = getChangedPaths(oneProjectDelta);
+            if (changedPaths.isEmpty()) {
+                continue;
+            }
+
+            if (loadingProjectStatus != null) {
+                for (String onePath : changedPaths) {
+                    refresh(project, loadingProjectStatus, onePath);
+                }
+            }
+
+            if (projectStatus != null) {
+                final Set<String> refreshedPaths = new HashSet<>();
+                for (String onePath : changedPaths) {
+                    if (refresh(project, projectStatus, onePath)) {
+                        refreshedPaths.add(onePath);
+                    }
+                }
+
+                if (!refreshedPaths.isEmpty()) {
+                    fireSyncStatusChanged(project, withParents(project, refreshedPaths));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the status of the given {@link IProject} in the background. The current status is kept until the new one is computed, the
+     * resource deltas received in the meantime are applied to both.
+     *
+     * @param project the {@link IProject}.
+     */
+    private void load(final IProject project) {
+        try {
+
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final CodenvyProjectSyncState syncState = project.isAccessible() ? CodenvyProjectSyncState.load(project) : null;
+                    final ProjectStatus projectStatus =
+                                                        new ProjectStatus(syncState,
+                                                                          syncState == null ? null
+                                                                              : trackedStateIndex.getRemoteChanges(project));
+                    if (syncState != null) {
+                        loadingProjectStatuses.put(project.getName(), projectStatus);
+                        try {
+
+                            for (String onePath : getPaths(project, projectStatus)) {
+                                refresh(project, projectStatus, onePath);
+                            }
+
+                        } catch (CoreException e) {
+                            loadingProjectStatuses.remove(project.getName(), projectStatus);
+                            return;
+                        }
+                    }
+
+                    if (syncState == null || loadingProjectStatuses.remove(project.getName(), projectStatus)) {
+                        if (projectStatuses.replace(project.getName(), projectStatus) != null) {
+                            fireSyncStatusChanged(project, null);
+                        }
+                    }
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            // the plugin is stopping or the workers are saturated
+        }
+    }
+
+    /**
+     * Returns the project relative paths whose status has to be computed: the synchronized resources of the given {@link IProject}, the
+     * recorded resources and the remote resources.
+     */
+    private static Set<String> getPaths(IProject project, ProjectStatus projectStatus) throws CoreException {
+        final Set<String> paths = new HashSet<>(projectStatus.syncState.getPaths());
+        if (projectStatus.remoteChanges != null) {
+            for (String onePath : projectStatus.remoteChanges.keySet()) {
+                if (!onePath.isEmpty() && !isExcludedResource(new Path(onePath))) {
+                    paths.add(onePath);
+                }
+            }
+        }
+
+        project.accept(new IResourceProxyVisitor() {
+            @Override
+            public boolean visit(IResourceProxy proxy) {
+                if (proxy.isDerived()) {
+                    return false;
+                }
+                if (proxy.getType() != PROJECT) {
+                    final IPath path = proxy.requestFullPath().removeFirstSegments(1);
+                    if (!isExcludedResource(path)) {
+                        paths.add(path.toString());
+                    }
+                }
+                return true;
+            }
+        }, IResource.NONE);
+
+        return paths;
+    }
+
+    /**
+     * Returns the project relative paths of the resources added, removed or modified in the given project {@link IResourceDelta}.
+     */
+    private static Set<String> getChangedPaths(IResourceDelta projectDelta) {
+        final Set<String> changedPaths = new HashSet<>();
+        try {
+
+            projectDelta.accept(new IResourceDeltaVisitor() {
+                @Override
+                public boolean visit(IResourceDelta delta) {
+                    final IResource resource = delta.getResource();
+                    if (resource.getType() == PROJECT) {
+                        return true;
+                    }
+                    if (delta.getKind() == ADDED || delta.getKind() == REMOVED
+                        || (delta.getFlags() & (CONTENT | REPLACED | TYPE)) != 0) {
+                        changedPaths.add(resource.getProjectRelativePath().toString());
+                    }
+                    return true;
+                }
+            });
+
+        } catch (CoreException e) {
+            throw new RuntimeException(e);
+        }
+        return changedPaths;
+    }
+
+    /**
+     * Recomputes the status of the resource with the given path from its current state.
+     *
+     * @return {@code true} if the status of the resource has changed, {@code false} otherwise.
+     */
+    private static boolean refresh(IProject project, ProjectStatus projectStatus, String path) {
+        if (projectStatus.syncState == null) {
+            return false;
+        }
+
+        synchronized (projectStatus) {
+            final IResource resource = project.findMember(path);
+            final boolean exists = resource != null && !resource.isDerived()
+                                   && !isExcludedResource(resource.getProjectRelativePath());
+            final boolean folder = exists && resource.getType() != FILE;
+            final long modificationStamp = exists ? resource.getModificationStamp() : IResource.NULL_STAMP;
+
+            return projectStatus.update(path, projectStatus.computeSyncStatus(path, exists, folder, modificationStamp));
+        }
+    }
+
+    /**
+     * Returns the existing resources with the given paths and all their parent containers.
+     */
+    private static Set<IResource> withParents(IProject project, Set<String> paths) {
+        final Set<IResource> resources = new HashSet<>();
+        resources.add(project);
+
+        for (String onePath : paths) {
+            for (IPath path = new Path(onePath); path.segmentCount() > 0; path = path.removeLastSegments(1)) {
+                final IResource resource = project.findMember(path);
+                if (resource != null && !resources.add(resource)) {
+                    break;
+                }
+            }
+        }
+        return resources;
+    }
+
+    private void fireSyncStatusChanged(IProject project, Set<IResource> resources) {
+        for (SyncStatusListener oneListener : listeners) {
+            oneListener.syncStatusChanged(project, resources);
+        }
+    }
+
+    /**
+     * Computes the {@link SyncStatus} of a resource.
+     *
+     * @param entry the recorded {@link Entry} of the resource or {@code null} if none.
+     * @param exists {@code true} if the resource exists locally, {@code false} otherwise.
+     * @param folder {@code true} if the local resource is a folder, {@code false} otherwise.
+     * @param modificationStamp the modification stamp of the local resource.
+     * @param remoteListed {@code true} if the remote tree is listed, {@code false} if the incoming changes are unknown.
+     * @param remoteHash the content hash of the remote resource or {@code null} if the resource doesn't exist remotely.
+     * @return the {@link SyncStatus}, never {@code null}.
+     */
+    static SyncStatus computeSyncStatus(Entry entry,
+                                        boolean exists,
+                                        boolean folder,
+                                        long modificationStamp,
+                                        boolean remoteListed,
+                                        Long remoteHash) {
+        final boolean remoteExists = remoteListed && remoteHash != null;
+
+        if (entry == null) {
+            if (!exists) {
+                return remoteExists ? SyncStatus.INCOMING : SyncStatus.IN_SYNC;
+            }
+            if (remoteExists) {
+                return folder && remoteHash == NO_HASH ? SyncStatus.IN_SYNC : SyncStatus.CONFLICT;
+            }
+            return SyncStatus.OUTGOING;
+        }
+
+        if (!exists && remoteListed && !remoteExists) {
+            return SyncStatus.IN_SYNC;
+        }
+
+        final boolean outgoing = !exists || entry.folder != folder || !folder && entry.modificationStamp != modificationStamp;
+        final boolean incoming = remoteListed
+                                 && (!remoteExists || !entry.folder && remoteHash != NO_HASH && remoteHash != entry.hash);
+
+        if (outgoing && incoming) {
+            return SyncStatus.CONFLICT;
+        }
+        return outgoing ? SyncStatus.OUTGOING : incoming ? SyncStatus.INCOMING : SyncStatus.IN_SYNC;
+    }
+
+    /**
+     * The synchronization status of a project. Only the resources which are not in sync are recorded, with the number of such resources
+     * under each container to answer the status of a container in constant time.
+     *
+     * @author Kevin Pollet
+     */
+    static final class ProjectStatus {
+        final CodenvyProjectSyncState                                   syncState;
+        final Map<String, Long>                                         remoteChanges;
+
+        private final ConcurrentMap<String, SyncStatus>                 statuses;
+        private final Map<SyncStatus, ConcurrentMap<String, Integer>> descendantCounts;
+
+        ProjectStatus(CodenvyProjectSyncState syncState, Map<String, Long> remoteChanges) {
+            this.syncState = syncState;
+            this.remoteChanges = remoteChanges;
+            this.statuses = new ConcurrentHashMap<>();
+            this.descendantCounts = new EnumMap<>(SyncStatus.class);
+
+            for (SyncStatus oneSyncStatus : SyncStatus.values()) {
+                if (oneSyncStatus != SyncStatus.IN_SYNC) {
+                    descendantCounts.put(oneSyncStatus, new ConcurrentHashMap<String, Integer>());
+                }
+            }
+        }
+
+        SyncStatus computeSyncStatus(String path, boolean exists, boolean folder, long modificationStamp) {
+            final Entry entry = syncState.getEntry(path);
+            return CodenvySyncStatusIndex.computeSyncStatus(entry,
+                                                            exists,
+                                                            folder,
+                                                            modificationStamp,
+                                                            remoteChanges != null,
+                                                            remoteChanges == null ? null : getRemoteHash(path, entry));
+        }
+
+        /**
+         * Returns the content hash of the remote resource with the given path, only the remote resources differing from the recorded
+         * ones are listed.
+         */
+        private Long getRemoteHash(String path, Entry entry) {
+            final Long remoteChange = remoteChanges.get(path);
+            if (remoteChange != null) {
+                return remoteChange == REMOVED_HASH ? null : remoteChange;
+            }
+            return entry == null ? null : entry.folder ? NO_HASH : entry.hash;
+        }
+
+        /**
+         * Returns the {@link SyncStatus} of the resource with the given path. A container with conflicting descendants is in conflict,
+         * otherwise it is outgoing if it has outgoing descendants and incoming if it has incoming descendants.
+         *
+         * @param path the project relative path of the resource.
+         * @param container {@code true} if the resource is a container, {@code false} otherwise.
+         * @return the {@link SyncStatus} or {@code null} if the project has never been synchronized.
+         */
+        SyncStatus getSyncStatus(String path, boolean container) {
+            if (syncState == null) {
+                return null;
+            }
+
+            final SyncStatus syncStatus = statuses.get(path);
+            if (!container || syncStatus == SyncStatus.CONFLICT) {
+                return syncStatus == null ? SyncStatus.IN_SYNC : syncStatus;
+            }
+
+            for (SyncStatus oneSyncStatus : new SyncStatus[]{SyncStatus.CONFLICT, SyncStatus.OUTGOING, SyncStatus.INCOMING}) {
+                if (syncStatus == oneSyncStatus || descendantCounts.get(oneSyncStatus).containsKey(path)) {
+                    return oneSyncStatus;
+                }
+            }
+            return SyncStatus.IN_SYNC;
+        }
+
+        /**
+         * Updates the {@link SyncStatus} of the resource with the given path.
+         *
+         * @param path the project relative path of the resource.
+         * @param syncStatus the new {@link SyncStatus}.
+         * @return {@code true} if the status of the resource has changed, {@code false} otherwise.
+         */
+        synchronized boolean update(String path, SyncStatus syncStatus) {
+            final SyncStatus previousSyncStatus = syncStatus == SyncStatus.IN_SYNC ? statuses.remove(path)
+                                                                                   : statuses.put(path, syncStatus);
+            if (previousSyncStatus == syncStatus || previousSyncStatus == null && syncStatus == SyncStatus.IN_SYNC) {
+                return false;
+            }
+
+            if (previousSyncStatus != null) {
+                countInParents(path, previousSyncStatus, -1);
+            }
+            if (syncStatus != SyncStatus.IN_SYNC) {
+                countInParents(path, syncStatus, 1);
+            }
+            return true;
+        }
+
+        private void countInParents(String path, SyncStatus syncStatus, int increment) {
+            final ConcurrentMap<String, Integer> counts = descendantCounts.get(syncStatus);
+
+            String parentPath = path;
+            while (!parentPath.isEmpty()) {
+                final int lastSeparatorIndex = parentPath.lastIndexOf('/');
+                parentPath = lastSeparatorIndex == -1 ? "" : parentPath.substring(0, lastSeparatorIndex);
+
+                final Integer count = counts.get(parentPath);
+                final int newCount = (count == null ? 0 : count) + increment;
+                if (newCount == 0) {
+                    counts.remove(parentPath);
+                } else {
+                    counts.put(parentPath, newCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * The synchronization status of a resource.
+     *
+     * @author Kevin Pollet
+     */
+    public enum SyncStatus {
+        /**
+         * The resource is unchanged since the last push or update.
+         */
+        IN_SYNC,
+
+        /**
+         * The resource has been added, modified or deleted locally since the last push or update.
+         */
+        OUTGOING,
+
+        /**
+         * The resource has been added, modified or deleted on Codenvy since the last push or update, as found by the last Synchronize.
+         */
+        INCOMING,
+
+        /**
+         * The resource has been changed both locally and on Codenvy since the last push or update, as found by the last Synchronize.
+         */
+        CONFLICT
+    }
+
+    /**
+     * Listener notified when the synchronization status of resources changes.
+     *
+     * @author Kevin Pollet
+     */
+    public interface SyncStatusListener {
+        /**
+         * Called when the synchronization status of resources of the given {@link IProject} changes. This method can be called from
+         * any thread.
+         *
+         * @param project the {@link IProject}.
+         * @param resources the resources whose status has changed or {@code null} if the status of all the project resources may have
+         *            changed.
+         */
+        void syncStatusChanged(IProject project, Set<IResource> resources);
+    }
+}
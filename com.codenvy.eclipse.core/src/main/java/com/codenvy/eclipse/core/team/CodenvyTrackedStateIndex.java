@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.team;
+
+import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_FILE_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_JOURNAL_FILE_NAME;
+import static com.codenvy.eclipse.core.team.CodenvyProvider.PROVIDER_ID;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.resources.IResource.PROJECT;
+import static org.eclipse.core.resources.IResource.ROOT;
+import static org.eclipse.core.resources.IResourceDelta.OPEN;
+import static org.eclipse.core.resources.IResourceDelta.REMOVED;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.team.core.RepositoryProvider;
+
+import com.codenvy.client.CodenvyAPI;
+import com.codenvy.client.CodenvyErrorException;
+import com.codenvy.client.auth.CodenvyAuthenticationException;
+import com.codenvy.client.model.ProjectReference;
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
+
+/**
+ * Index of the resources tracked by Codenvy. The tracked paths of a project are loaded in the background from the project synchronization
+ * state the first time the project is looked up, Codenvy is never contacted by a lookup. The index of a project is reloaded when its
+ * synchronization state is written by a push or an update, and dropped when the project is closed or deleted. Lookups never block and
+ * answer {@code false} while the index of the project is loading.
+ * <p>
+ * A project linked to Codenvy without synchronization state, like a project imported before the state was recorded, has its remote
+ * tree listed in the background when it is loaded, with the stored credentials only so that the user is never prompted. Otherwise the
+ * remote project tree is only listed by an explicit synchronization, see {@link #remoteTreeListed(IProject, CodenvyProjectSyncState,
+ * Map)}, the content hashes of the remote resources differing from the synchronization state are kept until the next push or update to
+ * compute the incoming changes without contacting Codenvy again.
+ *
+ * @author Kevin Pollet
+ */
+public final class CodenvyTrackedStateIndex implements IResourceChangeListener {
+    public static final long                          NO_HASH                 = -1;
+    public static final long                          REMOVED_HASH            = -2;
+
+    private static final IPath                        CODENVY_FOLDER_PATH     = new Path(CODENVY_FOLDER_NAME);
+    static final IPath                                SYNC_STATE_PATH         = CODENVY_FOLDER_PATH.append(SYNC_STATE_FILE_NAME);
+    static final IPath                                SYNC_STATE_JOURNAL_PATH = CODENVY_FOLDER_PATH.append(SYNC_STATE_JOURNAL_FILE_NAME);
+
+    private final ExecutorService                     executorService;
+    private final ConcurrentMap<String, ProjectIndex> projectIndexes;
+    private final Set<TrackedStateListener>           listeners;
+
+    /**
+     * Constructs an instance of {@link CodenvyTrackedStateIndex}.
+     *
+     * @param executorService the {@link ExecutorService} used to load the project indexes.
+     * @throws NullPointerException if executorService parameter is {@code null}.
+     */
+    public CodenvyTrackedStateIndex(ExecutorService executorService) {
+        this.executorService = checkNotNull(executorService);
+        this.projectIndexes = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArraySet<>();
+    }
+
+    /**
+     * Returns if the given {@link IResource} is tracked by Codenvy. The index of the resource project is loaded in the background if it
+     * is not yet loaded.
+     *
+     * @param resource the {@link IResource}.
+     * @return {@code true} if the resource is tracked, {@code false} if it isn't or if the project index is not yet loaded.
+     * @throws NullPointerException if resource parameter is {@code null}.
+     */
+    public boolean isTracked(IResource resource) {
+        if (checkNotNull(resource).getType() == ROOT) {
+            return false;
+        }
+
+        final Set<String> paths = getProjectIndex(resource.getProject()).paths;
+        if (paths == null || paths.isEmpty()) {
+            return false;
+        }
+        return resource.getType() == PROJECT || paths.contains(resource.getProjectRelativePath().toString());
+    }
+
+    /**
+     * Returns the content hashes of the remote resources of the given {@link IProject} differing from its synchronization state, as
+     * listed by the last synchronization of the project. The index of the project is loaded in the background if it is not yet loaded.
+     *
+     * @param project the {@link IProject}.
+     * @return the CRC-32 of the remote files, {@link #NO_HASH} for the remote folders and {@link #REMOVED_HASH} for the resources removed
+     *         on Codenvy indexed by project relative path, or {@code null} if the project has not been synchronized yet or if it has been
+     *         pushed or updated since it was synchronized.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public Map<String, Long> getRemoteChanges(IProject project) {
+        return getProjectIndex(checkNotNull(project)).remoteChanges;
+    }
+
+    private ProjectIndex getProjectIndex(IProject project) {
+        ProjectIndex projectIndex = projectIndexes.get(project.getName());
+        if (projectIndex == null) {
+            final ProjectIndex newProjectIndex = new ProjectIndex(null);
+            projectIndex = projectIndexes.putIfAbsent(project.getName(), newProjectIndex);
+            if (projectIndex == null) {
+                load(project, newProjectIndex);
+                return newProjectIndex;
+            }
+        }
+        return projectIndex;
+    }
+
+    /**
+     * Drops the index of the given {@link IProject}, it will be reloaded the next time the project is looked up.
+     *
+     * @param project the {@link IProject}.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    public void invalidate(IProject project) {
+        if (projectIndexes.remove(checkNotNull(project).getName()) != null) {
+            fireTrackedStateChanged(project, Collections.<IResource> singleton(project));
+        }
+    }
+
+    /**
+     * Replaces the tracked paths of the given {@link IProject} by its remote tree, as listed by a synchronization with Codenvy. Only the
+     * remote resources differing from the synchronization state the project has been compared with are given, their content hashes are
+     * kept until the next push or update of the project.
+     *
+     * @param project the synchronized {@link IProject}.
+     * @param syncState the {@link CodenvyProjectSyncState} the project has been compared with or {@code null} if the project has never
+     *            been synchronized.
+     * @param remoteChanges the CRC-32 of the remote files, {@link #NO_HASH} for the remote folders and {@link #REMOVED_HASH} for the
+     *            resources removed on Codenvy indexed by project relative path.
+     * @throws NullPointerException if project or remoteChanges parameter is {@code null}.
+     */
+    public void remoteTreeListed(IProject project, CodenvyProjectSyncState syncState, Map<String, Long> remoteChanges) {
+        checkNotNull(project);
+        checkNotNull(remoteChanges);
+
+        final Set<String> paths = syncState == null ? new HashSet<>(Collections.singleton("")) : withParents(syncState.getPaths());
+        for (Entry<String, Long> oneRemoteChange : remoteChanges.entrySet()) {
+            if (oneRemoteChange.getValue() == REMOVED_HASH) {
+                paths.remove(oneRemoteChange.getKey());
+            } else {
+                paths.add(oneRemoteChange.getKey());
+            }
+        }
+
+        final ProjectIndex previousProjectIndex = projectIndexes.get(project.getName());
+        final ProjectIndex newProjectIndex = new ProjectIndex(previousProjectIndex == null ? null : previousProjectIndex.paths);
+        projectIndexes.put(project.getName(), newProjectIndex);
+        publish(project, newProjectIndex, paths, new HashMap<>(remoteChanges));
+    }
+
+    /**
+     * Adds a {@link TrackedStateListener} notified when the tracked state of a project changes.
+     *
+     * @param listener the {@link TrackedStateListener} to add.
+     * @return {@code true} if the {@link TrackedStateListener} is not already added, {@code false} otherwise.
+     */
+    public boolean addTrackedStateListener(TrackedStateListener listener) {
+        return listeners.add(checkNotNull(listener));
+    }
+
+    /**
+     * Removes a {@link TrackedStateListener}.
+     *
+     * @param listener the {@link TrackedStateListener} to remove.
+     * @return {@code true} if the {@link TrackedStateListener} is removed, {@code false} otherwise.
+     */
+    public boolean removeTrackedStateListener(TrackedStateListener listener) {
+        return listeners.remove(listener);
+    }
+
+    @Override
+    public void resourceChanged(IResourceChangeEvent event) {
+        final IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+
+        for (IResourceDelta oneProjectDelta : delta.getAffectedChildren()) {
+            final IProject project = (IProject)oneProjectDelta.getResource();
+            if (!projectIndexes.containsKey(project.getName())) {
+                continue;
+            }
+
+            if (oneProjectDelta.getKind() == REMOVED || (oneProjectDelta.getFlags() & OPEN) != 0 && !project.isOpen()) {
+                invalidate(project);
+
+            } else if (oneProjectDelta.findMember(SYNC_STATE_PATH) != null || oneProjectDelta.findMember(SYNC_STATE_JOURNAL_PATH) != null) {
+                final ProjectIndex previousProjectIndex = projectIndexes.get(project.getName());
+                final ProjectIndex newProjectIndex = new ProjectIndex(previousProjectIndex == null ? null : previousProjectIndex.paths);
+                projectIndexes.put(project.getName(), newProjectIndex);
+                load(project, newProjectIndex);
+            }
+        }
+    }
+
+    /**
+     * Loads the given {@link ProjectIndex} from the project synchronization state in the background, or from the remote tree if the
+     * project has no synchronization state. The result is dropped if the project index has been replaced in the meantime.
+     *
+     * @param project the {@link IProject} to index.
+     * @param projectIndex the {@link ProjectIndex} to load.
+     */
+    private void load(final IProject project, final ProjectIndex projectIndex) {
+        try {
+
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final CodenvyProvider provider = (CodenvyProvider)RepositoryProvider.getProvider(project, PROVIDER_ID);
+                    final CodenvyProjectMetadata projectMetadata = provider == null ? null : provider.getProjectMetadata();
+                    final CodenvyProjectSyncState syncState = projectMetadata == null ? null : CodenvyProjectSyncState.load(project);
+
+                    Set<String> paths = null;
+                    if (syncState != null) {
+                        paths = withParents(syncState.getPaths());
+                    } else if (projectMetadata != null) {
+                        paths = listRemoteTree(projectMetadata);
+                    }
+                    publish(project, projectIndex, paths == null ? Collections.<String> emptySet() : paths, null);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            // the plugin is stopping or the workers are saturated
+        }
+    }
+
+    /**
+     * Lists the paths of the remote project tree without prompting the user for credentials.
+     *
+     * @return the remote paths or {@code null} if the remote tree cannot be listed.
+     * @see #listPaths(ZipInputStream)
+     */
+    private static Set<String> listRemoteTree(CodenvyProjectMetadata projectMetadata) {
+        final ProjectReference codenvyProject = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
+                                                          .withWorkspaceId(projectMetadata.workspaceId)
+                                                          .build();
+
+        try (ZipInputStream stream = CodenvyPlugin.getDefault()
+                                                  .getNonInteractiveCodenvyBuilder(projectMetadata.url, projectMetadata.username)
+                                                  .build()
+                                                  .project()
+                                                  .exportResources(codenvyProject, "")
+                                                  .execute()) {
+
+            return listPaths(stream);
+
+        } catch (CodenvyAuthenticationException | CodenvyErrorException | IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the paths of the entries contained in the given {@link ZipInputStream} with the paths of their parent folders. The entry
+     * data is skipped, only the entry names are read.
+     *
+     * @param stream the {@link ZipInputStream}.
+     * @return the normalized project relative paths, never {@code null}.
+     * @throws IOException if the {@link ZipInputStream} cannot be read.
+     */
+    static Set<String> listPaths(ZipInputStream stream) throws IOException {
+        final Set<String> names = new HashSet<>();
+
+        ZipEntry entry;
+        while ((entry = stream.getNextEntry()) != null) {
+            names.add(entry.getName());
+        }
+        return withParents(names);
+    }
+
+    private void publish(IProject project, ProjectIndex projectIndex, Set<String> paths, Map<String, Long> remoteChanges) {
+        if (projectIndexes.get(project.getName()) == projectIndex) {
+            final Set<String> previousPaths = projectIndex.paths;
+            projectIndex.remoteChanges = remoteChanges == null ? null : Collections.unmodifiableMap(remoteChanges);
+            projectIndex.paths = Collections.unmodifiableSet(paths);
+            fireTrackedStateChanged(project, getChangedResources(project, previousPaths, paths));
+        }
+    }
+
+    /**
+     * Returns the existing resources whose tracked state differs between the given path sets. The project is returned when its own
+     * tracked state changes, a project being tracked as soon as one of its paths is.
+     */
+    static Set<IResource> getChangedResources(IProject project, Set<String> previousPaths, Set<String> paths) {
+        final Set<String> oldPaths = previousPaths == null ? Collections.<String> emptySet() : previousPaths;
+        final Set<IResource> changedResources = new HashSet<>();
+
+        if (oldPaths.isEmpty() != paths.isEmpty()) {
+            changedResources.add(project);
+        }
+        addChangedResources(project, oldPaths, paths, changedResources);
+        addChangedResources(project, paths, oldPaths, changedResources);
+
+        return changedResources;
+    }
+
+    private static void addChangedResources(IProject project, Set<String> paths, Set<String> otherPaths, Set<IResource> resources) {
+        for (String onePath : paths) {
+            if (!onePath.isEmpty() && !otherPaths.contains(onePath)) {
+                final IResource resource = project.findMember(onePath);
+                if (resource != null) {
+                    resources.add(resource);
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalizes the given project relative paths and adds the paths of their parent folders.
+     *
+     * @param paths the project relative paths.
+     * @return the normalized paths with the paths of their parent folders, never {@code null}.
+     */
+    static Set<String> withParents(Iterable<String> paths) {
+        final Set<String> pathsWithParents = new HashSet<>();
+        pathsWithParents.add("");
+
+        for (String onePath : paths) {
+            String path = new Path(onePath).makeRelative().removeTrailingSeparator().toString();
+            while (pathsWithParents.add(path)) {
+                final int lastSeparatorIndex = path.lastIndexOf('/');
+                path = lastSeparatorIndex == -1 ? "" : path.substring(0, lastSeparatorIndex);
+            }
+        }
+        return pathsWithParents;
+    }
+
+    private void fireTrackedStateChanged(IProject project, Set<IResource> resources) {
+        for (TrackedStateListener oneListener : listeners) {
+            oneListener.trackedStateChanged(project, resources);
+        }
+    }
+
+    /**
+     * The tracked paths of a project. While the project is reloaded, the previous paths are kept to avoid decorations flickering.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class ProjectIndex {
+        volatile Set<String>       paths;
+        volatile Map<String, Long> remoteChanges;
+
+        ProjectIndex(Set<String> paths) {
+            this.paths = paths;
+        }
+    }
+
+    /**
+     * Listener notified when the tracked state of the resources of a project changes.
+     *
+     * @author Kevin Pollet
+     */
+    public interface TrackedStateListener {
+        /**
+         * Called once each time the index of the given {@link IProject} is loaded, listed or dropped. This method can be called from
+         * any thread.
+         *
+         * @param project the {@link IProject}.
+         * @param resources the existing resources whose tracked state has changed, empty if only the remote content hashes or the
+         *            synchronization state of the project have changed, never {@code null}.
+         */
+        void trackedStateChanged(IProject project, Set<IResource> resources);
+    }
+}
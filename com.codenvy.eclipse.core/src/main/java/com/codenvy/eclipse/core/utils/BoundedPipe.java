@@ -0,0 +1,310 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.core.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pipe connecting a writer thread to a reader thread through a bounded ring buffer. The writer blocks while the buffer is full and the
+ * reader blocks while the buffer is empty. Unlike {@link java.io.PipedInputStream}, the end of stream is only reported once the writer
+ * has closed its {@link OutputStream} and a writer failure is reported to the reader. A writer blocked on a full buffer is released when
+ * the reader closes its {@link InputStream} or when the reader doesn't consume any data during the write timeout.
+ *
+ * @author Kevin Pollet
+ */
+public final class BoundedPipe {
+    public static final int     DEFAULT_BUFFER_SIZE   = 1024 * 1024;
+    public static final long    DEFAULT_WRITE_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    private final byte[]        buffer;
+    private final long          writeTimeoutNanos;
+    private final ReentrantLock lock;
+    private final Condition     notEmpty;
+    private final Condition     notFull;
+    private final InputStream   inputStream;
+    private final OutputStream  outputStream;
+    private int                 readPosition;
+    private int                 count;
+    private boolean             writerClosed;
+    private boolean             readerClosed;
+    private Throwable           writerFailure;
+
+    /**
+     * Constructs an instance of {@link BoundedPipe} with a buffer of {@link #DEFAULT_BUFFER_SIZE} bytes.
+     */
+    public BoundedPipe() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs an instance of {@link BoundedPipe} with a write timeout of {@link #DEFAULT_WRITE_TIMEOUT} milliseconds.
+     *
+     * @param bufferSize the buffer size in bytes.
+     * @throws IllegalArgumentException if bufferSize parameter is not strictly positive.
+     */
+    public BoundedPipe(int bufferSize) {
+        this(bufferSize, DEFAULT_WRITE_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs an instance of {@link BoundedPipe}.
+     *
+     * @param bufferSize the buffer size in bytes.
+     * @param writeTimeout the maximum time a write waits for the reader to consume data from a full buffer.
+     * @param unit the {@link TimeUnit} of the write timeout.
+     * @throws IllegalArgumentException if bufferSize or writeTimeout parameter is not strictly positive.
+     * @throws NullPointerException if unit parameter is {@code null}.
+     */
+    public BoundedPipe(int bufferSize, long writeTimeout, TimeUnit unit) {
+        checkArgument(bufferSize > 0, "bufferSize must be strictly positive");
+        checkArgument(writeTimeout > 0, "writeTimeout must be strictly positive");
+        checkNotNull(unit);
+
+        this.buffer = new byte[bufferSize];
+        this.writeTimeoutNanos = unit.toNanos(writeTimeout);
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.inputStream = new PipeInputStream();
+        this.outputStream = new PipeOutputStream();
+    }
+
+    /**
+     * Returns the {@link InputStream} reading the data written to this pipe. Closing it makes the subsequent writes fail.
+     *
+     * @return the {@link InputStream}, never {@code null}.
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Returns the {@link OutputStream} writing data to this pipe. Closing it signals the end of stream to the reader.
+     *
+     * @return the {@link OutputStream}, never {@code null}.
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Signals that the writer has failed, the pending and subsequent reads throw an {@link IOException} caused by the given failure.
+     *
+     * @param failure the writer failure.
+     * @throws NullPointerException if failure parameter is {@code null}.
+     */
+    public void fail(Throwable failure) {
+        checkNotNull(failure);
+
+        lock.lock();
+        try {
+
+            writerFailure = failure;
+            writerClosed = true;
+            notEmpty.signalAll();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int read(byte[] bytes, int offset, int length) throws IOException {
+        checkPositionIndexes(offset, offset + length, bytes.length);
+
+        lock.lock();
+        try {
+
+            while (true) {
+                if (readerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+                if (writerFailure != null) {
+                    throw new IOException("Pipe writer failed", writerFailure);
+                }
+                if (length == 0 || count > 0) {
+                    break;
+                }
+                if (writerClosed) {
+                    return -1;
+                }
+                await(notEmpty);
+            }
+
+            final int read = Math.min(length, count);
+            final int firstChunkLength = Math.min(read, buffer.length - readPosition);
+            System.arraycopy(buffer, readPosition, bytes, offset, firstChunkLength);
+            System.arraycopy(buffer, 0, bytes, offset + firstChunkLength, read - firstChunkLength);
+
+            readPosition = (readPosition + read) % buffer.length;
+            count -= read;
+            notFull.signalAll();
+
+            return read;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        checkPositionIndexes(offset, offset + length, bytes.length);
+
+        lock.lock();
+        try {
+
+            while (length > 0) {
+                // the timeout is restarted each time the reader frees some space
+                long remainingNanos = writeTimeoutNanos;
+                while (count == buffer.length && !readerClosed) {
+                    if (remainingNanos <= 0) {
+                        throw new InterruptedIOException("Pipe reader did not consume any data for "
+                                                         + TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos) + " ms");
+                    }
+                    remainingNanos = awaitNanos(notFull, remainingNanos);
+                }
+                if (readerClosed || writerClosed) {
+                    throw new IOException("Pipe closed");
+                }
+
+                final int written = Math.min(length, buffer.length - count);
+                final int writePosition = (readPosition + count) % buffer.length;
+                final int firstChunkLength = Math.min(written, buffer.length - writePosition);
+                System.arraycopy(bytes, offset, buffer, writePosition, firstChunkLength);
+                System.arraycopy(bytes, offset + firstChunkLength, buffer, 0, written - firstChunkLength);
+
+                count += written;
+                offset += written;
+                length -= written;
+                notEmpty.signalAll();
+            }
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int available() {
+        lock.lock();
+        try {
+
+            return count;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeReader() {
+        lock.lock();
+        try {
+
+            readerClosed = true;
+            notFull.signalAll();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        lock.lock();
+        try {
+
+            writerClosed = true;
+            notEmpty.signalAll();
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void await(Condition condition) throws InterruptedIOException {
+        try {
+
+            condition.await();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the pipe");
+        }
+    }
+
+    private static long awaitNanos(Condition condition, long nanos) throws InterruptedIOException {
+        try {
+
+            return condition.awaitNanos(nanos);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the pipe");
+        }
+    }
+
+    /**
+     * The reading side of the {@link BoundedPipe}.
+     *
+     * @author Kevin Pollet
+     */
+    private final class PipeInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            final byte[] singleByte = new byte[1];
+            return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            return BoundedPipe.this.read(bytes, offset, length);
+        }
+
+        @Override
+        public int available() {
+            return BoundedPipe.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    /**
+     * The writing side of the {@link BoundedPipe}.
+     *
+     * @author Kevin Pollet
+     */
+    private final class PipeOutputStream extends OutputStream {
+        @Override
+        public void write(int oneByte) throws IOException {
+            write(new byte[]{(byte)oneByte}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            BoundedPipe.this.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+}
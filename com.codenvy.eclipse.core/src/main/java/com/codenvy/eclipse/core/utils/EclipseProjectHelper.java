@@ -10,22 +10,42 @@
  *******************************************************************************/
 package com.codenvy.eclipse.core.utils;
 
+import static com.codenvy.eclipse.core.CodenvyConstants.CODENVY_FOLDER_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_FILE_NAME;
+import static com.codenvy.eclipse.core.CodenvyProjectSyncState.SYNC_STATE_JOURNAL_FILE_NAME;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -36,11 +56,16 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.team.core.RepositoryProvider;
 
 import com.codenvy.client.Codenvy;
@@ -49,8 +74,10 @@ import com.codenvy.client.model.ProjectReference;
 import com.codenvy.eclipse.core.CodenvyNature;
 import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.CodenvyProjectSyncState;
 import com.codenvy.eclipse.core.team.CodenvyProvider;
-import com.google.common.io.ByteStreams;
+import com.google.common.base.Throwables;
+import com.google.common.io.CountingInputStream;
 
 /**
  * Helper providing methods to work with eclipse projects.
@@ -59,54 +86,90 @@ import com.google.common.io.ByteStreams;
  * @author Stéphane Daviet
  */
 public final class EclipseProjectHelper {
+    private static final int          DELETE_REQUESTS_CONCURRENCY      = 4;
+    private static final int          BUFFER_SIZE                      = 64 * 1024;
     private static final List<String> excludedResources                = Arrays.asList(new String[]{".project",
                                                                        ".classpath",
                                                                        ".settings",
                                                                        "target",
                                                                        "bin",
                                                                        ".git"});
+    private static final List<IPath>  excludedPaths                    = Arrays.asList(new IPath[]{
+                                                                       new Path(CODENVY_FOLDER_NAME).append(SYNC_STATE_FILE_NAME),
+                                                                       new Path(CODENVY_FOLDER_NAME).append(SYNC_STATE_JOURNAL_FILE_NAME)});
 
     /**
-     * Creates an {@link IProject} in the current Eclipse workspace.
+     * Returns if the resource with the given project relative path is excluded from the synchronization with Codenvy. The resources
+     * are excluded by name, except the synchronization state files which are only excluded in the project Codenvy folder.
+     *
+     * @param path the project relative path of the resource.
+     * @return {@code true} if the resource is not synchronized, {@code false} otherwise.
+     * @throws NullPointerException if path parameter is {@code null}.
+     */
+    public static boolean isExcludedResource(IPath path) {
+        final IPath relativePath = checkNotNull(path).makeRelative().removeTrailingSeparator();
+        return relativePath.segmentCount() > 0
+               && (excludedResources.contains(relativePath.lastSegment()) || excludedPaths.contains(relativePath));
+    }
+
+    /**
+     * Creates an {@link IProject} in the current Eclipse workspace. The project is filled in a single workspace operation holding only
+     * the project scheduling rule, several projects can be created concurrently. If the creation is canceled the project is deleted.
      *
      * @param stream the project {@link ZipInputStream}.
      * @param projectMetadata the {@link CodenvyProjectMetadata}.
      * @param monitor the {@link IProgressMonitor} or {@code null} if none.
      * @return the created {@link IProject}.
      * @throws NullPointerException if stream or metaProject parameter is {@code null}.
+     * @throws OperationCanceledException if the creation is canceled.
      */
     public static IProject createIProjectFromZipStream(ZipInputStream stream,
-                                                       CodenvyProjectMetadata projectMetadata,
+                                                       final CodenvyProjectMetadata projectMetadata,
                                                        IProgressMonitor monitor) {
         checkNotNull(stream);
         checkNotNull(projectMetadata);
 
-        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Create project " + projectMetadata.projectName, 1);
-        final IProject newProject = ResourcesPlugin.getWorkspace().getRoot().getProject(projectMetadata.projectName);
+        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Create project " + projectMetadata.projectName, 2);
+        final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        final IProject newProject = workspace.getRoot().getProject(projectMetadata.projectName);
 
         try (ZipInputStream zipInputStream = stream) {
 
             if (!newProject.exists()) {
-                newProject.create(subMonitor);
-                newProject.open(subMonitor);
-
-                createOrUpdateResourcesFromZip(stream, newProject, subMonitor);
+                // the project creation locks the workspace root, the project is then filled holding only its own rule
+                runInWorkspace(new IWorkspaceRunnable() {
+                    @Override
+                    public void run(IProgressMonitor monitor) throws CoreException {
+                        newProject.create(monitor);
+                        newProject.open(monitor);
+                    }
+                }, workspace.getRuleFactory().createRule(newProject), subMonitor.newChild(1));
 
                 try {
 
-                    CodenvyProjectMetadata.create(newProject, projectMetadata);
-                    RepositoryProvider.map(newProject, CodenvyProvider.PROVIDER_ID);
+                    runInWorkspace(new IWorkspaceRunnable() {
+                        @Override
+                        public void run(IProgressMonitor monitor) throws CoreException {
+                            final List<CodenvyProjectSyncState.Entry> entries;
+                            entries = createOrUpdateResourcesFromZip(zipInputStream, newProject, null, false, monitor);
+                            saveSyncState(newProject, null, entries);
 
-                    final IProjectDescription newProjectDescription = newProject.getDescription();
-                    newProjectDescription.setNatureIds(new String[]{CodenvyNature.NATURE_ID});
-                    newProject.setDescription(newProjectDescription, monitor);
+                            CodenvyProjectMetadata.create(newProject, projectMetadata);
+                            RepositoryProvider.map(newProject, CodenvyProvider.PROVIDER_ID);
+
+                            final IProjectDescription newProjectDescription = newProject.getDescription();
+                            newProjectDescription.setNatureIds(new String[]{CodenvyNature.NATURE_ID});
+                            newProject.setDescription(newProjectDescription, monitor);
+                        }
+                    }, newProject, subMonitor.newChild(1));
 
-                } catch (CoreException e) {
-                    throw new RuntimeException(e);
+                } catch (OperationCanceledException e) {
+                    newProject.delete(true, true, null);
+                    throw e;
                 }
             }
 
-            subMonitor.worked(1);
+            subMonitor.worked(2);
 
         } catch (CoreException | IOException e) {
             throw new RuntimeException(e);
@@ -140,91 +203,97 @@ public final class EclipseProjectHelper {
      * @return a {@link ZipInputStream} corresponding to the archive of the {@link IProject}.
      * @throws NullPointerException if project is {@code null}.
      */
-    public static InputStream exportIProjectToZipStream(final IProject project, final IProgressMonitor monitor) {
+    public static InputStream exportIProjectToZipStream(IProject project, IProgressMonitor monitor) {
+        return exportIProjectToZipStream(project, BoundedPipe.DEFAULT_BUFFER_SIZE, monitor);
+    }
+
+    /**
+     * Get an {@link InputStream} from a {@link IProject} using a pipe buffer of the given size. See
+     * {@link #exportIProjectToZipStream(IProject, IProgressMonitor)} for the stream usage.
+     *
+     * @param project the project to archive.
+     * @param bufferSize the size in bytes of the buffer between the archive writer and the stream reader.
+     * @param monitor the monitor for reporting the archiving progress.
+     * @return a {@link ZipInputStream} corresponding to the archive of the {@link IProject}.
+     * @throws NullPointerException if project is {@code null}.
+     * @throws IllegalArgumentException if bufferSize parameter is not strictly positive.
+     */
+    public static InputStream exportIProjectToZipStream(IProject project, int bufferSize, IProgressMonitor monitor) {
         checkNotNull(project);
 
-        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Export project " + project.getName(), 1);
-        final AtomicBoolean writeDoneSignal = new AtomicBoolean(false);
-        final CountDownLatch writeStartLock = new CountDownLatch(1);
+        return exportResourcesToZipStream(project, getResources(project), bufferSize, monitor);
+    }
 
-        final PipedInputStream pipedInputStream = new PipedInputStream() {
-            @Override
-            public int read(byte[] b, int off, int len) throws IOException {
-                try {
-                    // Wait until writer get created and connected
-                    writeStartLock.await();
-
-                    // Hack to avoid premature closing of this PipedInputStream by a reader whose basing closing action on assumption that
-                    // if read() send -1 the stream is to be closed (for instance InputStreamProvider of Jersey). The stream can be only
-                    // closed when the thread where PipedOutputStream write is ended. Otherwise, if PipedOutputStream write ’slower’ than
-                    // PipedInputStream is read, there could be underflow and read could send -1 whereas there's still some data to be
-                    // written.
-                    int result = super.read(b, off, len);
-                    if (result == -1 && !writeDoneSignal.get()) {
-                        return 0;
-                    }
-                    return result;
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            }
+    /**
+     * Get an {@link InputStream} of an archive in ZIP format containing the given resources of an {@link IProject}. See
+     * {@link #exportIProjectToZipStream(IProject, IProgressMonitor)} for the stream usage. The archive is written by a task of the
+     * shared plugin executor into a {@link BoundedPipe}, the writer is paced by the stream reader and a writer failure is reported to
+     * the stream reader.
+     *
+     * @param project the project owning the resources.
+     * @param resources the resources to archive.
+     * @param bufferSize the size in bytes of the buffer between the archive writer and the stream reader.
+     * @param monitor the monitor for reporting the archiving progress.
+     * @return an {@link InputStream} corresponding to the archive of the resources.
+     * @throws NullPointerException if project or resources parameter is {@code null}.
+     * @throws IllegalArgumentException if bufferSize parameter is not strictly positive.
+     */
+    private static InputStream exportResourcesToZipStream(IProject project,
+                                                          final Collection<IResource> resources,
+                                                          int bufferSize,
+                                                          IProgressMonitor monitor) {
+        checkNotNull(project);
+        checkNotNull(resources);
 
-            @Override
-            public void close() throws IOException {
-                super.close();
-            }
-        };
+        final SubMonitor subMonitor = SubMonitor.convert(monitor, "Export project " + project.getName(), resources.size());
+        final BoundedPipe pipe = new BoundedPipe(bufferSize);
 
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        executor.execute(new Runnable() {
+        CodenvyPlugin.getDefault().getExecutorService().execute(new Runnable() {
             @Override
             public void run() {
                 try {
-                    final PipedOutputStream pipedOutputStream = new PipedOutputStream(pipedInputStream);
-                    // Writer is on, unlock the reader
-                    writeStartLock.countDown();
-                    final ZipOutputStream outputStream = new ZipOutputStream(pipedOutputStream);
-
-                    int i = 0;
-                    final Set<IResource> resources = getResources(project);
-                    for (IResource oneResource : resources) {
-                        if (excludedResources.contains(oneResource.getName())) {
-                            continue;
-                        }
 
-                        final ZipEntry entry =
-                                               new ZipEntry(oneResource.getProjectRelativePath().toString()
-                                                            + (oneResource instanceof IContainer ? '/' : ""));
-                        outputStream.putNextEntry(entry);
+                    // the stream must not be closed on failure, closing it would signal a truncated archive as a regular end of stream
+                    final ZipOutputStream outputStream = new ZipOutputStream(pipe.getOutputStream());
+                    final byte[] buffer = new byte[BUFFER_SIZE];
 
-                        if (oneResource instanceof IFile) {
-                            try (InputStream inputStream = ((IFile)oneResource).getContents()) {
-                                ByteStreams.copy(inputStream, outputStream);
+                    for (IResource oneResource : resources) {
+                        if (!isExcludedResource(oneResource.getProjectRelativePath())) {
+                            final ZipEntry entry = new ZipEntry(oneResource.getProjectRelativePath().toString()
+                                                                + (oneResource instanceof IContainer ? '/' : ""));
+                            outputStream.putNextEntry(entry);
+
+                            if (oneResource instanceof IFile) {
+                                try (InputStream inputStream = ((IFile)oneResource).getContents()) {
+                                    int read;
+                                    while ((read = inputStream.read(buffer)) != -1) {
+                                        outputStream.write(buffer, 0, read);
+                                    }
+                                }
                             }
+                            outputStream.closeEntry();
                         }
-                        outputStream.flush();
 
-                        subMonitor.worked((int)Math.floor(i / resources.size()));
-                        i++;
+                        subMonitor.worked(1);
                     }
-                    outputStream.closeEntry();
-                    outputStream.flush();
-                    // Flag for writing end, see hack above for PipedInputStream#read(…).
-                    writeDoneSignal.set(true);
                     outputStream.close();
-                } catch (CoreException | IOException e) {
-                    throw new RuntimeException(e);
+
+                } catch (CoreException | IOException | RuntimeException e) {
+                    pipe.fail(e);
+
                 } finally {
                     subMonitor.done();
                 }
             }
         });
 
-        return pipedInputStream;
+        return pipe.getInputStream();
     }
 
     /**
-     * Updates the whole Codenvy project with the resources contained in the {@link IProject}.
+     * Updates the Codenvy project with the resources contained in the {@link IProject}. Only the resources added or changed since the
+     * last synchronization are uploaded and only the resources removed since the last synchronization are deleted. If the project has
+     * never been synchronized the whole project is uploaded.
      * 
      * @param eclipseProject Eclipse {@link IProject}.
      * @param projectMetadata {@link CodenvyProjectMetadata} descriptor.
@@ -243,63 +312,261 @@ public final class EclipseProjectHelper {
                                                  .getCodenvyBuilder(projectMetadata.url, projectMetadata.username)
                                                  .build();
 
-            final InputStream eclipseProjectZip = exportIProjectToZipStream(eclipseProject, monitor);
             final ProjectReference projectToUpdate = CodenvyAPI.getClient().newProjectBuilder().withName(projectMetadata.projectName)
                                                                .withWorkspaceId(projectMetadata.workspaceId)
                                                                .build();
 
+            final CodenvyProjectSyncState previousSyncState = CodenvyProjectSyncState.load(eclipseProject);
+            final Map<String, IResource> resources = getSyncedResources(eclipseProject);
+            final List<CodenvyProjectSyncState.Entry> entries = new ArrayList<>();
+            final List<IResource> resourcesToUpload = getResourcesToUpload(resources.values(), previousSyncState, entries);
+
+            if (previousSyncState == null) {
+                updateWholeProjectOnCodenvy(codenvy, eclipseProject, projectToUpdate, projectMetadata, monitor);
+
+            } else {
+                if (!resourcesToUpload.isEmpty()) {
+                    // closing the archive stream releases the archive writer if the import fails before reading it entirely
+                    try (InputStream resourcesZip = exportResourcesToZipStream(eclipseProject, resourcesToUpload,
+                                                                               BoundedPipe.DEFAULT_BUFFER_SIZE, monitor)) {
+
+                        codenvy.project()
+                               .importArchive(projectMetadata.workspaceId, projectToUpdate, resourcesZip)
+                               .execute();
+
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                deleteResourcesOnCodenvy(codenvy, projectToUpdate, getPathsToDelete(previousSyncState, resources.keySet()));
+            }
+
+            CodenvyProjectSyncState.save(eclipseProject, new CodenvyProjectSyncState(entries));
+
+            subMonitor.worked(1);
+
+        } finally {
+            subMonitor.done();
+        }
+    }
+
+    /**
+     * Computes the synchronization state of the given resources and returns the resources added or changed since the given previous
+     * synchronization state was recorded.
+     * 
+     * @param resources the synchronized resources of the project.
+     * @param previousSyncState the previous {@link CodenvyProjectSyncState} of the project or {@code null} if none.
+     * @param entries the list receiving the current {@link CodenvyProjectSyncState.Entry} of each resource.
+     * @return the resources to upload, never {@code null}.
+     */
+    static List<IResource> getResourcesToUpload(Collection<IResource> resources,
+                                                CodenvyProjectSyncState previousSyncState,
+                                                List<CodenvyProjectSyncState.Entry> entries) {
+        final List<IResource> resourcesToUpload = new ArrayList<>();
+
+        for (IResource oneResource : resources) {
+            final String path = oneResource.getProjectRelativePath().toString();
+            final CodenvyProjectSyncState.Entry previousEntry = previousSyncState != null ? previousSyncState.getEntry(path) : null;
+            final CodenvyProjectSyncState.Entry entry = CodenvyProjectSyncState.Entry.of(oneResource, previousEntry);
+
+            if (!entry.isSameContent(previousEntry)) {
+                resourcesToUpload.add(oneResource);
+            }
+            entries.add(entry);
+        }
+        return resourcesToUpload;
+    }
+
+    /**
+     * Returns the paths recorded in the given synchronization state which are not synchronized resources anymore.
+     * 
+     * @param previousSyncState the previous {@link CodenvyProjectSyncState} of the project.
+     * @param paths the project relative paths of the synchronized resources.
+     * @return the project relative paths of the resources to delete, never {@code null}.
+     */
+    static List<String> getPathsToDelete(CodenvyProjectSyncState previousSyncState, Set<String> paths) {
+        final List<String> pathsToDelete = new ArrayList<>();
+        for (String onePath : previousSyncState.getPaths()) {
+            if (!paths.contains(onePath)) {
+                pathsToDelete.add(onePath);
+            }
+        }
+        return pathsToDelete;
+    }
+
+    /**
+     * Uploads the whole {@link IProject} to the Codenvy project and deletes the Codenvy resources missing locally.
+     * 
+     * @param codenvy the {@link Codenvy} client.
+     * @param eclipseProject Eclipse {@link IProject}.
+     * @param projectToUpdate the Codenvy {@link ProjectReference}.
+     * @param projectMetadata {@link CodenvyProjectMetadata} descriptor.
+     * @param monitor the {@link IProgressMonitor} instance.
+     */
+    private static void updateWholeProjectOnCodenvy(Codenvy codenvy,
+                                                    IProject eclipseProject,
+                                                    ProjectReference projectToUpdate,
+                                                    CodenvyProjectMetadata projectMetadata,
+                                                    IProgressMonitor monitor) {
+
+        // closing the archive stream releases the archive writer if the import fails before reading it entirely
+        try (InputStream eclipseProjectZip = exportIProjectToZipStream(eclipseProject, monitor)) {
+
             codenvy.project()
                    .importArchive(projectMetadata.workspaceId, projectToUpdate, eclipseProjectZip)
                    .execute();
 
-            final InputStream codenvyProjectZip =
-                                                  codenvy.project()
-                                                         .exportResources(projectToUpdate,
-                                                                          eclipseProject.getProjectRelativePath().toString())
-                                                         .execute();
-
-            try (ZipInputStream zipInputStream = (ZipInputStream)codenvyProjectZip) {
-
-                ZipEntry entry;
-                while ((entry = zipInputStream.getNextEntry()) != null) {
-                    if (entry.isDirectory()) {
-                        final IFolder folder = eclipseProject.getFolder(entry.getName());
-                        if (!folder.exists() && folder.getParent().exists()) {
-                            codenvy.project()
-                                   .deleteResources(projectToUpdate, folder.getProjectRelativePath().toString())
-                                   .execute();
-                        }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        final InputStream codenvyProjectZip =
+                                              codenvy.project()
+                                                     .exportResources(projectToUpdate,
+                                                                      eclipseProject.getProjectRelativePath().toString())
+                                                     .execute();
+
+        final List<String> pathsToDelete = new ArrayList<>();
+        try (ZipInputStream zipInputStream = (ZipInputStream)codenvyProjectZip) {
+
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    final IFolder folder = eclipseProject.getFolder(entry.getName());
+                    if (!folder.exists()) {
+                        pathsToDelete.add(folder.getProjectRelativePath().toString());
                     }
-                    else {
-                        final IFile file = eclipseProject.getFile(entry.getName());
-                        if (!file.exists() && file.getParent().exists()) {
-                            codenvy.project()
-                                   .deleteResources(projectToUpdate, file.getProjectRelativePath().toString())
-                                   .execute();
-                        }
+                }
+                else {
+                    final IFile file = eclipseProject.getFile(entry.getName());
+                    if (!file.exists()) {
+                        pathsToDelete.add(file.getProjectRelativePath().toString());
                     }
                 }
+            }
 
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        deleteResourcesOnCodenvy(codenvy, projectToUpdate, pathsToDelete);
+    }
+
+    /**
+     * Deletes the resources with the given paths from the Codenvy project. As deleting a folder deletes its children, only the top-most
+     * resources are deleted. The delete requests are sent in parallel on the shared executor with a bounded concurrency.
+     * 
+     * @param codenvy the {@link Codenvy} client.
+     * @param project the Codenvy {@link ProjectReference}.
+     * @param paths the project relative paths of the resources to delete.
+     */
+    private static void deleteResourcesOnCodenvy(final Codenvy codenvy, final ProjectReference project, Collection<String> paths) {
+        final Set<IPath> topMostPaths = getTopMostPaths(paths);
+        if (topMostPaths.isEmpty()) {
+            return;
+        }
+
+        final ExecutorService executor = CodenvyPlugin.getDefault().getExecutorService();
+        final Semaphore deleteRequestsPermits = new Semaphore(DELETE_REQUESTS_CONCURRENCY);
+        final List<Future<Void>> deleteRequests = new ArrayList<>();
+        try {
+
+            for (final IPath onePath : topMostPaths) {
+                deleteRequestsPermits.acquire();
+                try {
+
+                    deleteRequests.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            try {
+
+                                codenvy.project()
+                                       .deleteResources(project, onePath.toString())
+                                       .execute();
+
+                                return null;
+
+                            } finally {
+                                deleteRequestsPermits.release();
+                            }
+                        }
+                    }));
+
+                } catch (RejectedExecutionException e) {
+                    deleteRequestsPermits.release();
+                    throw e;
+                }
             }
 
-            subMonitor.worked(1);
+            for (Future<Void> oneDeleteRequest : deleteRequests) {
+                oneDeleteRequest.get();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
 
         } finally {
-            subMonitor.done();
+            for (Future<Void> oneDeleteRequest : deleteRequests) {
+                oneDeleteRequest.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the top-most paths of the given paths, the paths having an ancestor in the given paths are removed.
+     * 
+     * @param paths the project relative paths.
+     * @return the top-most paths sorted by depth, never {@code null}.
+     */
+    static Set<IPath> getTopMostPaths(Collection<String> paths) {
+        final List<IPath> sortedPaths = new ArrayList<>();
+        for (String onePath : paths) {
+            sortedPaths.add(new Path(onePath));
         }
+
+        // ancestors are sorted before their children
+        Collections.sort(sortedPaths, new Comparator<IPath>() {
+            @Override
+            public int compare(IPath path, IPath otherPath) {
+                return path.segmentCount() - otherPath.segmentCount();
+            }
+        });
+
+        final Set<IPath> topMostPaths = new LinkedHashSet<>();
+        for (IPath onePath : sortedPaths) {
+            boolean isAncestorDeleted = false;
+
+            IPath parentPath = onePath.removeLastSegments(1);
+            while (parentPath.segmentCount() > 0 && !isAncestorDeleted) {
+                isAncestorDeleted = topMostPaths.contains(parentPath);
+                parentPath = parentPath.removeLastSegments(1);
+            }
+
+            if (!isAncestorDeleted) {
+                topMostPaths.add(onePath);
+            }
+        }
+        return topMostPaths;
     }
 
     /**
-     * Updates the whole Eclipse {@link IProject} with the resources contained in the Codenvy project.
+     * Updates the Eclipse {@link IProject} with the resources contained in the Codenvy project. Files unchanged both locally and on
+     * Codenvy since the last synchronization are not rewritten and keep their modification stamp. The project is updated in a single
+     * workspace operation, the resource change listeners are notified once at the end of the operation.
      * 
      * @param eclipseProject Eclipse {@link IProject}.
      * @param projectMetadata {@link CodenvyProjectMetadata} descriptor.
      * @param monitor the {@link IProgressMonitor} instance.
      * @throws NullPointerException if eclipeProject or codenvyProject parameter is {@code null}.
      */
-    public static void updateProjectFromCodenvy(IProject eclipseProject, CodenvyProjectMetadata projectMetadata, IProgressMonitor monitor) {
+    public static void updateProjectFromCodenvy(final IProject eclipseProject,
+                                                CodenvyProjectMetadata projectMetadata,
+                                                IProgressMonitor monitor) {
         checkNotNull(eclipseProject);
         checkNotNull(projectMetadata);
 
@@ -319,39 +586,112 @@ public final class EclipseProjectHelper {
                                                  .exportResources(codenvyProject, eclipseProject.getProjectRelativePath().toString())
                                                  .execute();
 
+            runInWorkspace(new IWorkspaceRunnable() {
+                @Override
+                public void run(IProgressMonitor monitor) throws CoreException {
+                    updateResourcesFromZip(stream, eclipseProject, monitor);
+                }
+            }, eclipseProject, subMonitor.newChild(1));
 
-            createOrUpdateResourcesFromZip(stream, eclipseProject, subMonitor);
+        } finally {
+            subMonitor.done();
+        }
+    }
 
-            for (IResource oneResource : getResources(eclipseProject)) {
-                final boolean exists;
-                if (oneResource instanceof IFile) {
-                    exists = codenvy.project()
-                                    .hasFile(codenvyProject, oneResource.getProjectRelativePath().toString())
-                                    .execute();
-                } else if (oneResource instanceof IContainer) {
-                    exists = codenvy.project()
-                                    .hasFolder(codenvyProject, oneResource.getProjectRelativePath().toString())
-                                    .execute();
-                } else {
-                    exists = false;
-                }
+    /**
+     * Updates the resources of the given {@link IProject} with the resources contained in the given {@link ZipInputStream}, the
+     * resources missing from the ZIP are deleted.
+     * 
+     * @param stream the {@link ZipInputStream} of the Codenvy project.
+     * @param eclipseProject Eclipse {@link IProject}.
+     * @param monitor the {@link IProgressMonitor} instance.
+     * @throws CoreException if a resource cannot be deleted.
+     */
+    private static void updateResourcesFromZip(ZipInputStream stream,
+                                               IProject eclipseProject,
+                                               IProgressMonitor monitor) throws CoreException {
+        final CodenvyProjectSyncState syncState = CodenvyProjectSyncState.load(eclipseProject);
+        final List<CodenvyProjectSyncState.Entry> entries;
+        entries = createOrUpdateResourcesFromZip(stream, eclipseProject, syncState, true, monitor);
+
+        for (IResource oneResource : getRemotelyDeletedResources(getResources(eclipseProject), entries)) {
+            oneResource.delete(true, null);
+        }
 
-                if (!exists
-                    && oneResource.exists()
-                    && !excludedResources.contains(oneResource.getName())) {
+        saveSyncState(eclipseProject, syncState, entries);
+    }
 
-                    try {
+    /**
+     * Returns the existing resources missing from the given entries of a Codenvy project archive. The folders without entry in the
+     * archive are implied by their children and the excluded resources are never returned.
+     * 
+     * @param resources the resources of the project, including the project itself.
+     * @param entries the {@link CodenvyProjectSyncState.Entry} of the archive resources.
+     * @return the resources deleted on Codenvy, never {@code null}.
+     */
+    static List<IResource> getRemotelyDeletedResources(Collection<IResource> resources, List<CodenvyProjectSyncState.Entry> entries) {
+        // index the remote tree from the archive entries, folders without entry are implied by their children
+        final Set<String> remoteFiles = new HashSet<>();
+        final Set<String> remoteFolders = new HashSet<>();
+        remoteFolders.add("");
+
+        for (CodenvyProjectSyncState.Entry oneEntry : entries) {
+            if (oneEntry.folder) {
+                remoteFolders.add(oneEntry.path);
+            } else {
+                remoteFiles.add(oneEntry.path);
+            }
 
-                        oneResource.delete(true, null);
+            IPath parentPath = new Path(oneEntry.path).removeLastSegments(1);
+            while (parentPath.segmentCount() > 0 && remoteFolders.add(parentPath.toString())) {
+                parentPath = parentPath.removeLastSegments(1);
+            }
+        }
 
-                    } catch (CoreException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
+        final List<IResource> deletedResources = new ArrayList<>();
+        for (IResource oneResource : resources) {
+            final String path = oneResource.getProjectRelativePath().toString();
+            final boolean exists;
+            if (oneResource instanceof IFile) {
+                exists = remoteFiles.contains(path);
+            } else if (oneResource instanceof IContainer) {
+                exists = remoteFolders.contains(path);
+            } else {
+                exists = false;
             }
 
-        } finally {
-            subMonitor.done();
+            if (!exists
+                && oneResource.exists()
+                && !isExcludedResource(oneResource.getProjectRelativePath())) {
+
+                deletedResources.add(oneResource);
+            }
+        }
+        return deletedResources;
+    }
+
+    /**
+     * Saves the synchronization state of the given {@link IProject} made of the given entries. The entries of the excluded resources
+     * are not saved.
+     * 
+     * @param project the {@link IProject}.
+     * @param previousSyncState the previous {@link CodenvyProjectSyncState} of the project or {@code null} if none.
+     * @param entries the synchronization state {@link CodenvyProjectSyncState.Entry}.
+     */
+    private static void saveSyncState(IProject project,
+                                      CodenvyProjectSyncState previousSyncState,
+                                      List<CodenvyProjectSyncState.Entry> entries) {
+        final List<CodenvyProjectSyncState.Entry> syncedEntries = new ArrayList<>();
+        for (CodenvyProjectSyncState.Entry oneEntry : entries) {
+            if (!oneEntry.path.isEmpty() && !isExcludedResource(new Path(oneEntry.path))) {
+                syncedEntries.add(oneEntry);
+            }
+        }
+
+        // an unchanged synchronization state is not saved again to avoid a resource delta
+        final CodenvyProjectSyncState syncState = new CodenvyProjectSyncState(syncedEntries);
+        if (!syncState.equals(previousSyncState)) {
+            CodenvyProjectSyncState.save(project, syncState);
         }
     }
 
@@ -383,6 +723,26 @@ public final class EclipseProjectHelper {
         return resources;
     }
 
+    /**
+     * Get the {@link IResource} of the given {@link IProject} synchronized with Codenvy, indexed by project relative path. The project
+     * itself and the excluded resources are not part of the synchronized resources.
+     * 
+     * @param project the {@link IProject} to get {@link IResource} for.
+     * @return the synchronized {@link IResource} {@link Map}, never {@code null}.
+     * @throws NullPointerException if project parameter is {@code null}.
+     */
+    private static Map<String, IResource> getSyncedResources(IProject project) {
+        checkNotNull(project);
+
+        final Map<String, IResource> resources = new HashMap<>();
+        for (IResource oneResource : getResources(project)) {
+            if (oneResource.getType() != IResource.PROJECT && !isExcludedResource(oneResource.getProjectRelativePath())) {
+                resources.put(oneResource.getProjectRelativePath().toString(), oneResource);
+            }
+        }
+        return resources;
+    }
+
     /**
      * Create or update an {@link IContainer} content with the provided {@link ZipInputStream}.
      * 
@@ -391,12 +751,84 @@ public final class EclipseProjectHelper {
      * @param monitor the {@link IProgressMonitor} to follow work progression.
      */
     public static void createOrUpdateResourcesFromZip(ZipInputStream stream, IContainer container, IProgressMonitor monitor) {
+        createOrUpdateResourcesFromZip(stream, container, false, monitor);
+    }
+
+    /**
+     * Create or update an {@link IContainer} content with the provided {@link ZipInputStream}. If writeOnlyIfDifferent is
+     * {@code true} an existing file is only written if its content is different from the ZIP entry content, an identical file keeps its
+     * modification stamp and no resource delta is fired for it.
+     * 
+     * @param stream the {@link ZipInputStream} containing the resource to create or update.
+     * @param container the {@link IContainer} where the resources will be unzipped.
+     * @param writeOnlyIfDifferent {@code true} to write an existing file only if its content is different, {@code false} otherwise.
+     * @param monitor the {@link IProgressMonitor} to follow work progression.
+     */
+    public static void createOrUpdateResourcesFromZip(ZipInputStream stream,
+                                                      IContainer container,
+                                                      boolean writeOnlyIfDifferent,
+                                                      IProgressMonitor monitor) {
+        createOrUpdateResourcesFromZip(stream, container, null, writeOnlyIfDifferent, monitor);
+    }
+
+    /**
+     * Create or update an {@link IContainer} content with the provided {@link ZipInputStream}. An existing file is left untouched if
+     * neither the file nor the corresponding ZIP entry changed since the given synchronization state was recorded or, if
+     * writeOnlyIfDifferent is {@code true}, if its content is identical to the ZIP entry content.
+     * 
+     * @param stream the {@link ZipInputStream} containing the resource to create or update.
+     * @param container the {@link IContainer} where the resources will be unzipped.
+     * @param syncState the last {@link CodenvyProjectSyncState} of the container project or {@code null} if none.
+     * @param writeOnlyIfDifferent {@code true} to write an existing file only if its content is different, {@code false} otherwise.
+     * @param monitor the {@link IProgressMonitor} to follow work progression.
+     * @return the synchronization state {@link CodenvyProjectSyncState.Entry} of the resources contained in the ZIP, never {@code null}.
+     */
+    private static List<CodenvyProjectSyncState.Entry> createOrUpdateResourcesFromZip(final ZipInputStream stream,
+                                                                                   final IContainer container,
+                                                                                   final CodenvyProjectSyncState syncState,
+                                                                                   final boolean writeOnlyIfDifferent,
+                                                                                   IProgressMonitor monitor) {
+        final List<CodenvyProjectSyncState.Entry> entries = new ArrayList<>();
+
+        // the resources are created in a single workspace operation, the resource deltas are coalesced and broadcast once at the end
+        runInWorkspace(new IWorkspaceRunnable() {
+            @Override
+            public void run(IProgressMonitor monitor) throws CoreException {
+                entries.addAll(unzipResources(stream, container, syncState, writeOnlyIfDifferent, monitor));
+            }
+        }, container.getProject(), monitor);
+
+        return entries;
+    }
+
+    /**
+     * Unzips the provided {@link ZipInputStream} into the given {@link IContainer}. This method must be called from a workspace
+     * operation, see {@link #createOrUpdateResourcesFromZip(ZipInputStream, IContainer, CodenvyProjectSyncState, boolean,
+     * IProgressMonitor)}.
+     * 
+     * @param stream the {@link ZipInputStream} containing the resource to create or update.
+     * @param container the {@link IContainer} where the resources will be unzipped.
+     * @param syncState the last {@link CodenvyProjectSyncState} of the container project or {@code null} if none.
+     * @param writeOnlyIfDifferent {@code true} to write an existing file only if its content is different, {@code false} otherwise.
+     * @param monitor the {@link IProgressMonitor} to follow work progression.
+     * @return the synchronization state {@link CodenvyProjectSyncState.Entry} of the resources contained in the ZIP, never {@code null}.
+     */
+    static List<CodenvyProjectSyncState.Entry> unzipResources(ZipInputStream stream,
+                                                              IContainer container,
+                                                              CodenvyProjectSyncState syncState,
+                                                              boolean writeOnlyIfDifferent,
+                                                              IProgressMonitor monitor) {
         final SubMonitor subMonitor = SubMonitor.convert(monitor, "Create resources", 1);
+        final List<CodenvyProjectSyncState.Entry> entries = new ArrayList<>();
 
         try (ZipInputStream zipInputStream = stream) {
 
             ZipEntry entry;
             while ((entry = zipInputStream.getNextEntry()) != null) {
+                if (subMonitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+
                 subMonitor.setWorkRemaining(1000);
 
                 final String entryName = entry.getName();
@@ -407,21 +839,58 @@ public final class EclipseProjectHelper {
                         folder.create(true, true, subMonitor);
                     }
 
+                    entries.add(new CodenvyProjectSyncState.Entry(folder.getProjectRelativePath().toString(), true, 0,
+                                                                  folder.getModificationStamp(), 0, entry.getTime()));
+
                 } else {
-                    int b;
                     final IFile file = container.getFile(new Path(entryName));
-                    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-                    while ((b = zipInputStream.read()) != -1) {
-                        byteArrayOutputStream.write(b);
+                    final CodenvyProjectSyncState.Entry syncEntry =
+                                                                    syncState != null
+                                                                        ? syncState.getEntry(file.getProjectRelativePath().toString())
+                                                                        : null;
+
+                    final CodenvyProjectSyncState.Entry localEntry = getLocalEntry(file, syncEntry, writeOnlyIfDifferent);
+
+                    // the entry checksum and size are known before reading when the entry is not followed by a data descriptor
+                    if (isSameContent(localEntry, entry.getSize(), entry.getCrc())) {
+                        entries.add(localEntry.withRemoteRevision(entry.getTime()));
+                        subMonitor.worked(1);
+                        continue;
                     }
 
-                    final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-                    if (file.exists()) {
-                        file.setContents(byteArrayInputStream, true, true, subMonitor);
+                    final CodenvyProjectSyncState.Entry newSyncEntry;
+                    if (localEntry != null && entry.getCrc() == -1) {
+                        // the entry has to be read to know if it has changed, it is spooled to be written only if needed
+                        try (SpooledEntry spooledEntry = SpooledEntry.spool(zipInputStream)) {
+                            if (isSameContent(localEntry, spooledEntry.size, spooledEntry.hash)) {
+                                newSyncEntry = localEntry.withRemoteRevision(entry.getTime());
+                            } else {
+                                file.setContents(spooledEntry.openStream(), true, true, subMonitor);
+                                newSyncEntry = new CodenvyProjectSyncState.Entry(file.getProjectRelativePath().toString(), false,
+                                                                                 spooledEntry.size, file.getModificationStamp(),
+                                                                                 spooledEntry.hash, entry.getTime());
+                            }
+                        }
+
                     } else {
-                        file.create(byteArrayInputStream, true, subMonitor);
+                        // the entry content is streamed to the file, the stream must not be closed by the file
+                        final CRC32 crc = new CRC32();
+                        final InputStream nonClosingInputStream = new NonClosingInputStream(zipInputStream);
+                        final CheckedInputStream checkedInputStream = new CheckedInputStream(nonClosingInputStream, crc);
+                        final CountingInputStream entryInputStream = new CountingInputStream(checkedInputStream);
+
+                        if (file.exists()) {
+                            file.setContents(entryInputStream, true, true, subMonitor);
+                        } else {
+                            file.create(entryInputStream, true, subMonitor);
+                        }
+
+                        newSyncEntry = new CodenvyProjectSyncState.Entry(file.getProjectRelativePath().toString(), false,
+                                                                         entryInputStream.getCount(), file.getModificationStamp(),
+                                                                         crc.getValue(), entry.getTime());
                     }
+
+                    entries.add(newSyncEntry);
                 }
 
                 subMonitor.worked(1);
@@ -433,6 +902,160 @@ public final class EclipseProjectHelper {
         } finally {
             subMonitor.done();
         }
+
+        return entries;
+    }
+
+    /**
+     * Returns the synchronization state {@link CodenvyProjectSyncState.Entry} of the current content of the given {@link IFile}. The
+     * recorded entry is used if the file is unchanged since it was recorded, otherwise the file content is hashed only if
+     * computeIfChanged is {@code true}.
+     * 
+     * @param file the {@link IFile}.
+     * @param syncEntry the recorded {@link CodenvyProjectSyncState.Entry} of the file or {@code null} if none.
+     * @param computeIfChanged {@code true} to compute the entry of a changed file, {@code false} otherwise.
+     * @return the {@link CodenvyProjectSyncState.Entry} of the file or {@code null} if the file doesn't exist or if its entry is not
+     *         computed.
+     */
+    private static CodenvyProjectSyncState.Entry getLocalEntry(IFile file,
+                                                               CodenvyProjectSyncState.Entry syncEntry,
+                                                               boolean computeIfChanged) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        if (syncEntry != null && !syncEntry.folder && file.getModificationStamp() == syncEntry.modificationStamp) {
+            return syncEntry;
+        }
+
+        return computeIfChanged ? CodenvyProjectSyncState.Entry.of(file, null) : null;
+    }
+
+    /**
+     * Returns if the given local {@link CodenvyProjectSyncState.Entry} has the given content size and hash.
+     * 
+     * @param localEntry the local {@link CodenvyProjectSyncState.Entry} or {@code null} if none.
+     * @param size the content size or {@code -1} if unknown.
+     * @param hash the content hash or {@code -1} if unknown.
+     * @return {@code true} if the local entry has the given content, {@code false} otherwise.
+     */
+    private static boolean isSameContent(CodenvyProjectSyncState.Entry localEntry, long size, long hash) {
+        return localEntry != null && !localEntry.folder && localEntry.size == size && localEntry.hash == hash;
+    }
+
+    /**
+     * Runs the given {@link IWorkspaceRunnable} as a single workspace operation holding the given {@link ISchedulingRule}. The resource
+     * deltas of the operation are broadcast once at the end of the outermost operation.
+     * 
+     * @param runnable the {@link IWorkspaceRunnable} to run.
+     * @param rule the {@link ISchedulingRule} to hold during the operation.
+     * @param monitor the {@link IProgressMonitor} to follow work progression.
+     */
+    private static void runInWorkspace(IWorkspaceRunnable runnable, ISchedulingRule rule, IProgressMonitor monitor) {
+        try {
+
+            ResourcesPlugin.getWorkspace().run(runnable, rule, IWorkspace.AVOID_UPDATE, monitor);
+
+        } catch (CoreException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * {@link InputStream} ignoring the {@link #close()} calls, used to hand the current entry of a {@link ZipInputStream} to a consumer
+     * closing the stream it reads.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class NonClosingInputStream extends FilterInputStream {
+        NonClosingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the underlying stream is closed by its owner
+        }
+    }
+
+    /**
+     * The content of a ZIP entry spooled in memory, or in a temporary file if it is larger than {@link #MEMORY_THRESHOLD}.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class SpooledEntry implements Closeable {
+        private static final int MEMORY_THRESHOLD = 1024 * 1024;
+
+        final long               size;
+        final long               hash;
+        private final byte[]     content;
+        private final File       file;
+
+        /**
+         * Spools the given {@link InputStream} until its end, without closing it.
+         * 
+         * @param inputStream the {@link InputStream} to spool.
+         * @return the {@link SpooledEntry}, never {@code null}.
+         * @throws IOException if the {@link InputStream} cannot be spooled.
+         */
+        static SpooledEntry spool(InputStream inputStream) throws IOException {
+            final CRC32 crc = new CRC32();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            final ByteArrayOutputStream memoryOutputStream = new ByteArrayOutputStream();
+
+            long size = 0;
+            int read;
+            while (size <= MEMORY_THRESHOLD && (read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                memoryOutputStream.write(buffer, 0, read);
+                size += read;
+            }
+
+            if (size <= MEMORY_THRESHOLD) {
+                return new SpooledEntry(size, crc.getValue(), memoryOutputStream.toByteArray(), null);
+            }
+
+            final File file = File.createTempFile("codenvy-entry", ".tmp");
+            try (OutputStream fileOutputStream = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)) {
+
+                memoryOutputStream.writeTo(fileOutputStream);
+                while ((read = inputStream.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                    fileOutputStream.write(buffer, 0, read);
+                    size += read;
+                }
+
+            } catch (IOException e) {
+                file.delete();
+                throw e;
+            }
+
+            return new SpooledEntry(size, crc.getValue(), null, file);
+        }
+
+        private SpooledEntry(long size, long hash, byte[] content, File file) {
+            this.size = size;
+            this.hash = hash;
+            this.content = content;
+            this.file = file;
+        }
+
+        /**
+         * Opens a new {@link InputStream} on the spooled content.
+         * 
+         * @return the {@link InputStream}, never {@code null}.
+         * @throws IOException if the spooled content cannot be opened.
+         */
+        InputStream openStream() throws IOException {
+            return content != null ? new ByteArrayInputStream(content) : new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() {
+            if (file != null) {
+                file.delete();
+            }
+        }
     }
 
     /**
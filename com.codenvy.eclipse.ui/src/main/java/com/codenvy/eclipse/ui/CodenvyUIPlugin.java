@@ -12,28 +12,59 @@ package com.codenvy.eclipse.ui;
 
 import static com.codenvy.eclipse.ui.Images.RUN_MAIN_TAB_ICON;
 import static com.codenvy.eclipse.ui.Images.WIZARD_LOGO;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.MAX_CONCURRENT_BUILDS_KEY_NAME;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.TRANSFER_CONCURRENCY_KEY_NAME;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.getMaxConcurrentBuilds;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.getTransferConcurrency;
 
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.ImageRegistry;
+import org.eclipse.jface.util.IPropertyChangeListener;
+import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.ui.utils.TransferPermits;
+
 /**
  * The activator class controls the plug-in life cycle.
  * 
  * @author Kevin Pollet
  */
 public final class CodenvyUIPlugin extends AbstractUIPlugin {
-    public static final String     PLUGIN_ID = "com.codenvy.eclipse.ui"; //$NON-NLS-1$
+    public static final String      PLUGIN_ID = "com.codenvy.eclipse.ui"; //$NON-NLS-1$
+
+    private static CodenvyUIPlugin  plugin;
 
-    private static CodenvyUIPlugin plugin;
+    private TransferPermits         transferPermits;
+    private IPropertyChangeListener preferencesListener;
 
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
+
+        transferPermits = new TransferPermits(getTransferConcurrency());
+        CodenvyPlugin.getDefault().getBuildCoordinator().setMaxConcurrentBuilds(getMaxConcurrentBuilds());
+
+        preferencesListener = new IPropertyChangeListener() {
+            @Override
+            public void propertyChange(PropertyChangeEvent event) {
+                if (TRANSFER_CONCURRENCY_KEY_NAME.equals(event.getProperty())) {
+                    transferPermits.resize(getTransferConcurrency());
+                } else if (MAX_CONCURRENT_BUILDS_KEY_NAME.equals(event.getProperty())) {
+                    CodenvyPlugin.getDefault().getBuildCoordinator().setMaxConcurrentBuilds(getMaxConcurrentBuilds());
+                }
+            }
+        };
+        getPreferenceStore().addPropertyChangeListener(preferencesListener);
     }
 
     public void stop(BundleContext context) throws Exception {
+        getPreferenceStore().removePropertyChangeListener(preferencesListener);
+        preferencesListener = null;
+        transferPermits = null;
+
         plugin = null;
         super.stop(context);
     }
@@ -47,6 +78,16 @@ public final class CodenvyUIPlugin extends AbstractUIPlugin {
         return plugin;
     }
 
+    /**
+     * Returns the {@link TransferPermits} bounding the number of projects transferred concurrently with Codenvy. The permits follow the
+     * transfer concurrency preference.
+     * 
+     * @return the {@link TransferPermits}.
+     */
+    public TransferPermits getTransferPermits() {
+        return transferPermits;
+    }
+
     @Override
     protected void initializeImageRegistry(ImageRegistry registry) {
         registry.put(WIZARD_LOGO, ImageDescriptor.createFromFile(CodenvyUIPlugin.class, "/images/WizardLogo.png"));
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.ui.launcher;
+
+import static com.codenvy.eclipse.core.CodenvyPlugin.FAMILY_CODENVY;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.ARTIFACT_PROJECT_FOLDER_ATTRIBUTE_NAME;
+import static com.codenvy.eclipse.core.launcher.LaunchConstants.CODENVY_PROJECT_NAME_ATTRIBUTE_NAME;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.eclipse.core.resources.IResource.FORCE;
+import static org.eclipse.core.runtime.IStatus.ERROR;
+import static org.eclipse.debug.ui.IDebugUIConstants.ID_STANDARD_OUTPUT_STREAM;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.ui.console.IConsole;
+import org.eclipse.ui.console.IHyperlink;
+import org.eclipse.ui.console.IOConsoleOutputStream;
+
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.ui.CodenvyUIPlugin;
+
+/**
+ * {@link IHyperlink} downloading the build result into the Codenvy artifacts cache. When the launch configuration defines an artifact
+ * project folder, the downloaded build result is copied into this folder of the built project. The copy is marked as derived, so it is
+ * neither pushed to Codenvy nor reported as an outgoing change.
+ *
+ * @author Kevin Pollet
+ */
+public final class ArtifactDownloadHyperLink implements IHyperlink {
+    private final String   url;
+    private final IConsole console;
+
+    /**
+     * Constructs an instance of {@link ArtifactDownloadHyperLink}.
+     *
+     * @param url the build result download URL.
+     * @param console the {@link IConsole} of the build.
+     * @throws NullPointerException if url or console parameter is {@code null}.
+     */
+    public ArtifactDownloadHyperLink(String url, IConsole console) {
+        this.url = checkNotNull(url);
+        this.console = checkNotNull(console);
+    }
+
+    @Override
+    public void linkEntered() {
+    }
+
+    @Override
+    public void linkExited() {
+    }
+
+    @Override
+    public void linkActivated() {
+        final Job downloadJob = new Job("Download build result") {
+            @Override
+            protected IStatus run(IProgressMonitor monitor) {
+                monitor.beginTask(getName(), 10);
+
+                try {
+
+                    final File artifact = CodenvyPlugin.getDefault()
+                                                       .getArtifactDownloader()
+                                                       .download(url, new SubProgressMonitor(monitor, 9));
+                    print("Build result downloaded to " + artifact.getAbsolutePath() + "\n");
+
+                    final IFile projectFile = copyToProject(artifact, new SubProgressMonitor(monitor, 1));
+                    if (projectFile != null) {
+                        print("Build result copied to " + projectFile.getFullPath() + "\n");
+                    }
+
+                    return Status.OK_STATUS;
+
+                } catch (OperationCanceledException e) {
+                    return Status.CANCEL_STATUS;
+
+                } catch (IOException | CoreException e) {
+                    return new Status(ERROR, CodenvyUIPlugin.PLUGIN_ID, "Unable to download build result from " + url, e);
+
+                } finally {
+                    monitor.done();
+                }
+            }
+
+            @Override
+            public boolean belongsTo(Object family) {
+                return FAMILY_CODENVY.equals(family);
+            }
+        };
+
+        downloadJob.setUser(true);
+        downloadJob.schedule();
+    }
+
+    private IFile copyToProject(File artifact, IProgressMonitor monitor) throws CoreException, IOException {
+        final IProcess process = console.getProcess();
+        final ILaunchConfiguration configuration = process == null ? null : process.getLaunch().getLaunchConfiguration();
+        if (configuration == null) {
+            return null;
+        }
+
+        final String projectName = configuration.getAttribute(CODENVY_PROJECT_NAME_ATTRIBUTE_NAME, (String)null);
+        final String projectFolder = configuration.getAttribute(ARTIFACT_PROJECT_FOLDER_ATTRIBUTE_NAME, (String)null);
+        if (projectName == null || projectFolder == null) {
+            return null;
+        }
+
+        final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(projectName);
+        if (!project.isAccessible()) {
+            return null;
+        }
+
+        final IContainer folder = projectFolder.isEmpty() ? project : project.getFolder(new Path(projectFolder));
+        createFolders(folder, monitor);
+
+        final IFile projectFile = folder.getFile(new Path(artifact.getName()));
+        try (InputStream inputStream = new FileInputStream(artifact)) {
+            if (projectFile.exists()) {
+                projectFile.setContents(inputStream, FORCE, monitor);
+            } else {
+                projectFile.create(inputStream, FORCE, monitor);
+            }
+        }
+        projectFile.setDerived(true, monitor);
+        return projectFile;
+    }
+
+    private static void createFolders(IContainer container, IProgressMonitor monitor) throws CoreException {
+        if (container instanceof IFolder && !container.exists()) {
+            createFolders(container.getParent(), monitor);
+            ((IFolder)container).create(FORCE, true, monitor);
+        }
+    }
+
+    private void print(String message) {
+        final IOConsoleOutputStream outputStream = console.getStream(ID_STANDARD_OUTPUT_STREAM);
+        if (outputStream != null) {
+            try {
+
+                outputStream.write(message);
+
+            } catch (IOException e) {
+                // the console has been closed
+            }
+        }
+    }
+}
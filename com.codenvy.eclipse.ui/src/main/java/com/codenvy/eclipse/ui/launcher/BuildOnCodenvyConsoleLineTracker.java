@@ -19,7 +19,7 @@ import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IRegion;
 
 /**
- * Track the build on codenvy console output.
+ * Track the build on codenvy console output. The build result link downloads the build result in the IDE.
  * 
  * @author Kevin Pollet
  */
@@ -41,7 +41,8 @@ public final class BuildOnCodenvyConsoleLineTracker implements IConsoleLineTrack
             final Matcher matcher = downloadLinkPattern.matcher(console.getDocument().get(line.getOffset(), line.getLength()));
             if (matcher.find()) {
                 final String downloadLink = matcher.group(1);
-                console.addLink(new WebHyperLink(downloadLink), line.getOffset() + DOWNLOAD_LINK_PREFIX.length(), downloadLink.length());
+                console.addLink(new ArtifactDownloadHyperLink(downloadLink, console), line.getOffset() + DOWNLOAD_LINK_PREFIX.length(),
+                                downloadLink.length());
             }
 
         } catch (BadLocationException e1) {
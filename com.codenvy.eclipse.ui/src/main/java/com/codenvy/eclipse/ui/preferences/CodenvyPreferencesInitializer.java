@@ -15,6 +15,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
 import org.eclipse.jface.preference.IPreferenceStore;
 
+import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.ui.CodenvyUIPlugin;
 import com.google.common.base.Joiner;
 
@@ -40,10 +41,61 @@ public final class CodenvyPreferencesInitializer extends AbstractPreferenceIniti
      */
     public final static String  DEFAULT_LOCATION                      = "https://codenvy.com";
 
+    /**
+     * Key where the maximum number of projects transferred concurrently with Codenvy is stored in the
+     * {@linkplain org.eclipse.jface.preference.PreferenceStore PreferenceStore} of the plugin.
+     */
+    public final static String  TRANSFER_CONCURRENCY_KEY_NAME         = "transferConcurrency";
+
+    /**
+     * Default maximum number of projects transferred concurrently.
+     */
+    public final static int     DEFAULT_TRANSFER_CONCURRENCY          = 4;
+
+    /**
+     * Upper bound of the maximum number of projects transferred concurrently.
+     */
+    public final static int     MAX_TRANSFER_CONCURRENCY              = 16;
+
+    /**
+     * Key where the maximum number of builds in progress at the same time on Codenvy is stored in the
+     * {@linkplain org.eclipse.jface.preference.PreferenceStore PreferenceStore} of the plugin.
+     */
+    public final static String  MAX_CONCURRENT_BUILDS_KEY_NAME        = "maxConcurrentBuilds";
+
+    /**
+     * Upper bound of the maximum number of builds in progress at the same time.
+     */
+    public final static int     MAX_CONCURRENT_BUILDS_LIMIT           = 16;
+
     @Override
     public void initializeDefaultPreferences() {
         IPreferenceStore codenvyUIPreferenceStore = CodenvyUIPlugin.getDefault().getPreferenceStore();
         codenvyUIPreferenceStore.setDefault(REMOTE_REPOSITORIES_LOCATION_KEY_NAME, DEFAULT_LOCATION);
+        codenvyUIPreferenceStore.setDefault(TRANSFER_CONCURRENCY_KEY_NAME, DEFAULT_TRANSFER_CONCURRENCY);
+        codenvyUIPreferenceStore.setDefault(MAX_CONCURRENT_BUILDS_KEY_NAME, CodenvyPlugin.DEFAULT_MAX_CONCURRENT_BUILDS);
+    }
+
+    /**
+     * Returns the maximum number of projects transferred concurrently with Codenvy, bounded between {@code 1} and
+     * {@link #MAX_TRANSFER_CONCURRENCY}.
+     * 
+     * @return the maximum number of projects transferred concurrently.
+     */
+    public static int getTransferConcurrency() {
+        final int transferConcurrency = CodenvyUIPlugin.getDefault().getPreferenceStore().getInt(TRANSFER_CONCURRENCY_KEY_NAME);
+        return Math.max(1, Math.min(transferConcurrency, MAX_TRANSFER_CONCURRENCY));
+    }
+
+    /**
+     * Returns the maximum number of builds in progress at the same time on Codenvy, bounded between {@code 1} and
+     * {@link #MAX_CONCURRENT_BUILDS_LIMIT}.
+     * 
+     * @return the maximum number of builds in progress at the same time.
+     */
+    public static int getMaxConcurrentBuilds() {
+        final int maxConcurrentBuilds = CodenvyUIPlugin.getDefault().getPreferenceStore().getInt(MAX_CONCURRENT_BUILDS_KEY_NAME);
+        return Math.max(1, Math.min(maxConcurrentBuilds, MAX_CONCURRENT_BUILDS_LIMIT));
     }
 
     /**
@@ -10,12 +10,17 @@
  *******************************************************************************/
 package com.codenvy.eclipse.ui.preferences;
 
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.MAX_CONCURRENT_BUILDS_KEY_NAME;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.MAX_CONCURRENT_BUILDS_LIMIT;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.MAX_TRANSFER_CONCURRENCY;
 import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.REMOTE_REPOSITORIES_LOCATION_KEY_NAME;
+import static com.codenvy.eclipse.ui.preferences.CodenvyPreferencesInitializer.TRANSFER_CONCURRENCY_KEY_NAME;
 import static com.google.common.collect.Sets.newHashSet;
 
 import org.eclipse.jface.dialogs.IInputValidator;
 import org.eclipse.jface.dialogs.InputDialog;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.ListEditor;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.widgets.Composite;
@@ -80,6 +85,18 @@ public final class CodenvyPreferencesPage extends FieldEditorPreferencePage impl
 
         locations.loadDefault();
         addField(locations);
+
+        final IntegerFieldEditor transferConcurrency = new IntegerFieldEditor(TRANSFER_CONCURRENCY_KEY_NAME,
+                                                                              "Maximum number of projects transferred concurrently:",
+                                                                              parent);
+        transferConcurrency.setValidRange(1, MAX_TRANSFER_CONCURRENCY);
+        addField(transferConcurrency);
+
+        final IntegerFieldEditor maxConcurrentBuilds = new IntegerFieldEditor(MAX_CONCURRENT_BUILDS_KEY_NAME,
+                                                                              "Maximum number of builds in progress at the same time:",
+                                                                              parent);
+        maxConcurrentBuilds.setValidRange(1, MAX_CONCURRENT_BUILDS_LIMIT);
+        addField(maxConcurrentBuilds);
     }
 
     /**
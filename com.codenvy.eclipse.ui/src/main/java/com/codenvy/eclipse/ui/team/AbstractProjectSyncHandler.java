@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.ui.team;
+
+import static com.codenvy.eclipse.core.CodenvyPlugin.FAMILY_CODENVY;
+import static com.codenvy.eclipse.core.team.CodenvyProvider.PROVIDER_ID;
+import static org.eclipse.core.runtime.IStatus.ERROR;
+
+import java.util.Set;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.team.core.RepositoryProvider;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.PlatformUI;
+
+import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.core.team.CodenvyProvider;
+import com.codenvy.eclipse.ui.CodenvyUIPlugin;
+import com.codenvy.eclipse.ui.utils.TransferPermits;
+
+/**
+ * Handler synchronizing the selected projects with Codenvy. Each project is synchronized by its own {@link Job} holding the project
+ * scheduling rule, independent projects are synchronized concurrently. The number of projects transferred at the same time is bounded
+ * by the plugin {@link TransferPermits}, which follow the transfer concurrency preference.
+ *
+ * @author Kevin Pollet
+ */
+public abstract class AbstractProjectSyncHandler extends AbstractProjectHandler {
+    @Override
+    public final Object execute(Set<IProject> projects, ExecutionEvent event) throws ExecutionException {
+        final TransferPermits transferPermits = CodenvyUIPlugin.getDefault().getTransferPermits();
+
+        for (final IProject oneProject : projects) {
+            final Job syncJob = new Job(getJobName(oneProject)) {
+                @Override
+                protected IStatus run(IProgressMonitor monitor) {
+                    monitor.beginTask(getName(), 1);
+
+                    try {
+
+                        transferPermits.acquire(monitor);
+                        try {
+
+                            final RepositoryProvider provider = RepositoryProvider.getProvider(oneProject, PROVIDER_ID);
+                            final CodenvyProjectMetadata projectMetadata = ((CodenvyProvider)provider).getProjectMetadata();
+
+                            syncProject(oneProject, projectMetadata, monitor);
+
+                        } finally {
+                            transferPermits.release();
+                        }
+
+                        refreshDecorations();
+                        return Status.OK_STATUS;
+
+                    } catch (OperationCanceledException e) {
+                        return Status.CANCEL_STATUS;
+
+                    } catch (RuntimeException e) {
+                        return new Status(ERROR, CodenvyUIPlugin.PLUGIN_ID, getName() + " failed", e);
+
+                    } finally {
+                        monitor.done();
+                    }
+                }
+
+                @Override
+                public boolean belongsTo(Object family) {
+                    return FAMILY_CODENVY.equals(family);
+                }
+            };
+
+            syncJob.setRule(oneProject);
+            syncJob.setUser(true);
+            syncJob.schedule();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the name of the {@link Job} synchronizing the given {@link IProject}.
+     *
+     * @param project the {@link IProject} to synchronize.
+     * @return the {@link Job} name.
+     */
+    protected abstract String getJobName(IProject project);
+
+    /**
+     * Synchronizes the given {@link IProject} with Codenvy. This method is called from a {@link Job} holding the project scheduling rule.
+     *
+     * @param project the {@link IProject} to synchronize.
+     * @param projectMetadata the {@link CodenvyProjectMetadata} of the project.
+     * @param monitor the {@link IProgressMonitor} of the {@link Job}.
+     */
+    protected abstract void syncProject(IProject project, CodenvyProjectMetadata projectMetadata, IProgressMonitor monitor);
+
+    /**
+     * Refreshes asynchronously the Codenvy provider label decorations.
+     */
+    private static void refreshDecorations() {
+        final IWorkbench workbench = PlatformUI.getWorkbench();
+        workbench.getDisplay().asyncExec(new Runnable() {
+            @Override
+            public void run() {
+                workbench.getDecoratorManager()
+                         .update(CodenvyLightweightLabelDecorator.DECORATOR_ID);
+            }
+        });
+    }
+}
@@ -14,32 +14,91 @@ import static org.eclipse.core.resources.IResource.PROJECT;
 import static org.eclipse.core.resources.IResource.ROOT;
 import static org.eclipse.team.core.RepositoryProvider.getProvider;
 import static org.eclipse.team.ui.ISharedImages.IMG_CHECKEDIN_OVR;
+import static org.eclipse.team.ui.ISharedImages.IMG_CONFLICT_OVR;
+import static org.eclipse.team.ui.ISharedImages.IMG_DIRTY_OVR;
 import static org.eclipse.ui.ide.ResourceUtil.getAdapter;
 
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.viewers.IDecoration;
 import org.eclipse.jface.viewers.ILightweightLabelDecorator;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
 import org.eclipse.team.ui.TeamImages;
+import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.ide.ResourceUtil;
 
+import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.team.CodenvyMetaResource;
 import com.codenvy.eclipse.core.team.CodenvyProvider;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex.SyncStatus;
+import com.codenvy.eclipse.core.team.CodenvySyncStatusIndex.SyncStatusListener;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex;
+import com.codenvy.eclipse.core.team.CodenvyTrackedStateIndex.TrackedStateListener;
 
 /**
- * {@link ILightweightLabelDecorator} implementation used to decorate {@link IResource} of a project linked to Codenvy.
+ * {@link ILightweightLabelDecorator} implementation used to decorate {@link IResource} of a project linked to Codenvy. The
+ * synchronization status is read from the {@link CodenvySyncStatusIndex}, the resources of a project which has never been synchronized
+ * are decorated from the {@link CodenvyTrackedStateIndex}. The decorations are refreshed when the indexes change.
  * 
  * @author Kevin Pollet
  * @see CodenvyProvider
  */
-public final class CodenvyLightweightLabelDecorator extends LabelProvider implements ILightweightLabelDecorator {
-    public static final String    DECORATOR_ID = "com.codenvy.eclipse.ui.team.codenvyLightweightLabelDecorator";
+public final class CodenvyLightweightLabelDecorator extends LabelProvider implements ILightweightLabelDecorator, TrackedStateListener,
+                                                                          SyncStatusListener {
+    public static final String    DECORATOR_ID    = "com.codenvy.eclipse.ui.team.codenvyLightweightLabelDecorator";
+    public static final String    OUTGOING_PREFIX = "> ";
+    public static final String    INCOMING_PREFIX = "< ";
+    public static final String    CONFLICT_PREFIX = "<> ";
 
     private final ImageDescriptor trackedImageDescriptor;
+    private final ImageDescriptor dirtyImageDescriptor;
+    private final ImageDescriptor conflictImageDescriptor;
 
     public CodenvyLightweightLabelDecorator() {
         trackedImageDescriptor = TeamImages.getImageDescriptor(IMG_CHECKEDIN_OVR);
+        dirtyImageDescriptor = TeamImages.getImageDescriptor(IMG_DIRTY_OVR);
+        conflictImageDescriptor = TeamImages.getImageDescriptor(IMG_CONFLICT_OVR);
+        CodenvyPlugin.getDefault().getTrackedStateIndex().addTrackedStateListener(this);
+        CodenvyPlugin.getDefault().getSyncStatusIndex().addSyncStatusListener(this);
+    }
+
+    @Override
+    public void dispose() {
+        final CodenvyPlugin plugin = CodenvyPlugin.getDefault();
+        if (plugin != null && plugin.getTrackedStateIndex() != null) {
+            plugin.getTrackedStateIndex().removeTrackedStateListener(this);
+        }
+        if (plugin != null && plugin.getSyncStatusIndex() != null) {
+            plugin.getSyncStatusIndex().removeSyncStatusListener(this);
+        }
+        super.dispose();
+    }
+
+    @Override
+    public void trackedStateChanged(IProject project, Set<IResource> resources) {
+        if (!resources.isEmpty()) {
+            refreshDecorations(resources.toArray());
+        }
+    }
+
+    @Override
+    public void syncStatusChanged(IProject project, Set<IResource> resources) {
+        refreshDecorations(resources == null ? null : resources.toArray());
+    }
+
+    private void refreshDecorations(final Object[] elements) {
+        PlatformUI.getWorkbench().getDisplay().asyncExec(new Runnable() {
+            @Override
+            public void run() {
+                fireLabelProviderChanged(elements == null ? new LabelProviderChangedEvent(CodenvyLightweightLabelDecorator.this)
+                    : new LabelProviderChangedEvent(CodenvyLightweightLabelDecorator.this, elements));
+            }
+        });
     }
 
     @Override
@@ -50,16 +109,49 @@ public final class CodenvyLightweightLabelDecorator extends LabelProvider implem
             final CodenvyProvider provider = (CodenvyProvider)getProvider(resource.getProject(), CodenvyProvider.PROVIDER_ID);
 
             if (provider != null) {
-                final CodenvyMetaResource metaResource = (CodenvyMetaResource)getAdapter(resource, CodenvyMetaResource.class, true);
+                final SyncStatus syncStatus = CodenvyPlugin.getDefault().getSyncStatusIndex().getSyncStatus(resource);
 
-                if (metaResource != null && metaResource.isTracked()) {
+                if (syncStatus != null) {
+                    decorate(syncStatus, decoration);
+
+                } else if (resource.getType() == PROJECT && provider.getProjectMetadata() != null) {
+                    // a project mapped to Codenvy is decorated even while its tracked resources are listed
                     decoration.addOverlay(trackedImageDescriptor);
 
-                    if (resource.getType() == PROJECT) {
-                        decoration.addSuffix(" [codenvy: " + provider.getProjectMetadata().url + "]");
+                } else {
+                    final CodenvyMetaResource metaResource = (CodenvyMetaResource)getAdapter(resource, CodenvyMetaResource.class, true);
+                    if (metaResource != null && metaResource.isTracked()) {
+                        decoration.addOverlay(trackedImageDescriptor);
                     }
                 }
+
+                if (resource.getType() == PROJECT && provider.getProjectMetadata() != null) {
+                    decoration.addSuffix(" [codenvy: " + provider.getProjectMetadata().url + "]");
+                }
             }
         }
     }
+
+    private void decorate(SyncStatus syncStatus, IDecoration decoration) {
+        switch (syncStatus) {
+            case OUTGOING:
+                decoration.addOverlay(dirtyImageDescriptor);
+                decoration.addPrefix(OUTGOING_PREFIX);
+                break;
+
+            case INCOMING:
+                decoration.addOverlay(trackedImageDescriptor);
+                decoration.addPrefix(INCOMING_PREFIX);
+                break;
+
+            case CONFLICT:
+                decoration.addOverlay(conflictImageDescriptor);
+                decoration.addPrefix(CONFLICT_PREFIX);
+                break;
+
+            default:
+                decoration.addOverlay(trackedImageDescriptor);
+                break;
+        }
+    }
 }
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.ui.team;
+
+import org.eclipse.team.ui.TeamUI;
+import org.eclipse.team.ui.synchronize.ISynchronizeParticipantDescriptor;
+import org.eclipse.team.ui.synchronize.ISynchronizeScope;
+import org.eclipse.team.ui.synchronize.ScopableSubscriberParticipant;
+
+import com.codenvy.eclipse.core.CodenvyPlugin;
+import com.codenvy.eclipse.core.team.CodenvySubscriber;
+
+/**
+ * Synchronize participant showing the differences between the projects linked to Codenvy and their remote tree.
+ *
+ * @author Kevin Pollet
+ * @see CodenvySubscriber
+ */
+public final class CodenvySynchronizeParticipant extends ScopableSubscriberParticipant {
+    public static final String PARTICIPANT_ID = "com.codenvy.eclipse.ui.team.synchronizeParticipant";
+
+    public CodenvySynchronizeParticipant() {
+        setSubscriber(CodenvyPlugin.getDefault().getSubscriber());
+    }
+
+    /**
+     * Constructs an instance of {@link CodenvySynchronizeParticipant}.
+     *
+     * @param scope the {@link ISynchronizeScope} of the participant.
+     */
+    public CodenvySynchronizeParticipant(ISynchronizeScope scope) {
+        super(scope);
+        setSubscriber(CodenvyPlugin.getDefault().getSubscriber());
+    }
+
+    @Override
+    protected ISynchronizeParticipantDescriptor getDescriptor() {
+        return TeamUI.getSynchronizeManager().getParticipantDescriptor(PARTICIPANT_ID);
+    }
+}
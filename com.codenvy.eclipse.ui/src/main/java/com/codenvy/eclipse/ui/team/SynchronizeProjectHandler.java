@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.ui.team;
+
+import java.util.Set;
+
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.team.ui.TeamUI;
+import org.eclipse.team.ui.synchronize.ISynchronizeParticipant;
+import org.eclipse.team.ui.synchronize.ResourceScope;
+import org.eclipse.ui.handlers.HandlerUtil;
+
+/**
+ * Handler comparing the selected projects with Codenvy in the Synchronize view.
+ *
+ * @author Kevin Pollet
+ */
+public final class SynchronizeProjectHandler extends AbstractProjectHandler {
+    @Override
+    public Object execute(Set<IProject> projects, ExecutionEvent event) throws ExecutionException {
+        if (!projects.isEmpty()) {
+            final ResourceScope scope = new ResourceScope(projects.toArray(new IResource[projects.size()]));
+            final CodenvySynchronizeParticipant participant = new CodenvySynchronizeParticipant(scope);
+
+            TeamUI.getSynchronizeManager().addSynchronizeParticipants(new ISynchronizeParticipant[]{participant});
+            participant.run(HandlerUtil.getActivePart(event));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package com.codenvy.eclipse.ui.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Permits bounding the number of projects transferred concurrently with Codenvy. The permits are shared by all the transfers of the
+ * plugin and can be resized while transfers are running, a shrink takes effect as the running transfers release their permits.
+ *
+ * @author Kevin Pollet
+ */
+public final class TransferPermits {
+    private static final long        PERMIT_ACQUIRE_DELAY = 500;
+
+    private final ResizableSemaphore semaphore;
+    private int                      size;
+
+    /**
+     * Constructs an instance of {@link TransferPermits}.
+     *
+     * @param size the number of permits.
+     * @throws IllegalArgumentException if size is lower than {@code 1}.
+     */
+    public TransferPermits(int size) {
+        checkArgument(size > 0);
+
+        this.semaphore = new ResizableSemaphore(size);
+        this.size = size;
+    }
+
+    /**
+     * Changes the number of permits.
+     *
+     * @param newSize the new number of permits.
+     * @throws IllegalArgumentException if newSize is lower than {@code 1}.
+     */
+    public synchronized void resize(int newSize) {
+        checkArgument(newSize > 0);
+
+        if (newSize > size) {
+            semaphore.release(newSize - size);
+        } else if (newSize < size) {
+            semaphore.reducePermits(size - newSize);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Returns the number of permits.
+     *
+     * @return the number of permits.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Acquires a permit, waiting until one is available or until the given {@link IProgressMonitor} is canceled.
+     *
+     * @param monitor the {@link IProgressMonitor} of the transfer.
+     * @throws OperationCanceledException if the transfer is canceled or interrupted while waiting.
+     */
+    public void acquire(IProgressMonitor monitor) {
+        try {
+
+            while (!semaphore.tryAcquire(PERMIT_ACQUIRE_DELAY, MILLISECONDS)) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        }
+    }
+
+    /**
+     * Releases a permit acquired with {@link #acquire(IProgressMonitor)}.
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    /**
+     * {@link Semaphore} exposing {@link Semaphore#reducePermits(int)}.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+        private static final long serialVersionUID = 1L;
+
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.createOrUpdate
 import static com.codenvy.eclipse.core.utils.EclipseProjectHelper.exportIProjectToZipStream;
 import static com.google.common.base.Predicates.notNull;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
@@ -172,10 +173,11 @@ public class ExportProjectToCodenvyWizard extends Wizard implements IExportWizar
                                                 .create(projectToExport)
                                                 .execute();
 
-                                         final InputStream archiveInputStream = exportIProjectToZipStream(oneProject, monitor);
-                                         codenvy.project()
-                                                .importArchive(workspaceReference.id(), projectToExport, archiveInputStream)
-                                                .execute();
+                                         try (InputStream archiveInputStream = exportIProjectToZipStream(oneProject, monitor)) {
+                                             codenvy.project()
+                                                    .importArchive(workspaceReference.id(), projectToExport, archiveInputStream)
+                                                    .execute();
+                                         }
 
                                          final IFolder codenvyFolder = oneProject.getFolder(new Path(CODENVY_FOLDER_NAME));
                                          if (!codenvyFolder.exists()) {
@@ -213,7 +215,7 @@ public class ExportProjectToCodenvyWizard extends Wizard implements IExportWizar
                                      monitor.worked(1);
                                  }
 
-                             } catch (CoreException e) {
+                             } catch (CoreException | IOException e) {
                                  throw new RuntimeException(e);
                              } finally {
                                  monitor.done();
@@ -16,6 +16,12 @@ import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.zip.ZipInputStream;
 
 import org.eclipse.core.resources.IProject;
@@ -23,6 +29,9 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.jface.viewers.IStructuredSelection;
@@ -42,6 +51,8 @@ import org.eclipse.ui.PlatformUI;
 import com.codenvy.client.model.ProjectReference;
 import com.codenvy.eclipse.core.CodenvyPlugin;
 import com.codenvy.eclipse.core.CodenvyProjectMetadata;
+import com.codenvy.eclipse.ui.CodenvyUIPlugin;
+import com.codenvy.eclipse.ui.utils.TransferPermits;
 import com.codenvy.eclipse.ui.wizard.common.CredentialsProviderWizard;
 import com.codenvy.eclipse.ui.wizard.common.pages.AuthenticationWizardPage;
 import com.codenvy.eclipse.ui.wizard.importer.pages.ProjectWizardPage;
@@ -118,7 +129,8 @@ public final class ImportProjectFromCodenvyWizard extends Wizard implements IImp
                 public void run(final IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
                     monitor.beginTask("Importing projects", projects.size());
 
-                    final List<IProject> importedProjects = new ArrayList<>();
+                    // the override confirmations are asked first, the confirmed projects are then imported concurrently
+                    final List<ProjectReference> projectsToImport = new ArrayList<>();
                     for (final ProjectReference oneProject : projects) {
                         final IPath workspaceLocation = ResourcesPlugin.getWorkspace().getRoot().getLocation();
                         final IPath newProjectLocation = workspaceLocation != null ? workspaceLocation.append(oneProject.name()) : null;
@@ -137,13 +149,14 @@ public final class ImportProjectFromCodenvyWizard extends Wizard implements IImp
                         }
 
                         if (newProjectLocation == null || !newProjectLocation.toFile().exists()) {
-                            final IProject importedProject = importProject(platformURL, username, oneProject, monitor);
-                            importedProjects.add(importedProject);
+                            projectsToImport.add(oneProject);
+                        } else {
+                            monitor.worked(1);
                         }
-
-                        monitor.worked(1);
                     }
 
+                    final List<IProject> importedProjects = importProjects(platformURL, username, projectsToImport, monitor);
+
                     final IWorkingSetManager workingSetManager = workbench.getWorkingSetManager();
                     for (IAdaptable importedProject : importedProjects) {
                         workingSetManager.addToWorkingSets(importedProject,
@@ -179,6 +192,95 @@ public final class ImportProjectFromCodenvyWizard extends Wizard implements IImp
         return authenticationWizardPage.isStoreUserCredentials();
     }
 
+    /**
+     * Imports the given Codenvy projects into Eclipse concurrently on the shared executor. The number of projects imported at the same
+     * time is bounded by the plugin {@link TransferPermits}, the download of a project overlaps with the extraction of the others. Each
+     * import task reports its progress to the given {@link IProgressMonitor} through its own child monitor.
+     * 
+     * @param platformURL the Codenvy platform URL.
+     * @param username the user name.
+     * @param projects the Codenvy {@link ProjectReference} to import.
+     * @param monitor the {@link IProgressMonitor}.
+     * @return the imported {@link IProject} references, never {@code null}.
+     * @throws InvocationTargetException if the import of a project fails.
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the imports.
+     */
+    private List<IProject> importProjects(final String platformURL,
+                                          final String username,
+                                          List<ProjectReference> projects,
+                                          IProgressMonitor monitor) throws InvocationTargetException, InterruptedException {
+
+        final List<IProject> importedProjects = new ArrayList<>();
+        if (projects.isEmpty()) {
+            return importedProjects;
+        }
+
+        final IProgressMonitor importMonitor = new SynchronizedProgressMonitor(monitor);
+        final TransferPermits transferPermits = CodenvyUIPlugin.getDefault().getTransferPermits();
+        final ExecutorService executorService = CodenvyPlugin.getDefault().getExecutorService();
+        final CompletionService<IProject> completionService = new ExecutorCompletionService<>(executorService);
+        final List<Future<IProject>> imports = new ArrayList<>();
+        try {
+
+            for (final ProjectReference oneProject : projects) {
+                // the projects not submitted yet are skipped once the import is canceled
+                try {
+
+                    transferPermits.acquire(importMonitor);
+
+                } catch (OperationCanceledException e) {
+                    break;
+                }
+
+                final IProgressMonitor projectMonitor = new SubProgressMonitor(importMonitor, 1);
+                imports.add(completionService.submit(new Callable<IProject>() {
+                    @Override
+                    public IProject call() {
+                        try {
+
+                            return projectMonitor.isCanceled() ? null : importProject(platformURL, username, oneProject, projectMonitor);
+
+                        } finally {
+                            transferPermits.release();
+                            projectMonitor.done();
+                        }
+                    }
+                }));
+            }
+
+            // a failed import cancels the pending ones, the canceled imports end as soon as they notice the cancellation and all imports
+            // are awaited before returning
+            InvocationTargetException importException = null;
+            for (int i = 0; i < imports.size(); i++) {
+                try {
+
+                    final IProject importedProject = completionService.take().get();
+                    if (importedProject != null) {
+                        importedProjects.add(importedProject);
+                        importMonitor.subTask("Project " + importedProject.getName() + " imported");
+                    }
+
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof OperationCanceledException) && importException == null) {
+                        importException = new InvocationTargetException(e.getCause());
+                        importMonitor.setCanceled(true);
+                    }
+                }
+            }
+
+            if (importException != null) {
+                throw importException;
+            }
+
+        } finally {
+            for (Future<IProject> oneImport : imports) {
+                oneImport.cancel(true);
+            }
+        }
+
+        return importedProjects;
+    }
+
     /**
      * Imports the given Codenvy project into Eclipse.
      * 
@@ -218,4 +320,58 @@ public final class ImportProjectFromCodenvyWizard extends Wizard implements IImp
             directory.delete();
         }
     }
+
+    /**
+     * {@link IProgressMonitor} forwarding the progress of the concurrent import tasks to the wizard {@link IProgressMonitor}, the calls
+     * are serialized on the wrapped monitor.
+     *
+     * @author Kevin Pollet
+     */
+    private static final class SynchronizedProgressMonitor extends ProgressMonitorWrapper {
+        SynchronizedProgressMonitor(IProgressMonitor monitor) {
+            super(monitor);
+        }
+
+        @Override
+        public void internalWorked(double work) {
+            synchronized (getWrappedProgressMonitor()) {
+                super.internalWorked(work);
+            }
+        }
+
+        @Override
+        public void worked(int work) {
+            synchronized (getWrappedProgressMonitor()) {
+                super.worked(work);
+            }
+        }
+
+        @Override
+        public void subTask(String name) {
+            synchronized (getWrappedProgressMonitor()) {
+                super.subTask(name);
+            }
+        }
+
+        @Override
+        public void setTaskName(String name) {
+            synchronized (getWrappedProgressMonitor()) {
+                super.setTaskName(name);
+            }
+        }
+
+        @Override
+        public void setCanceled(boolean canceled) {
+            synchronized (getWrappedProgressMonitor()) {
+                super.setCanceled(canceled);
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            synchronized (getWrappedProgressMonitor()) {
+                return super.isCanceled();
+            }
+        }
+    }
 }